@@ -0,0 +1,224 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scu.uob.dsa.cardiac_trader_backend.model.DailyChallengeRound;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.DailyChallengeRoundRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The shared markets of the daily challenge: one DailyRound per (day, round), built once and
+ * reused by every challenger.
+ * A node first looks in memory, then in the daily_challenge_rounds table; only if neither has the
+ * round does it call the builder (which fetches the round's puzzles). Concurrent requests for the same
+ * round on a node wait for a single build, and the table's unique key lets exactly one node's build
+ * win across the cluster, so each stock's puzzle is fetched once per day.
+ */
+@Component
+public class DailyChallengeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyChallengeCache.class);
+    private static final byte FORMAT_VERSION = 1;
+
+    private final DailyChallengeRoundRepository dailyChallengeRoundRepository;
+    private final TransactionTemplate newTransaction;
+    private final Cache<Key, DailyRound> rounds;
+    private final long seed;
+
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    public DailyChallengeCache(
+            DailyChallengeRoundRepository dailyChallengeRoundRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${game.daily.cache-rounds:16}") long cacheRounds,
+            @Value("${game.daily.seed:0}") long seed) {
+        this.dailyChallengeRoundRepository = dailyChallengeRoundRepository;
+        // Its own transaction, so a lost insert race never marks the caller's transaction rollback-only
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rounds = Caffeine.newBuilder()
+            .maximumSize(cacheRounds)
+            .expireAfterWrite(Duration.ofDays(2))
+            .recordStats()
+            .build();
+        this.seed = seed;
+    }
+
+    /**
+     * The shared market of a day's round, building it with the builder if no node has yet
+     */
+    public DailyRound get(LocalDate date, int roundNumber, Supplier<DailyRound> builder) {
+        return rounds.get(new Key(date, roundNumber), key -> loadOrBuild(key, builder));
+    }
+
+    /**
+     * Generator seeded by the day and round, for stock picks and any random fallbacks while building
+     */
+    public Random random(LocalDate date, int roundNumber) {
+        return new Random(seed ^ (date.toEpochDay() * 1_000_003L + roundNumber));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = RoundMarketCache.cacheStats(rounds.estimatedSize(), rounds.stats());
+        stats.put("loadedFromDatabase", loads.get());
+        stats.put("built", builds.get());
+        return stats;
+    }
+
+    private DailyRound loadOrBuild(Key key, Supplier<DailyRound> builder) {
+        DailyRound stored = load(key);
+        if (stored != null) {
+            return stored;
+        }
+        DailyRound built = builder.get();
+        DailyChallengeRound row = new DailyChallengeRound();
+        row.setChallengeDate(key.date);
+        row.setRoundNumber(key.roundNumber);
+        row.setMarket(built.encode());
+        try {
+            newTransaction.executeWithoutResult(status -> dailyChallengeRoundRepository.save(row));
+            builds.incrementAndGet();
+            logger.info("Daily challenge {} round {} built with {} stocks", key.date, key.roundNumber, built.size());
+            return built;
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored this round first; everyone must play its version
+            logger.info("Daily challenge {} round {} built concurrently, using the stored one", key.date, key.roundNumber);
+            DailyRound winner = load(key);
+            if (winner == null) {
+                throw e;
+            }
+            return winner;
+        }
+    }
+
+    private DailyRound load(Key key) {
+        DailyRound round = newTransaction.execute(status -> dailyChallengeRoundRepository
+            .findByChallengeDateAndRoundNumber(key.date, key.roundNumber)
+            .map(row -> DailyRound.decode(row.getMarket()))
+            .orElse(null));
+        if (round != null) {
+            loads.incrementAndGet();
+        }
+        return round;
+    }
+
+    private record Key(LocalDate date, int roundNumber) {
+    }
+
+    /**
+     * One round of a day's market in parallel arrays (index i = i-th stock of the round).
+     * Immutable once built; the arrays are shared by every caller, so never modify them.
+     */
+    public static final class DailyRound {
+        private final UUID[] stockIds;
+        private final byte[] heartCounts;
+        private final long[] basePriceCents;
+        private final long[] marketPriceCents;
+        // Content hash of each puzzle image, or null if the stock has no image
+        private final String[] imageHashes;
+
+        public DailyRound(UUID[] stockIds, byte[] heartCounts, long[] basePriceCents, long[] marketPriceCents,
+                          String[] imageHashes) {
+            this.stockIds = stockIds;
+            this.heartCounts = heartCounts;
+            this.basePriceCents = basePriceCents;
+            this.marketPriceCents = marketPriceCents;
+            this.imageHashes = imageHashes;
+        }
+
+        public int size() {
+            return stockIds.length;
+        }
+
+        public UUID stockId(int i) {
+            return stockIds[i];
+        }
+
+        public int heartCount(int i) {
+            return heartCounts[i];
+        }
+
+        public long basePriceCents(int i) {
+            return basePriceCents[i];
+        }
+
+        public long marketPriceCents(int i) {
+            return marketPriceCents[i];
+        }
+
+        public String imageHash(int i) {
+            return imageHashes[i];
+        }
+
+        /**
+         * [u8 version][u8 count], then per stock:
+         * [i64 id msb][i64 id lsb][u8 hearts][i64 base cents][i64 market cents][UTF image hash, empty = none]
+         */
+        byte[] encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(2 + stockIds.length * 100);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(FORMAT_VERSION);
+                out.writeByte(stockIds.length);
+                for (int i = 0; i < stockIds.length; i++) {
+                    out.writeLong(stockIds[i].getMostSignificantBits());
+                    out.writeLong(stockIds[i].getLeastSignificantBits());
+                    out.writeByte(heartCounts[i]);
+                    out.writeLong(basePriceCents[i]);
+                    out.writeLong(marketPriceCents[i]);
+                    out.writeUTF(imageHashes[i] != null ? imageHashes[i] : "");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        static DailyRound decode(byte[] data) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                int version = in.readUnsignedByte();
+                if (version != FORMAT_VERSION) {
+                    throw new IllegalStateException("Unknown daily challenge format " + version);
+                }
+                int count = in.readUnsignedByte();
+                UUID[] stockIds = new UUID[count];
+                byte[] heartCounts = new byte[count];
+                long[] basePriceCents = new long[count];
+                long[] marketPriceCents = new long[count];
+                String[] imageHashes = new String[count];
+                for (int i = 0; i < count; i++) {
+                    stockIds[i] = new UUID(in.readLong(), in.readLong());
+                    heartCounts[i] = in.readByte();
+                    basePriceCents[i] = in.readLong();
+                    marketPriceCents[i] = in.readLong();
+                    String hash = in.readUTF();
+                    imageHashes[i] = hash.isEmpty() ? null : hash;
+                }
+                return new DailyRound(stockIds, heartCounts, basePriceCents, marketPriceCents, imageHashes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
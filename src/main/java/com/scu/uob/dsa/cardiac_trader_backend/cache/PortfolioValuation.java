@@ -0,0 +1,237 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running portfolio valuation of every session loaded in the trade ledger, so a portfolio read
+ * costs no queries and no per-holding arithmetic.
+ * Each holding keeps its cost basis, live price, market value and profit/loss, and the session keeps
+ * cash and the totals. A trade updates only the holdings it touched and each market tick only the
+ * holdings whose price moved a cent, adjusting the totals by the difference.
+ * Holdings are priced like getPortfolio always has: at the live price of stocks in the session's
+ * current round market, and at zero for stocks of earlier rounds.
+ */
+@Component
+public class PortfolioValuation implements TradeLedger.AccountListener {
+
+    private final TradeLedger tradeLedger;
+    private final RoundMarketCache roundMarketCache;
+    private final MarketTickEngine marketTickEngine;
+    private final Map<UUID, Valuation> valuations = new ConcurrentHashMap<>();
+
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong repriced = new AtomicLong();
+
+    public PortfolioValuation(TradeLedger tradeLedger, RoundMarketCache roundMarketCache,
+                              MarketTickEngine marketTickEngine) {
+        this.tradeLedger = tradeLedger;
+        this.roundMarketCache = roundMarketCache;
+        this.marketTickEngine = marketTickEngine;
+    }
+
+    @PostConstruct
+    void init() {
+        tradeLedger.addAccountListener(this);
+        marketTickEngine.addTickListener(this::reprice);
+    }
+
+    /**
+     * Current valuation of a session
+     * @return Empty if the session is not loaded in the trade ledger or its round market is not cached;
+     * the database is then the source of its portfolio
+     */
+    public Optional<Portfolio> portfolio(UUID sessionId) {
+        reads.incrementAndGet();
+        Valuation valuation = valuations.get(sessionId);
+        if (valuation != null) {
+            RoundMarket market = roundMarketCache.peek(sessionId).orElse(null);
+            synchronized (valuation) {
+                // Ticks keep live prices current; a read only rebases when the round market was replaced
+                if (market != null && market != valuation.market) {
+                    valuation.reprice(market);
+                }
+                if (valuation.market != null) {
+                    return Optional.of(valuation.snapshot());
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    @Override
+    public void accountChanged(UUID sessionId, long cashCents, List<TradeLedger.Position> changed) {
+        Valuation valuation = valuations.computeIfAbsent(sessionId, Valuation::new);
+        RoundMarket market = roundMarketCache.peek(sessionId).orElse(null);
+        synchronized (valuation) {
+            valuation.cashCents = cashCents;
+            valuation.reprice(market);
+            for (TradeLedger.Position position : changed) {
+                valuation.setPosition(position);
+            }
+            valuation.cached = null;
+        }
+    }
+
+    @Override
+    public void accountReleased(UUID sessionId) {
+        valuations.remove(sessionId);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", valuations.size());
+        stats.put("reads", reads.get());
+        stats.put("misses", misses.get());
+        stats.put("repricedHoldings", repriced.get());
+        return stats;
+    }
+
+    /**
+     * After every market tick: move each holding to its new live price
+     */
+    private void reprice() {
+        for (Valuation valuation : valuations.values()) {
+            RoundMarket market = roundMarketCache.peek(valuation.sessionId).orElse(null);
+            synchronized (valuation) {
+                valuation.reprice(market);
+            }
+        }
+    }
+
+    /**
+     * A session's portfolio in cents, in the order the holdings were opened
+     */
+    public record Portfolio(long cashCents, long stockValueCents, long totalValueCents, List<Holding> holdings) {
+    }
+
+    /**
+     * One holding at its live price; profitLossHundredths is the profit/loss percentage times 100
+     */
+    public record Holding(Stock stock, int shares, long averagePriceCents, long priceCents, long valueCents,
+                          long profitLossCents, long profitLossHundredths) {
+    }
+
+    /**
+     * Aggregates of one session, guarded by its own monitor
+     */
+    private final class Valuation {
+        private final UUID sessionId;
+        private final Map<UUID, Line> lines = new LinkedHashMap<>();
+        private long cashCents;
+        private long stockValueCents;
+        // Round market the base prices were taken from (null if none was cached)
+        private RoundMarket market;
+        // Last snapshot, until cash, a position or a price changes
+        private Portfolio cached;
+
+        private Valuation(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        private void setPosition(TradeLedger.Position position) {
+            UUID stockId = position.stock().getId();
+            Line line = lines.get(stockId);
+            if (line != null) {
+                stockValueCents = Money.minus(stockValueCents, line.valueCents);
+            }
+            if (position.shares() == 0) {
+                lines.remove(stockId);
+                return;
+            }
+            if (line == null) {
+                line = new Line(position.stock(), basePriceCents(stockId));
+                lines.put(stockId, line);
+            }
+            line.shares = position.shares();
+            line.averagePriceCents = position.averagePriceCents();
+            line.costBasisCents = Money.times(position.averagePriceCents(), position.shares());
+            line.price(marketTickEngine.peekPriceCents(sessionId, stockId, line.basePriceCents));
+            stockValueCents = Money.plus(stockValueCents, line.valueCents);
+        }
+
+        /**
+         * Take new base prices if the round market was replaced, then live prices from the tick engine
+         */
+        private void reprice(RoundMarket current) {
+            boolean marketChanged = current != null && current != market;
+            if (marketChanged) {
+                market = current;
+            }
+            for (Map.Entry<UUID, Line> entry : lines.entrySet()) {
+                Line line = entry.getValue();
+                if (marketChanged) {
+                    line.basePriceCents = basePriceCents(entry.getKey());
+                }
+                long priceCents = marketTickEngine.peekPriceCents(sessionId, entry.getKey(), line.basePriceCents);
+                if (priceCents != line.priceCents) {
+                    stockValueCents = Money.minus(stockValueCents, line.valueCents);
+                    line.price(priceCents);
+                    stockValueCents = Money.plus(stockValueCents, line.valueCents);
+                    cached = null;
+                    repriced.incrementAndGet();
+                }
+            }
+        }
+
+        private long basePriceCents(UUID stockId) {
+            if (market != null) {
+                for (RoundMarket.Quote quote : market.getQuotes()) {
+                    if (quote.getStockId().equals(stockId)) {
+                        return Money.ofBigDecimal(quote.getMarketPrice());
+                    }
+                }
+            }
+            return 0;
+        }
+
+        private Portfolio snapshot() {
+            if (cached == null) {
+                List<Holding> holdings = new ArrayList<>(lines.size());
+                for (Line line : lines.values()) {
+                    holdings.add(new Holding(line.stock, line.shares, line.averagePriceCents, line.priceCents,
+                        line.valueCents, Money.minus(line.valueCents, line.costBasisCents), line.profitLossHundredths));
+                }
+                cached = new Portfolio(cashCents, stockValueCents, Money.plus(cashCents, stockValueCents),
+                    List.copyOf(holdings));
+            }
+            return cached;
+        }
+    }
+
+    private static final class Line {
+        private final Stock stock;
+        private int shares;
+        private long averagePriceCents;
+        private long costBasisCents;
+        private long basePriceCents;
+        private long priceCents;
+        private long valueCents;
+        private long profitLossHundredths;
+
+        private Line(Stock stock, long basePriceCents) {
+            this.stock = stock;
+            this.basePriceCents = basePriceCents;
+        }
+
+        private void price(long priceCents) {
+            this.priceCents = priceCents;
+            this.valueCents = Money.times(priceCents, shares);
+            this.profitLossHundredths = Money.percentHundredths(Money.minus(valueCents, costBasisCents), costBasisCents);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of one session's market for one round.
+ * Built once at round start and replaced as a whole (e.g. on reveal), never modified in place,
+ * so readers can use it without locking.
+ */
+public final class RoundMarket {
+
+    private final UUID sessionId;
+    private final int roundNumber;
+    private final boolean revealed;
+    private final List<Quote> quotes;
+
+    public RoundMarket(UUID sessionId, int roundNumber, boolean revealed, List<Quote> quotes) {
+        this.sessionId = sessionId;
+        this.roundNumber = roundNumber;
+        this.revealed = revealed;
+        this.quotes = List.copyOf(quotes);
+    }
+
+    public UUID getSessionId() {
+        return sessionId;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    public boolean isRevealed() {
+        return revealed;
+    }
+
+    public List<Quote> getQuotes() {
+        return quotes;
+    }
+
+    /**
+     * One stock as seen by the session in this round
+     */
+    public static final class Quote {
+        private final UUID stockId;
+        private final String symbol;
+        private final String companyName;
+        private final StockSector sector;
+        private final String heartImageUrl;
+        private final BigDecimal marketPrice;
+
+        public Quote(UUID stockId, String symbol, String companyName, StockSector sector,
+                     String heartImageUrl, BigDecimal marketPrice) {
+            this.stockId = stockId;
+            this.symbol = symbol;
+            this.companyName = companyName;
+            this.sector = sector;
+            this.heartImageUrl = heartImageUrl;
+            this.marketPrice = marketPrice;
+        }
+
+        public UUID getStockId() {
+            return stockId;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getCompanyName() {
+            return companyName;
+        }
+
+        public StockSector getSector() {
+            return sector;
+        }
+
+        public String getHeartImageUrl() {
+            return heartImageUrl;
+        }
+
+        public BigDecimal getMarketPrice() {
+            return marketPrice;
+        }
+    }
+}
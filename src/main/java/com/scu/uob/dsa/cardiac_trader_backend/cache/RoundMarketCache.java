@@ -0,0 +1,79 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-session cache of the current RoundMarket, bounded by size and idle time.
+ * Round start and reveal publish a new market with put(); read paths that rebuilt a market
+ * from the database use putIfAbsent() so they can never overwrite a newer published market.
+ */
+@Component
+public class RoundMarketCache {
+
+    private final Cache<UUID, RoundMarket> markets;
+
+    public RoundMarketCache(
+            @Value("${market.cache.maximum-sessions:10000}") long maximumSessions,
+            @Value("${market.cache.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.markets = Caffeine.newBuilder()
+            .maximumSize(maximumSessions)
+            .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+            .recordStats()
+            .build();
+    }
+
+    public Optional<RoundMarket> get(UUID sessionId) {
+        return Optional.ofNullable(markets.getIfPresent(sessionId));
+    }
+
+    /**
+     * Cached market without counting as an access (for background readers that must not keep it cached)
+     */
+    public Optional<RoundMarket> peek(UUID sessionId) {
+        return Optional.ofNullable(markets.policy().getIfPresentQuietly(sessionId));
+    }
+
+    /**
+     * Publish a freshly built market, replacing whatever the session had
+     */
+    public void put(RoundMarket market) {
+        markets.put(market.getSessionId(), market);
+    }
+
+    /**
+     * Cache a market rebuilt from the database unless one was published meanwhile
+     * @return The market now cached for the session
+     */
+    public RoundMarket putIfAbsent(RoundMarket market) {
+        RoundMarket existing = markets.asMap().putIfAbsent(market.getSessionId(), market);
+        return existing != null ? existing : market;
+    }
+
+    public void evict(UUID sessionId) {
+        markets.invalidate(sessionId);
+    }
+
+    public Map<String, Object> getStats() {
+        return cacheStats(markets.estimatedSize(), markets.stats());
+    }
+
+    static Map<String, Object> cacheStats(long size, CacheStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * In-memory copy of each session's holdings, keyed by stock ID.
+ * Loaded from the database on first use and kept current by applying the committed
+ * position after every trade. Positions are absolute (not deltas), so applying one
+ * twice or racing with a load cannot corrupt the ledger.
+ */
+@Component
+public class SessionLedger {
+
+    private final Cache<UUID, Map<UUID, Position>> ledgers;
+
+    public SessionLedger(
+            @Value("${market.cache.maximum-sessions:10000}") long maximumSessions,
+            @Value("${market.cache.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.ledgers = Caffeine.newBuilder()
+            .maximumSize(maximumSessions)
+            .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Positions of a session (unmodifiable), loading them on a miss
+     * @param loader Builds the positions from the database
+     */
+    public Map<UUID, Position> positions(UUID sessionId, Function<UUID, Map<UUID, Position>> loader) {
+        return ledgers.get(sessionId, id -> Map.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Record a session's committed position in a stock (shares = 0 removes it).
+     * Sessions that are not loaded are skipped; their next load reads the committed state.
+     */
+    public void applyPosition(UUID sessionId, UUID stockId, int shares, BigDecimal averagePrice) {
+        ledgers.asMap().computeIfPresent(sessionId, (id, current) -> {
+            Map<UUID, Position> updated = new HashMap<>(current);
+            if (shares > 0) {
+                updated.put(stockId, new Position(shares, averagePrice));
+            } else {
+                updated.remove(stockId);
+            }
+            return Map.copyOf(updated);
+        });
+    }
+
+    public void evict(UUID sessionId) {
+        ledgers.invalidate(sessionId);
+    }
+
+    public Map<String, Object> getStats() {
+        return RoundMarketCache.cacheStats(ledgers.estimatedSize(), ledgers.stats());
+    }
+
+    /**
+     * Shares held in one stock and their average purchase price
+     */
+    public static final class Position {
+        private final int shares;
+        private final BigDecimal averagePrice;
+
+        public Position(int shares, BigDecimal averagePrice) {
+            this.shares = shares;
+            this.averagePrice = averagePrice;
+        }
+
+        public int getShares() {
+            return shares;
+        }
+
+        public BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable index of every tradable stock, built once at startup.
+ * Stocks are read from a CSV resource (symbol,company_name,sector); any missing from the stocks table
+ * are inserted in one batch, then the catalog holds the persisted rows in flat arrays with hash
+ * indexes from symbol and ID, so lookups and round sampling never query the database.
+ * Symbols are interned, so every DTO and cached quote shares one String per symbol.
+ */
+@Component
+public class StockCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockCatalog.class);
+
+    private final StockRepository stockRepository;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${market.catalog.resource:classpath:stocks.csv}")
+    private String catalogResource;
+
+    private Stock[] stocks;
+    private Map<String, Integer> indexBySymbol;
+    private Map<UUID, Integer> indexById;
+
+    public StockCatalog(StockRepository stockRepository, ResourceLoader resourceLoader) {
+        this.stockRepository = stockRepository;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    void init() {
+        List<Stock> listed = readCatalog(resourceLoader.getResource(catalogResource));
+        if (listed.isEmpty()) {
+            throw new IllegalStateException("Stock catalog " + catalogResource + " lists no stocks");
+        }
+
+        Map<String, Stock> persisted = loadPersisted();
+        List<Stock> missing = new ArrayList<>();
+        for (Stock stock : listed) {
+            if (!persisted.containsKey(stock.getSymbol())) {
+                missing.add(stock);
+            }
+        }
+        if (!missing.isEmpty()) {
+            try {
+                stockRepository.saveAll(missing);
+            } catch (DataIntegrityViolationException e) {
+                // Another node inserted some of them first; its rows are as good as ours
+                logger.info("Stock catalog rows inserted concurrently, reloading");
+            }
+            persisted = loadPersisted();
+        }
+
+        int size = listed.size();
+        stocks = new Stock[size];
+        Map<String, Integer> bySymbol = new HashMap<>(size * 2);
+        Map<UUID, Integer> byId = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            Stock stock = persisted.get(listed.get(i).getSymbol());
+            if (stock == null) {
+                throw new IllegalStateException("Stock " + listed.get(i).getSymbol() + " missing after catalog sync");
+            }
+            stock.setSymbol(stock.getSymbol().intern());
+            stocks[i] = stock;
+            bySymbol.put(stock.getSymbol(), i);
+            byId.put(stock.getId(), i);
+        }
+        indexBySymbol = Collections.unmodifiableMap(bySymbol);
+        indexById = Collections.unmodifiableMap(byId);
+        logger.info("Stock catalog loaded: {} stocks ({} new)", size, missing.size());
+    }
+
+    public int size() {
+        return stocks.length;
+    }
+
+    /**
+     * @return Stock by catalog index (0 <= index < size())
+     */
+    public Stock get(int index) {
+        return stocks[index];
+    }
+
+    /**
+     * @return Catalog index of a symbol, or -1 if it is not listed
+     */
+    public int indexOf(String symbol) {
+        Integer index = indexBySymbol.get(symbol);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return Catalog index of a stock ID, or -1 if it is not listed
+     */
+    public int indexOf(UUID stockId) {
+        Integer index = indexById.get(stockId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Pick count distinct stocks uniformly at random (all of them, in catalog order, if count >= size())
+     * The returned stocks are detached entities shared by every caller: use them as references, never modify them.
+     */
+    public List<Stock> sample(int count) {
+        return sample(count, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Same as sample(count), drawing from the given generator so a seeded one always picks the same stocks
+     */
+    public List<Stock> sample(int count, Random random) {
+        if (count >= stocks.length) {
+            return List.of(stocks);
+        }
+        // Floyd's algorithm: count random draws and no scratch array of the catalog's size
+        Set<Integer> chosen = new LinkedHashSet<>(count * 2);
+        for (int j = stocks.length - count; j < stocks.length; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen.add(chosen.contains(candidate) ? j : candidate);
+        }
+        List<Stock> sample = new ArrayList<>(count);
+        for (int index : chosen) {
+            sample.add(stocks[index]);
+        }
+        return sample;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", stocks.length);
+        stats.put("resource", catalogResource);
+        return stats;
+    }
+
+    private Map<String, Stock> loadPersisted() {
+        Map<String, Stock> persisted = new HashMap<>();
+        for (Stock stock : stockRepository.findAll()) {
+            persisted.put(stock.getSymbol(), stock);
+        }
+        return persisted;
+    }
+
+    private static List<Stock> readCatalog(Resource resource) {
+        List<Stock> listed = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                if (fields.length != 3) {
+                    throw new IllegalStateException("Stock catalog line " + lineNumber + ": expected symbol,company_name,sector");
+                }
+                String symbol = fields[0].strip();
+                if (seen.putIfAbsent(symbol, lineNumber) != null) {
+                    throw new IllegalStateException("Stock catalog line " + lineNumber + ": duplicate symbol " + symbol);
+                }
+                Stock stock = new Stock();
+                stock.setSymbol(symbol);
+                stock.setCompanyName(fields[1].strip());
+                stock.setSector(StockSector.valueOf(fields[2].strip()));
+                listed.add(stock);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stock catalog " + resource.getDescription(), e);
+        }
+        return listed;
+    }
+}
@@ -0,0 +1,956 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.scu.uob.dsa.cardiac_trader_backend.engine.SessionMailboxes;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TradeJournal;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.SessionEventType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientSharesException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.SessionInTournamentException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TradeJournalFailedException;
+import com.scu.uob.dsa.cardiac_trader_backend.model.ConditionalOrder;
+import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Holding;
+import com.scu.uob.dsa.cardiac_trader_backend.model.LedgerCheckpoint;
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionEvent;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Transaction;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.ConditionalOrderRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.HoldingRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.LedgerCheckpointRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.TransactionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind ledger of session cash and holdings; the authoritative state of every session it has loaded.
+ * Every change to a session's account (trades, release, unloading) runs as a command in the session's
+ * mailbox, so a session has a single writer and needs no locks or database row locks, while sessions
+ * trade in parallel. Readers see the account's latest immutable state.
+ * A trade is checked and applied against the session's in-memory account, appended to the trade journal
+ * and acknowledged once the journal is fsynced (group commit, shared with concurrent trades), with no
+ * database round trip. A scheduled flusher then writes journaled entries to game_sessions, holdings,
+ * transactions, session events (and conditional orders they filled) in large batches, advancing the
+ * journal checkpoint in the same database transaction. On startup every entry after the checkpoint is replayed, so an
+ * acknowledged trade survives a crash. If the journal fails, the trade is reported as failed (it counts only
+ * if the reopened journal finds it on disk) and no trade is accepted until the journal is reopened on restart.
+ * Code that changes a session's cash or holdings in the database directly (round completion, tournaments)
+ * must release() the session first: its entries are flushed and its account dropped, so the database is
+ * current and the next trade reloads from it. If that change is written in a transaction, holdUntilCompletion()
+ * also refuses the session's trades until it commits, so no trade reloads the old values in between. A session that trades elsewhere for a while (a tournament)
+ * is suspend()ed instead, which also refuses its trades here until resume().
+ * A conditional order is settled in its session's mailbox as well: a trade that fills it claims it there
+ * until the flush marks it FILLED, and cancelling, failing or expiring it must settleOrder() first,
+ * so an order is never both filled and cancelled.
+ */
+@Component
+public class TradeLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeLedger.class);
+    private static final byte FORMAT_VERSION = 1;
+
+    private final GameSessionRepository gameSessionRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final ConditionalOrderRepository conditionalOrderRepository;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final StockRepository stockRepository;
+    private final SessionEventService sessionEventService;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate flushTransaction;
+    private final SessionMailboxes mailboxes;
+
+    @Value("${trading.ledger.dir:data/trade-journal}")
+    private String journalDir;
+
+    @Value("${trading.ledger.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${trading.ledger.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${trading.ledger.idle-minutes:30}")
+    private long idleMinutes;
+
+    private TradeJournal journal;
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+    // Sessions trading in a tournament: their cash is committed there, so trades here are refused
+    private final Set<UUID> suspended = ConcurrentHashMap.newKeySet();
+    // Sessions whose cash or holdings a running transaction is writing, with the number of such transactions
+    private final Map<UUID, Integer> held = new ConcurrentHashMap<>();
+    // Conditional orders settled in a mailbox whose new status is not in the database yet
+    private final Map<UUID, ConditionalOrderStatus> orderClaims = new ConcurrentHashMap<>();
+    private final List<AccountListener> listeners = new CopyOnWriteArrayList<>();
+    // Journaled entries not yet in the database, by sequence
+    private final ConcurrentSkipListMap<Long, Entry> pending = new ConcurrentSkipListMap<>();
+    private final Object appendLock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long flushedSequence;
+
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushedEntries = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong syncFailures = new AtomicLong();
+
+    public TradeLedger(
+            GameSessionRepository gameSessionRepository,
+            HoldingRepository holdingRepository,
+            TransactionRepository transactionRepository,
+            ConditionalOrderRepository conditionalOrderRepository,
+            LedgerCheckpointRepository ledgerCheckpointRepository,
+            StockRepository stockRepository,
+            SessionEventService sessionEventService,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("sessionMailboxExecutor") ExecutorService sessionMailboxExecutor,
+            @Value("${trading.mailbox.drain-limit:64}") int drainLimit) {
+        this.gameSessionRepository = gameSessionRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.conditionalOrderRepository = conditionalOrderRepository;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.stockRepository = stockRepository;
+        this.sessionEventService = sessionEventService;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Flushes commit on their own, even when release() is called inside a caller's transaction
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mailboxes = new SessionMailboxes(sessionMailboxExecutor, drainLimit);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        journal = TradeJournal.open(Paths.get(journalDir).toAbsolutePath().normalize(), segmentBytes);
+        flushedSequence = ledgerCheckpointRepository.findById(journal.journalId())
+            .map(LedgerCheckpoint::getLastSequence)
+            .orElse(0L);
+        journal.replay(flushedSequence, (sequence, payload) -> pending.put(sequence, Entry.decode(sequence, payload)));
+        if (!pending.isEmpty()) {
+            logger.info("Replaying {} journaled trade entries after sequence {}", pending.size(), flushedSequence);
+            flushThrough(journal.lastSequence());
+        }
+        logger.info("Trade journal {} open at sequence {}", journal.journalId(), journal.lastSequence());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        try {
+            flushThrough(journal.lastSequence());
+        } catch (RuntimeException e) {
+            // Still in the journal; replayed on the next start
+            logger.warn("Could not flush the trade ledger on shutdown: {}", e.getMessage());
+        }
+        journal.close();
+    }
+
+    /**
+     * Apply trades to a session's account in order, each checked against the cash and shares left by the
+     * ones before it. Returns once the executed trades are durable in the journal.
+     * @throws TradeJournalFailedException if the journal failed, now or before (the trades are then not durable)
+     * @param atomic If true, nothing executes unless every trade can
+     * @return One result per trade, in order
+     * @throws ResourceNotFoundException if the session does not exist
+     */
+    public Outcome execute(UUID sessionId, List<Trade> trades, boolean atomic) {
+        Applied applied = await(mailboxes.submit(sessionId, () -> apply(sessionId, trades, atomic)));
+        if (applied.sequence > 0) {
+            // After the command, so the session's next trade can queue for the same fsync
+            try {
+                journal.sync(applied.sequence);
+            } catch (IOException e) {
+                syncFailures.incrementAndGet();
+                logger.error("Could not sync trade journal through sequence {}; trading stopped", applied.sequence, e);
+                throw journalFailed(e);
+            }
+        }
+        return applied.outcome;
+    }
+
+    /**
+     * Follow loaded accounts (from inside each session's mailbox, so calls for one session never overlap)
+     */
+    public void addAccountListener(AccountListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Cash and positions of a session: from memory if it is loaded, otherwise read from the database
+     * (without loading it, as the database is then current)
+     */
+    public View view(UUID sessionId) {
+        Account account = accounts.get(sessionId);
+        State state = account != null ? account.state : read(sessionId);
+        return new View(state.cashCents, List.copyOf(state.positions.values()));
+    }
+
+    /**
+     * Cash of a loaded session, or empty if the database holds its current cash
+     */
+    public OptionalLong cashCents(UUID sessionId) {
+        Account account = accounts.get(sessionId);
+        return account != null ? OptionalLong.of(account.state.cashCents) : OptionalLong.empty();
+    }
+
+    /**
+     * Hand a session back to the database: flush its journaled trades and drop its account.
+     * Call before changing its cash or holdings outside the ledger. Trades queued behind the release
+     * reload the account from the database.
+     */
+    public void release(UUID sessionId) {
+        if (!accounts.containsKey(sessionId)) {
+            return;
+        }
+        await(mailboxes.submit(sessionId, () -> {
+            Account account = accounts.get(sessionId);
+            if (account == null) {
+                return null;
+            }
+            // If this throws, the database is behind, so the account stays loaded and authoritative
+            try {
+                journal.sync(account.lastSequence);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync trade journal", e);
+            }
+            flushThrough(account.lastSequence);
+            accounts.remove(sessionId);
+            notifyReleased(sessionId);
+            return null;
+        }));
+    }
+
+    /**
+     * Release a session and refuse its trades until the current transaction completes. Call inside the
+     * transaction that writes the session's cash or holdings, so a trade arriving meanwhile cannot reload
+     * the old values and have the ledger's next flush overwrite what the transaction committed.
+     */
+    public void holdUntilCompletion(UUID sessionId) {
+        held.merge(sessionId, 1, Integer::sum);
+        try {
+            release(sessionId);
+        } catch (RuntimeException e) {
+            unhold(sessionId);
+            throw e;
+        }
+        AfterCommit.runAfterCompletion(() -> unhold(sessionId));
+    }
+
+    /**
+     * Release a session and refuse its trades until resume(), e.g. while a tournament holds its cash
+     * (checked in the mailbox, so no trade queued before this call can apply after it)
+     * @return false if the session is already suspended
+     */
+    public boolean suspend(UUID sessionId) {
+        if (!suspended.add(sessionId)) {
+            return false;
+        }
+        try {
+            release(sessionId);
+        } catch (RuntimeException e) {
+            suspended.remove(sessionId);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Let a suspended session trade again; its next trade loads it from the database
+     */
+    public void resume(UUID sessionId) {
+        suspended.remove(sessionId);
+    }
+
+    /**
+     * Settle an open conditional order of a session with a new status (cancelled, failed, expired),
+     * unless a trade has filled it already. Decided in the session's mailbox, so it never overlaps a trade
+     * of the order: whichever comes first wins, and the other sees the order as no longer open.
+     * Call inside the transaction that stores the new status; the claim is held until it completes.
+     * @return OPEN if the caller may store the new status, otherwise the status the order already has
+     * (FILLED if a trade won), or null if the order does not exist
+     */
+    public ConditionalOrderStatus settleOrder(UUID sessionId, UUID orderId, ConditionalOrderStatus settled) {
+        ConditionalOrderStatus current = await(mailboxes.submit(sessionId, () -> {
+            ConditionalOrderStatus status = orderStatus(orderId);
+            if (status == ConditionalOrderStatus.OPEN) {
+                orderClaims.put(orderId, settled);
+            }
+            return status;
+        }));
+        if (current == ConditionalOrderStatus.OPEN) {
+            AfterCommit.runAfterCompletion(() -> orderClaims.remove(orderId, settled));
+        }
+        return current;
+    }
+
+    private static TradeJournalFailedException journalFailed(IOException cause) {
+        return new TradeJournalFailedException(
+            "Trade journal failed: the trade may not be recorded, and trading is stopped until the server restarts",
+            cause);
+    }
+
+    private void unhold(UUID sessionId) {
+        held.computeIfPresent(sessionId, (id, holds) -> holds > 1 ? holds - 1 : null);
+    }
+
+    /**
+     * Write journaled entries to the database in batches, then unload idle accounts
+     */
+    @Scheduled(fixedDelayString = "${trading.ledger.flush-interval-ms:200}")
+    public void flush() {
+        try {
+            flushThrough(Long.MAX_VALUE);
+        } catch (RuntimeException e) {
+            logger.error("Trade ledger flush failed, retrying next interval", e);
+            return;
+        }
+        long idleBefore = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleMinutes);
+        for (Account account : accounts.values()) {
+            if (account.lastUsed <= idleBefore && account.lastSequence <= flushedSequence) {
+                // Checked again in the mailbox, as a trade may have been queued meanwhile
+                mailboxes.submit(account.sessionId, () -> {
+                    if (account.lastUsed <= idleBefore && account.lastSequence <= flushedSequence
+                            && accounts.remove(account.sessionId, account)) {
+                        notifyReleased(account.sessionId);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loadedSessions", accounts.size());
+        stats.put("suspendedSessions", suspended.size());
+        stats.put("heldSessions", held.size());
+        stats.put("claimedOrders", orderClaims.size());
+        stats.put("pendingEntries", pending.size());
+        stats.put("flushedSequence", flushedSequence);
+        stats.put("entries", entries.get());
+        stats.put("refused", refused.get());
+        stats.put("loads", loads.get());
+        stats.put("flushes", flushes.get());
+        stats.put("flushedEntries", flushedEntries.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("syncFailures", syncFailures.get());
+        stats.put("mailboxes", mailboxes.getStats());
+        stats.put("journal", journal.getStats());
+        return stats;
+    }
+
+    /**
+     * Runs in the session's mailbox: check the trades, journal the executed ones and publish the new state
+     */
+    private Applied apply(UUID sessionId, List<Trade> trades, boolean atomic) {
+        if (suspended.contains(sessionId)) {
+            throw new SessionInTournamentException(sessionId);
+        }
+        if (journal.isFailed()) {
+            throw journalFailed(null);
+        }
+        if (held.containsKey(sessionId)) {
+            throw new IllegalStateException("Session is completing its round; try again shortly");
+        }
+        for (Trade trade : trades) {
+            if (trade.conditionalOrderId != null) {
+                ConditionalOrderStatus status = orderStatus(trade.conditionalOrderId);
+                if (status == null) {
+                    throw new ResourceNotFoundException("ConditionalOrder", "id", trade.conditionalOrderId);
+                }
+                if (status != ConditionalOrderStatus.OPEN) {
+                    throw new IllegalStateException("Conditional order is " + status);
+                }
+            }
+        }
+        Account account = accounts.get(sessionId);
+        if (account == null) {
+            loads.incrementAndGet();
+            account = new Account(sessionId, read(sessionId));
+            accounts.put(sessionId, account);
+            notifyChanged(sessionId, account.state, List.copyOf(account.state.positions.values()));
+        }
+        Plan plan = plan(account.state, trades, atomic);
+        if (plan.fills.isEmpty()) {
+            refused.incrementAndGet();
+            return new Applied(plan.outcome, 0);
+        }
+        Entry entry = new Entry(sessionId, plan.state.cashCents, plan.outcome.timestamp, plan.fills);
+        byte[] payload = entry.encode();
+        long sequence;
+        try {
+            synchronized (appendLock) {
+                // Journal order and pending order must match, so the flusher never skips a sequence
+                sequence = journal.append(payload);
+                entry.sequence = sequence;
+                pending.put(sequence, entry);
+            }
+        } catch (IOException e) {
+            throw journalFailed(e);
+        }
+        State previous = account.state;
+        account.state = plan.state;
+        account.lastSequence = sequence;
+        account.lastUsed = System.nanoTime();
+        for (Fill fill : plan.fills) {
+            if (fill.conditionalOrderId != null) {
+                orderClaims.put(fill.conditionalOrderId, ConditionalOrderStatus.FILLED);
+            }
+        }
+        entries.incrementAndGet();
+        if (!listeners.isEmpty()) {
+            notifyChanged(sessionId, plan.state, changedPositions(previous, plan));
+        }
+        return new Applied(plan.outcome, sequence);
+    }
+
+    /**
+     * New positions of the stocks a plan traded; a closed position has zero shares
+     */
+    private static List<Position> changedPositions(State previous, Plan plan) {
+        List<Position> changed = new ArrayList<>(plan.fills.size());
+        for (Fill fill : plan.fills) {
+            Position position = plan.state.positions.get(fill.stockId);
+            changed.add(position != null ? position
+                : new Position(previous.positions.get(fill.stockId).stock, 0, 0));
+        }
+        return changed;
+    }
+
+    private void notifyChanged(UUID sessionId, State state, List<Position> changed) {
+        for (AccountListener listener : listeners) {
+            try {
+                listener.accountChanged(sessionId, state.cashCents, changed);
+            } catch (RuntimeException e) {
+                logger.error("Trade ledger listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void notifyReleased(UUID sessionId) {
+        for (AccountListener listener : listeners) {
+            try {
+                listener.accountReleased(sessionId);
+            } catch (RuntimeException e) {
+                logger.error("Trade ledger listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A conditional order's status as its session's mailbox sees it: a claim not flushed yet, or the stored one
+     */
+    private ConditionalOrderStatus orderStatus(UUID orderId) {
+        ConditionalOrderStatus claimed = orderClaims.get(orderId);
+        if (claimed != null) {
+            return claimed;
+        }
+        return readTransaction.execute(status -> conditionalOrderRepository.findById(orderId)
+            .map(ConditionalOrder::getStatus)
+            .orElse(null));
+    }
+
+    private State read(UUID sessionId) {
+        return readTransaction.execute(status -> {
+            GameSession gameSession = gameSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
+            Map<UUID, Position> positions = new HashMap<>();
+            for (Holding holding : holdingRepository.findWithStockByGameSessionId(sessionId)) {
+                Stock stock = holding.getStock();
+                positions.put(stock.getId(),
+                    new Position(stock, holding.getShares(), Money.ofBigDecimal(holding.getAveragePrice())));
+            }
+            return new State(Money.ofBigDecimal(gameSession.getCurrentCapital()), Map.copyOf(positions));
+        });
+    }
+
+    /**
+     * Check trades in order against a state, each against the cash and shares left by the ones before it
+     */
+    private static Plan plan(State state, List<Trade> trades, boolean atomic) {
+        long cash = state.cashCents;
+        Map<UUID, Position> positions = new HashMap<>(state.positions);
+        List<TradeResult> results = new ArrayList<>(trades.size());
+        List<Fill> fills = new ArrayList<>(trades.size());
+        boolean anyRefused = false;
+        for (Trade trade : trades) {
+            UUID stockId = trade.stock.getId();
+            Position position = positions.get(stockId);
+            int shares = position != null ? position.shares : 0;
+            long averagePriceCents = position != null ? position.averagePriceCents : 0;
+            long totalCents = Money.times(trade.priceCents, trade.shares);
+
+            if (trade.side == TransactionType.BUY) {
+                if (totalCents > cash) {
+                    results.add(new TradeResult(null, cash,
+                        new InsufficientFundsException(Money.toDouble(cash), Money.toDouble(totalCents))));
+                    anyRefused = true;
+                    continue;
+                }
+                cash = Money.minus(cash, totalCents);
+                int totalShares = Math.addExact(shares, trade.shares);
+                averagePriceCents = shares == 0 ? trade.priceCents : Money.divideHalfUp(
+                    Money.plus(Money.times(averagePriceCents, shares), totalCents), totalShares);
+                shares = totalShares;
+            } else {
+                if (shares < trade.shares) {
+                    results.add(new TradeResult(null, cash, new InsufficientSharesException(shares, trade.shares)));
+                    anyRefused = true;
+                    continue;
+                }
+                cash = Money.plus(cash, totalCents);
+                shares -= trade.shares;
+            }
+            if (shares == 0) {
+                positions.remove(stockId);
+            } else {
+                positions.put(stockId, new Position(trade.stock, shares, averagePriceCents));
+            }
+            Fill fill = new Fill(UUID.randomUUID(), stockId, trade.side, trade.shares, trade.priceCents,
+                shares, averagePriceCents, trade.conditionalOrderId);
+            fills.add(fill);
+            results.add(new TradeResult(fill, cash, null));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (atomic && anyRefused) {
+            List<TradeResult> rolledBack = new ArrayList<>(results.size());
+            for (TradeResult result : results) {
+                rolledBack.add(result.executed() ? new TradeResult(null, state.cashCents, null) : result);
+            }
+            return new Plan(new Outcome(rolledBack, state.cashCents, now), state, List.of());
+        }
+        return new Plan(new Outcome(results, cash, now), new State(cash, Map.copyOf(positions)), fills);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flush durable pending entries in sequence order until the target sequence is in the database
+     * (or, for Long.MAX_VALUE, until a batch comes back short)
+     */
+    private void flushThrough(long target) {
+        flushLock.lock();
+        try {
+            while (flushedSequence < target) {
+                long durable = journal.durableSequence();
+                List<Entry> batch = new ArrayList<>(Math.min(flushBatchSize, pending.size()));
+                for (Entry entry : pending.values()) {
+                    if (entry.sequence > durable || batch.size() == flushBatchSize) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                long last = batch.get(batch.size() - 1).sequence;
+                try {
+                    flushTransaction.executeWithoutResult(status -> write(batch, last));
+                } catch (RuntimeException e) {
+                    flushFailures.incrementAndGet();
+                    throw e;
+                }
+                for (Entry entry : batch) {
+                    pending.remove(entry.sequence);
+                    for (Fill fill : entry.fills) {
+                        if (fill.conditionalOrderId != null) {
+                            orderClaims.remove(fill.conditionalOrderId, ConditionalOrderStatus.FILLED);
+                        }
+                    }
+                }
+                flushedSequence = last;
+                flushes.incrementAndGet();
+                flushedEntries.addAndGet(batch.size());
+                try {
+                    journal.deleteThrough(last);
+                } catch (IOException e) {
+                    logger.warn("Could not delete flushed journal segments: {}", e.getMessage());
+                }
+                if (batch.size() < flushBatchSize) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * One database transaction for a batch: final cash per session, final position per holding,
+     * a row and a session event per trade, filled conditional orders and the new checkpoint.
+     * Cash and positions in entries are absolute, so replaying an entry twice is harmless.
+     */
+    private void write(List<Entry> batch, long lastSequence) {
+        Map<UUID, Long> cash = new HashMap<>();
+        Map<UUID, Map<UUID, Fill>> positions = new HashMap<>();
+        for (Entry entry : batch) {
+            cash.put(entry.sessionId, entry.cashCents);
+            Map<UUID, Fill> sessionPositions = positions.computeIfAbsent(entry.sessionId, id -> new HashMap<>());
+            for (Fill fill : entry.fills) {
+                sessionPositions.put(fill.stockId, fill);
+            }
+        }
+
+        Map<UUID, GameSession> sessions = new HashMap<>();
+        for (GameSession gameSession : gameSessionRepository.findAllById(cash.keySet())) {
+            gameSession.setCurrentCapital(Money.toBigDecimal(cash.get(gameSession.getId())));
+            sessions.put(gameSession.getId(), gameSession);
+        }
+        if (sessions.size() < cash.size()) {
+            logger.warn("Skipping journaled trades of {} deleted sessions", cash.size() - sessions.size());
+        }
+        gameSessionRepository.saveAll(sessions.values());
+
+        Map<UUID, Map<UUID, Holding>> holdings = new HashMap<>();
+        for (Holding holding : holdingRepository.findByGameSessionIdIn(sessions.keySet())) {
+            holdings.computeIfAbsent(holding.getGameSession().getId(), id -> new HashMap<>())
+                .put(holding.getStock().getId(), holding);
+        }
+        List<Holding> kept = new ArrayList<>();
+        List<Holding> emptied = new ArrayList<>();
+        positions.forEach((sessionId, fills) -> {
+            GameSession gameSession = sessions.get(sessionId);
+            if (gameSession == null) {
+                return;
+            }
+            Map<UUID, Holding> current = holdings.getOrDefault(sessionId, Map.of());
+            fills.forEach((stockId, fill) -> {
+                Holding holding = current.get(stockId);
+                if (fill.sharesAfter == 0) {
+                    if (holding != null) {
+                        emptied.add(holding);
+                    }
+                    return;
+                }
+                if (holding == null) {
+                    holding = new Holding();
+                    holding.setGameSession(gameSession);
+                    holding.setStock(stockRepository.getReferenceById(stockId));
+                }
+                holding.setShares(fill.sharesAfter);
+                holding.setAveragePrice(Money.toBigDecimal(fill.averagePriceAfterCents));
+                kept.add(holding);
+            });
+        });
+        holdingRepository.saveAll(kept);
+        holdingRepository.deleteAll(emptied);
+
+        List<Transaction> transactions = new ArrayList<>();
+        Map<UUID, Fill> orderFills = new HashMap<>();
+        for (Entry entry : batch) {
+            GameSession gameSession = sessions.get(entry.sessionId);
+            if (gameSession == null) {
+                continue;
+            }
+            for (Fill fill : entry.fills) {
+                Transaction transaction = new Transaction();
+                transaction.setId(fill.transactionId);
+                transaction.setGameSession(gameSession);
+                transaction.setStock(stockRepository.getReferenceById(fill.stockId));
+                transaction.setTransactionType(fill.side);
+                transaction.setShares(fill.shares);
+                transaction.setPricePerShare(Money.toBigDecimal(fill.priceCents));
+                transaction.setTotalValue(Money.toBigDecimal(Money.times(fill.priceCents, fill.shares)));
+                transaction.setTimestamp(entry.timestamp);
+                transactions.add(transaction);
+                if (fill.conditionalOrderId != null) {
+                    orderFills.put(fill.conditionalOrderId, fill);
+                }
+            }
+        }
+        // Ids were assigned at trade time, so these are inserts in the same order the trades executed
+        transactionRepository.saveAll(transactions);
+        sessionEventService.append(tradeEvents(batch, sessions.keySet()));
+
+        if (!orderFills.isEmpty()) {
+            List<ConditionalOrder> orders = new ArrayList<>(orderFills.size());
+            for (ConditionalOrder order : conditionalOrderRepository.findAllById(orderFills.keySet())) {
+                if (order.getStatus() != ConditionalOrderStatus.OPEN) {
+                    // FILLED by an earlier flush of this entry; anything else settled first and is kept
+                    if (order.getStatus() != ConditionalOrderStatus.FILLED) {
+                        logger.warn("Conditional order {} was filled by trade {} but is already {}",
+                            order.getId(), orderFills.get(order.getId()).transactionId, order.getStatus());
+                    }
+                    continue;
+                }
+                Fill fill = orderFills.get(order.getId());
+                order.setStatus(ConditionalOrderStatus.FILLED);
+                order.setExecutedPrice(Money.toBigDecimal(fill.priceCents));
+                order.setTransactionId(fill.transactionId);
+                order.setFailureReason(null);
+                if (order.getTriggeredAt() == null) {
+                    order.setTriggeredAt(LocalDateTime.now());
+                }
+                orders.add(order);
+            }
+            conditionalOrderRepository.saveAll(orders);
+        }
+
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint();
+        checkpoint.setJournalId(journal.journalId());
+        checkpoint.setLastSequence(lastSequence);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        ledgerCheckpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Told about every loaded account's changes, so it can keep derived per-session state in step
+     */
+    public interface AccountListener {
+        /**
+         * An account was loaded (changed holds every position) or trades executed (changed holds the
+         * traded stocks' new positions, with zero shares for a closed one)
+         */
+        void accountChanged(UUID sessionId, long cashCents, List<Position> changed);
+
+        /**
+         * An account was unloaded: the database holds its current state again
+         */
+        void accountReleased(UUID sessionId);
+    }
+
+    /**
+     * A trade to apply: price and stock are resolved by the caller
+     * @param conditionalOrderId The conditional order this trade fills, or null
+     */
+    public record Trade(Stock stock, TransactionType side, int shares, long priceCents, UUID conditionalOrderId) {
+    }
+
+    /**
+     * Result of one trade: the fill and the cash left after it, or why it was refused
+     * (null for both when an atomic batch was refused because of another trade)
+     */
+    public record TradeResult(Fill fill, long cashAfterCents, RuntimeException failure) {
+        public boolean executed() {
+            return fill != null;
+        }
+    }
+
+    public record Outcome(List<TradeResult> results, long cashCents, LocalDateTime timestamp) {
+    }
+
+    /**
+     * Shares held in one stock and their average price
+     */
+    public record Position(Stock stock, int shares, long averagePriceCents) {
+    }
+
+    public record View(long cashCents, List<Position> positions) {
+    }
+
+    /**
+     * One executed trade as journaled, with the position it left
+     */
+    public record Fill(UUID transactionId, UUID stockId, TransactionType side, int shares, long priceCents,
+                       int sharesAfter, long averagePriceAfterCents, UUID conditionalOrderId) {
+    }
+
+    /**
+     * Trades checked against an account's state, and the state they lead to
+     */
+    private record Plan(Outcome outcome, State state, List<Fill> fills) {
+    }
+
+    private record Applied(Outcome outcome, long sequence) {
+    }
+
+    /**
+     * Cash and positions by stock ID; immutable, so readers never see a half-applied trade
+     */
+    private record State(long cashCents, Map<UUID, Position> positions) {
+    }
+
+    /**
+     * A loaded session. Written only by commands in the session's mailbox.
+     */
+    private static final class Account {
+        private final UUID sessionId;
+        private volatile State state;
+        private volatile long lastSequence;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Account(UUID sessionId, State state) {
+            this.sessionId = sessionId;
+            this.state = state;
+        }
+    }
+
+    /**
+     * A TRADE_EXECUTED session event per fill, in execution order. An entry stores only the cash after
+     * its last fill, so the cash after each earlier fill is worked back from it.
+     */
+    private static List<SessionEvent> tradeEvents(List<Entry> batch, Set<UUID> sessionIds) {
+        List<SessionEvent> events = new ArrayList<>();
+        for (Entry entry : batch) {
+            if (!sessionIds.contains(entry.sessionId)) {
+                continue;
+            }
+            long[] cashAfter = new long[entry.fills.size()];
+            long cash = entry.cashCents;
+            for (int i = entry.fills.size() - 1; i >= 0; i--) {
+                cashAfter[i] = cash;
+                Fill fill = entry.fills.get(i);
+                long totalCents = Money.times(fill.priceCents, fill.shares);
+                cash = fill.side == TransactionType.BUY ? Money.plus(cash, totalCents) : Money.minus(cash, totalCents);
+            }
+            for (int i = 0; i < entry.fills.size(); i++) {
+                Fill fill = entry.fills.get(i);
+                SessionEvent event = new SessionEvent();
+                event.setSessionId(entry.sessionId);
+                event.setEventType(SessionEventType.TRADE_EXECUTED);
+                event.setCashCents(cashAfter[i]);
+                event.setTransactionId(fill.transactionId);
+                event.setStockId(fill.stockId);
+                event.setTransactionType(fill.side);
+                event.setShares(fill.shares);
+                event.setPriceCents(fill.priceCents);
+                event.setSharesAfter(fill.sharesAfter);
+                event.setAveragePriceCents(fill.averagePriceAfterCents);
+                event.setOccurredAt(entry.timestamp);
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * One journal record: every trade of one execute() call and the session's cash after them
+     * [u8 version][i64 session msb][i64 session lsb][i64 cash cents][i64 epoch second][i32 nano][u16 fills]
+     * then per fill [i64 x2 transaction id][i64 x2 stock id][u8 side][i32 shares][i64 price cents]
+     * [i32 shares after][i64 average price after cents][u8 has order][i64 x2 conditional order id]
+     */
+    private static final class Entry {
+        private long sequence;
+        private final UUID sessionId;
+        private final long cashCents;
+        private final LocalDateTime timestamp;
+        private final List<Fill> fills;
+
+        private Entry(UUID sessionId, long cashCents, LocalDateTime timestamp, List<Fill> fills) {
+            this.sessionId = sessionId;
+            this.cashCents = cashCents;
+            this.timestamp = timestamp;
+            this.fills = fills;
+        }
+
+        private byte[] encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(48 + fills.size() * 96);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(FORMAT_VERSION);
+                writeUuid(out, sessionId);
+                out.writeLong(cashCents);
+                out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(timestamp.getNano());
+                out.writeShort(fills.size());
+                for (Fill fill : fills) {
+                    writeUuid(out, fill.transactionId);
+                    writeUuid(out, fill.stockId);
+                    out.writeByte(fill.side.ordinal());
+                    out.writeInt(fill.shares);
+                    out.writeLong(fill.priceCents);
+                    out.writeInt(fill.sharesAfter);
+                    out.writeLong(fill.averagePriceAfterCents);
+                    out.writeBoolean(fill.conditionalOrderId != null);
+                    if (fill.conditionalOrderId != null) {
+                        writeUuid(out, fill.conditionalOrderId);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static Entry decode(long sequence, byte[] payload) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown trade journal entry format " + version);
+            }
+            UUID sessionId = readUuid(in);
+            long cashCents = in.readLong();
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            int count = in.readUnsignedShort();
+            TransactionType[] sides = TransactionType.values();
+            List<Fill> fills = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID transactionId = readUuid(in);
+                UUID stockId = readUuid(in);
+                TransactionType side = sides[in.readUnsignedByte()];
+                int shares = in.readInt();
+                long priceCents = in.readLong();
+                int sharesAfter = in.readInt();
+                long averagePriceAfterCents = in.readLong();
+                UUID conditionalOrderId = in.readBoolean() ? readUuid(in) : null;
+                fills.add(new Fill(transactionId, stockId, side, shares, priceCents, sharesAfter,
+                    averagePriceAfterCents, conditionalOrderId));
+            }
+            Entry entry = new Entry(sessionId, cashCents, timestamp, fills);
+            entry.sequence = sequence;
+            return entry;
+        }
+
+        private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+
+        private static UUID readUuid(DataInputStream in) throws IOException {
+            return new UUID(in.readLong(), in.readLong());
+        }
+    }
+}
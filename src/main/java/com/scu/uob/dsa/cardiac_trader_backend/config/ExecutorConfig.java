@@ -0,0 +1,90 @@
+package com.scu.uob.dsa.cardiac_trader_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor Configuration for background and fan-out work
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${heart.api.fetch-threads:10}")
+    private int puzzleFetchThreads;
+
+    @Value("${heart.api.fetch-queue-capacity:100}")
+    private int puzzleFetchQueueCapacity;
+
+    @Value("${market.orders.trigger-queue-capacity:10000}")
+    private int orderTriggerQueueCapacity;
+
+    @Value("${trading.mailbox.threads:8}")
+    private int sessionMailboxThreads;
+
+    /**
+     * Bounded executor used to fetch a round's heart puzzles concurrently.
+     * When saturated it rejects the fetch: round start must never run a fetch on the request thread,
+     * where it could not be interrupted at the round deadline.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService puzzleFetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                puzzleFetchThreads,
+                puzzleFetchThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(puzzleFetchQueueCapacity),
+                namedDaemonThreads("puzzle-fetch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Single thread that executes triggered conditional orders, so a session's orders trade one at a time
+     * and never on the market tick thread. When the queue is full the order is rejected and put back to
+     * fire again on a later tick.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderTriggerExecutor() {
+        return new ThreadPoolExecutor(
+                1,
+                1,
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(orderTriggerQueueCapacity),
+                namedDaemonThreads("order-trigger-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Workers that drain session mailboxes: a session's trades run one at a time, different sessions in parallel.
+     * A session is queued at most once however many commands it has, so the queue is bounded by the
+     * number of sessions trading at once.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService sessionMailboxExecutor() {
+        return new ThreadPoolExecutor(
+                sessionMailboxThreads,
+                sessionMailboxThreads,
+                0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                namedDaemonThreads("session-mailbox-"));
+    }
+
+    public static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.scu.uob.dsa.cardiac_trader_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. puzzle pool refill)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
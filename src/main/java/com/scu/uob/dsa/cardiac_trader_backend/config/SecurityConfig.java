@@ -34,6 +34,7 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll() // All auth endpoints are public
                 .requestMatchers("/api/health/**").permitAll()
+                .requestMatchers("/api/puzzles/**").permitAll() // Content-addressed images, loaded by <img> tags
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
                 // All other endpoints require authentication
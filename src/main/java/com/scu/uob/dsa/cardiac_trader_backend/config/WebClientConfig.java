@@ -1,11 +1,13 @@
 package com.scu.uob.dsa.cardiac_trader_backend.config;
 
+import com.scu.uob.dsa.cardiac_trader_backend.util.ConnectionPoolMetricsRecorder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import io.netty.channel.ChannelOption;
 
 import java.time.Duration;
@@ -22,15 +24,49 @@ public class WebClientConfig {
     @Value("${spring.web.client.connection-timeout:3000}")
     private int connectionTimeout;
 
+    @Value("${spring.web.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${spring.web.client.pending-acquire-timeout:5000}")
+    private int pendingAcquireTimeout;
+
+    @Value("${spring.web.client.max-idle-time:30000}")
+    private int maxIdleTime;
+
+    // Heart API responses carry a base64 image and easily exceed the 256 KB codec default
+    @Value("${spring.web.client.max-in-memory-size:4194304}")
+    private int maxInMemorySize;
+
+    @Bean
+    public ConnectionPoolMetricsRecorder connectionPoolMetricsRecorder() {
+        return new ConnectionPoolMetricsRecorder();
+    }
+
+    /**
+     * Shared keep-alive connection pool so repeated API calls reuse connections
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider httpConnectionProvider(ConnectionPoolMetricsRecorder connectionPoolMetricsRecorder) {
+        return ConnectionProvider.builder("http-client")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeout))
+                .maxIdleTime(Duration.ofMillis(maxIdleTime))
+                .evictInBackground(Duration.ofMillis(maxIdleTime))
+                .metrics(true, () -> connectionPoolMetricsRecorder)
+                .build();
+    }
+
     @Bean
     @SuppressWarnings("null")
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient.Builder webClientBuilder(ConnectionProvider httpConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(httpConnectionProvider)
                 .responseTimeout(Duration.ofMillis(timeout))
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout);
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout)
+                .followRedirect(true);
 
         return WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient));  // NOSONAR - httpClient is non-null
+                .clientConnector(new ReactorClientHttpConnector(httpClient))  // NOSONAR - httpClient is non-null
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize));
     }
 
     @Bean
@@ -38,4 +74,3 @@ public class WebClientConfig {
         return webClientBuilder.build();
     }
 }
-
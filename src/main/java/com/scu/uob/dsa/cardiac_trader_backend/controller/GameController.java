@@ -1,18 +1,26 @@
 package com.scu.uob.dsa.cardiac_trader_backend.controller;
 
+import com.scu.uob.dsa.cardiac_trader_backend.dto.DailyLeaderboardEntryDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.GameSessionDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundResultDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundStartDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionEventDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionStateDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
 import com.scu.uob.dsa.cardiac_trader_backend.service.GameService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -21,9 +29,11 @@ public class GameController {
 
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
     private final GameService gameService;
+    private final SessionEventService sessionEventService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, SessionEventService sessionEventService) {
         this.gameService = gameService;
+        this.sessionEventService = sessionEventService;
     }
 
     @PostMapping("/start")
@@ -48,6 +58,35 @@ public class GameController {
         }
     }
 
+    /**
+     * Start or resume today's daily challenge (same market for every player)
+     */
+    @PostMapping("/daily/start")
+    public ResponseEntity<GameSessionDTO> startDailyChallenge(@RequestParam UUID userId) {
+        try {
+            return ResponseEntity.ok(gameService.startDailyChallenge(userId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalStateException e) {
+            // Already played today
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            logger.error("Error starting daily challenge for userId: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Leaderboard of a day's daily challenge (defaults to today, UTC)
+     */
+    @GetMapping("/daily/leaderboard")
+    public ResponseEntity<List<DailyLeaderboardEntryDTO>> getDailyLeaderboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "50") int limit) {
+        LocalDate day = date != null ? date : LocalDate.now(ZoneOffset.UTC);
+        return ResponseEntity.ok(gameService.getDailyLeaderboard(day, Math.max(1, Math.min(limit, 500))));
+    }
+
     @PostMapping("/round/start")
     public ResponseEntity<RoundStartDTO> startRound(@RequestParam UUID sessionId) {
         try {
@@ -91,5 +130,28 @@ public class GameController {
         }
         return ResponseEntity.notFound().build();
     }
+
+    /**
+     * A session's event journal after a sequence number, oldest first (for audits and debugging)
+     */
+    @GetMapping("/session/events")
+    public ResponseEntity<List<SessionEventDTO>> getSessionEvents(
+            @RequestParam UUID sessionId,
+            @RequestParam(defaultValue = "0") long afterSequence,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(sessionEventService.getEvents(sessionId, afterSequence, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * A session's state rebuilt from its event journal (latest snapshot plus the events after it)
+     */
+    @GetMapping("/session/replay")
+    public ResponseEntity<SessionStateDTO> replaySession(@RequestParam UUID sessionId) {
+        try {
+            return ResponseEntity.ok(sessionEventService.replay(sessionId));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
 }
 
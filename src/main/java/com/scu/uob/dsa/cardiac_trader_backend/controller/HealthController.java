@@ -1,7 +1,22 @@
 package com.scu.uob.dsa.cardiac_trader_backend.controller;
 
+import com.scu.uob.dsa.cardiac_trader_backend.cache.DailyChallengeCache;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.PortfolioValuation;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarketCache;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.SessionLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.StockCatalog;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ConditionalOrderService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleArchive;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzlePoolService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.TournamentService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.impl.ResilientHeartAPIServiceImpl;
+import com.scu.uob.dsa.cardiac_trader_backend.util.ConnectionPoolMetricsRecorder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -11,15 +26,62 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/health")
 public class HealthController {
 
     private final HeartAPIService heartAPIService;
+    private final PuzzlePoolService puzzlePoolService;
+    private final PuzzleArchive puzzleArchive;
+    private final ConnectionPoolMetricsRecorder connectionPoolMetricsRecorder;
+    private final Optional<ResilientHeartAPIServiceImpl> resilientHeartAPIService;
+    private final RoundMarketCache roundMarketCache;
+    private final SessionLedger sessionLedger;
+    private final StockCatalog stockCatalog;
+    private final DailyChallengeCache dailyChallengeCache;
+    private final TradeLedger tradeLedger;
+    private final PortfolioValuation portfolioValuation;
+    private final SessionEventService sessionEventService;
+    private final MarketTickEngine marketTickEngine;
+    private final MarketStreamService marketStreamService;
+    private final TournamentService tournamentService;
+    private final ConditionalOrderService conditionalOrderService;
 
-    public HealthController(HeartAPIService heartAPIService) {
+    public HealthController(
+            HeartAPIService heartAPIService,
+            PuzzlePoolService puzzlePoolService,
+            PuzzleArchive puzzleArchive,
+            ConnectionPoolMetricsRecorder connectionPoolMetricsRecorder,
+            Optional<ResilientHeartAPIServiceImpl> resilientHeartAPIService,
+            RoundMarketCache roundMarketCache,
+            SessionLedger sessionLedger,
+            StockCatalog stockCatalog,
+            DailyChallengeCache dailyChallengeCache,
+            TradeLedger tradeLedger,
+            PortfolioValuation portfolioValuation,
+            SessionEventService sessionEventService,
+            MarketTickEngine marketTickEngine,
+            MarketStreamService marketStreamService,
+            TournamentService tournamentService,
+            ConditionalOrderService conditionalOrderService) {
         this.heartAPIService = heartAPIService;
+        this.puzzlePoolService = puzzlePoolService;
+        this.puzzleArchive = puzzleArchive;
+        this.connectionPoolMetricsRecorder = connectionPoolMetricsRecorder;
+        this.resilientHeartAPIService = resilientHeartAPIService;
+        this.roundMarketCache = roundMarketCache;
+        this.sessionLedger = sessionLedger;
+        this.stockCatalog = stockCatalog;
+        this.dailyChallengeCache = dailyChallengeCache;
+        this.tradeLedger = tradeLedger;
+        this.portfolioValuation = portfolioValuation;
+        this.sessionEventService = sessionEventService;
+        this.marketTickEngine = marketTickEngine;
+        this.marketStreamService = marketStreamService;
+        this.tournamentService = tournamentService;
+        this.conditionalOrderService = conditionalOrderService;
     }
 
     @GetMapping
@@ -30,6 +92,121 @@ public class HealthController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Puzzle pool statistics (depth, hits, misses, refill rate)
+     * GET /api/health/puzzle-pool
+     */
+    @GetMapping("/puzzle-pool")
+    public ResponseEntity<Map<String, Object>> puzzlePoolStats() {
+        return ResponseEntity.ok(puzzlePoolService.getStats());
+    }
+
+    /**
+     * Puzzle archive statistics (archived puzzles, bytes, replays)
+     * GET /api/health/puzzle-archive
+     */
+    @GetMapping("/puzzle-archive")
+    public ResponseEntity<Map<String, Object>> puzzleArchiveStats() {
+        return ResponseEntity.ok(puzzleArchive.getStats());
+    }
+
+    /**
+     * Round market cache, session ledger, stock catalog and daily challenge statistics (size, hit rate, evictions)
+     * GET /api/health/market-cache
+     */
+    @GetMapping("/market-cache")
+    public ResponseEntity<Map<String, Object>> marketCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("roundMarkets", roundMarketCache.getStats());
+        response.put("sessionLedgers", sessionLedger.getStats());
+        response.put("stockCatalog", stockCatalog.getStats());
+        response.put("dailyChallenge", dailyChallengeCache.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Trade ledger statistics (loaded sessions, unflushed entries, journal fsyncs)
+     * GET /api/health/trade-ledger
+     */
+    @GetMapping("/trade-ledger")
+    public ResponseEntity<Map<String, Object>> tradeLedgerStats() {
+        return ResponseEntity.ok(tradeLedger.getStats());
+    }
+
+    /**
+     * Running portfolio valuations (valued sessions, reads answered from memory, repriced holdings)
+     * GET /api/health/portfolio-valuation
+     */
+    @GetMapping("/portfolio-valuation")
+    public ResponseEntity<Map<String, Object>> portfolioValuationStats() {
+        return ResponseEntity.ok(portfolioValuation.getStats());
+    }
+
+    /**
+     * Session event journal statistics (appended events, snapshots, replayed tail lengths)
+     * GET /api/health/session-events
+     */
+    @GetMapping("/session-events")
+    public ResponseEntity<Map<String, Object>> sessionEventStats() {
+        return ResponseEntity.ok(sessionEventService.getStats());
+    }
+
+    /**
+     * Market tick engine statistics (tracked sessions, tick duration)
+     * GET /api/health/market-ticks
+     */
+    @GetMapping("/market-ticks")
+    public ResponseEntity<Map<String, Object>> marketTickStats() {
+        return ResponseEntity.ok(marketTickEngine.getStats());
+    }
+
+    /**
+     * Market stream statistics (open connections, dropped events)
+     * GET /api/health/market-streams
+     */
+    @GetMapping("/market-streams")
+    public ResponseEntity<Map<String, Object>> marketStreamStats() {
+        return ResponseEntity.ok(marketStreamService.getStats());
+    }
+
+    /**
+     * Tournament markets (orders, trades, settlement backlog)
+     * GET /api/health/tournaments
+     */
+    @GetMapping("/tournaments")
+    public ResponseEntity<Map<String, Object>> tournamentStats() {
+        return ResponseEntity.ok(tournamentService.getStats());
+    }
+
+    /**
+     * Conditional order trigger statistics (open, triggered, filled, failed)
+     * GET /api/health/conditional-orders
+     */
+    @GetMapping("/conditional-orders")
+    public ResponseEntity<Map<String, Object>> conditionalOrderStats() {
+        return ResponseEntity.ok(conditionalOrderService.getStats());
+    }
+
+    /**
+     * Outbound HTTP connection pool gauges (acquired, idle, pending per remote host)
+     * GET /api/health/http-pool
+     */
+    @GetMapping("/http-pool")
+    public ResponseEntity<Map<String, Object>> httpPoolStats() {
+        return ResponseEntity.ok(connectionPoolMetricsRecorder.snapshot());
+    }
+
+    /**
+     * Heart API resilience statistics (circuit state, latency/error histograms, hedging)
+     * GET /api/health/heart-api
+     */
+    @GetMapping("/heart-api")
+    public ResponseEntity<Map<String, Object>> heartApiStats() {
+        return resilientHeartAPIService
+                .map(service -> ResponseEntity.ok(service.getStats()))
+                .orElseGet(() -> ResponseEntity.ok(Map.of("resilience", "disabled")));
+    }
+
     /**
      * Test endpoint to check Heart API integration
      * GET /api/health/heart-test
@@ -1,9 +1,14 @@
 package com.scu.uob.dsa.cardiac_trader_backend.controller;
 
 import com.scu.uob.dsa.cardiac_trader_backend.dto.StockDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StreamFormat;
 import com.scu.uob.dsa.cardiac_trader_backend.service.MarketService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,9 +18,11 @@ import java.util.UUID;
 public class MarketController {
 
     private final MarketService marketService;
+    private final MarketStreamService marketStreamService;
 
-    public MarketController(MarketService marketService) {
+    public MarketController(MarketService marketService, MarketStreamService marketStreamService) {
         this.marketService = marketService;
+        this.marketStreamService = marketStreamService;
     }
 
     @GetMapping("/stocks")
@@ -37,5 +44,15 @@ public class MarketController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
 
+    /**
+     * Server-sent events for a session: price snapshots and deltas, positions, round reveals and tool unlocks
+     * GET /api/market/stream?sessionId=...&format=JSON|BINARY
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> streamMarket(
+            @RequestParam UUID sessionId,
+            @RequestParam(defaultValue = "JSON") StreamFormat format) {
+        return ResponseEntity.ok(marketStreamService.subscribe(sessionId, format));
+    }
+}
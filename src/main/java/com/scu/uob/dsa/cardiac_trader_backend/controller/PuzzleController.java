@@ -0,0 +1,92 @@
+package com.scu.uob.dsa.cardiac_trader_backend.controller;
+
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/puzzles")
+public class PuzzleController {
+
+    // Request attributes of Tomcat's sendfile support (NIO connector)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Images are content-addressed, so a given URL never changes
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+        .cachePublic()
+        .immutable()
+        .getHeaderValue();
+
+    private final PuzzleImageStore puzzleImageStore;
+
+    public PuzzleController(PuzzleImageStore puzzleImageStore) {
+        this.puzzleImageStore = puzzleImageStore;
+    }
+
+    /**
+     * Serve a puzzle image by its content hash as raw PNG bytes
+     * GET /api/puzzles/{id}
+     * Supports If-None-Match (304) and is cacheable by browsers and CDNs forever.
+     */
+    @GetMapping("/{id}")
+    public void getPuzzleImage(
+            @PathVariable String id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Optional<Path> image = puzzleImageStore.locate(id);
+        if (image.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // The hash is the content, so it doubles as a strong ETag
+        response.setHeader(HttpHeaders.ETAG, "\"" + id + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + id + "\"")) {
+            return;
+        }
+
+        Path path = image.get();
+        long size = Files.size(path);
+        response.setContentType(MediaType.IMAGE_PNG_VALUE);
+        response.setContentLengthLong(size);
+
+        // Let Tomcat hand the file to the socket with sendfile when available
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        // Otherwise transfer channel-to-channel without buffering the image on the heap
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
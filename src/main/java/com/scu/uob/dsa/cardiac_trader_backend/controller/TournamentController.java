@@ -0,0 +1,84 @@
+package com.scu.uob.dsa.cardiac_trader_backend.controller;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderBookDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderResultDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentTradeDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.service.TournamentService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tournament mode: sessions trade with each other through per-symbol limit order books.
+ * Errors (unknown tournament, insufficient funds/shares, busy market) are mapped by GlobalExceptionHandler.
+ */
+@RestController
+@RequestMapping("/api/tournaments")
+public class TournamentController {
+
+    private final TournamentService tournamentService;
+
+    public TournamentController(TournamentService tournamentService) {
+        this.tournamentService = tournamentService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TournamentDTO> createTournament() {
+        return ResponseEntity.ok(tournamentService.createTournament());
+    }
+
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<TournamentDTO> getTournament(@PathVariable UUID tournamentId) {
+        return ResponseEntity.ok(tournamentService.getTournament(tournamentId));
+    }
+
+    @PostMapping("/{tournamentId}/join")
+    public ResponseEntity<TournamentDTO> joinTournament(
+            @PathVariable UUID tournamentId,
+            @RequestParam UUID sessionId) {
+        return ResponseEntity.ok(tournamentService.joinTournament(tournamentId, sessionId));
+    }
+
+    @PostMapping("/{tournamentId}/orders")
+    public ResponseEntity<OrderResultDTO> placeOrder(
+            @PathVariable UUID tournamentId,
+            @RequestParam UUID sessionId,
+            @Valid @RequestBody OrderRequestDTO request) {
+        return ResponseEntity.ok(tournamentService.placeOrder(tournamentId, sessionId, request));
+    }
+
+    @DeleteMapping("/{tournamentId}/orders/{orderId}")
+    public ResponseEntity<OrderResultDTO> cancelOrder(
+            @PathVariable UUID tournamentId,
+            @PathVariable long orderId,
+            @RequestParam UUID sessionId,
+            @RequestParam UUID stockId) {
+        return ResponseEntity.ok(tournamentService.cancelOrder(tournamentId, sessionId, stockId, orderId));
+    }
+
+    @GetMapping("/{tournamentId}/book")
+    public ResponseEntity<OrderBookDTO> getOrderBook(
+            @PathVariable UUID tournamentId,
+            @RequestParam UUID stockId,
+            @RequestParam(defaultValue = "10") int depth) {
+        return ResponseEntity.ok(tournamentService.getOrderBook(tournamentId, stockId, Math.max(1, Math.min(depth, 100))));
+    }
+
+    @GetMapping("/{tournamentId}/trades")
+    public ResponseEntity<List<TournamentTradeDTO>> getTrades(
+            @PathVariable UUID tournamentId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(tournamentService.getTrades(tournamentId, Math.max(1, limit)));
+    }
+
+    @DeleteMapping("/{tournamentId}")
+    public ResponseEntity<Void> closeTournament(@PathVariable UUID tournamentId) {
+        tournamentService.closeTournament(tournamentId);
+        return ResponseEntity.noContent().build();
+    }
+}
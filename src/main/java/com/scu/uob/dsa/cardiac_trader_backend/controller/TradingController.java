@@ -1,14 +1,20 @@
 package com.scu.uob.dsa.cardiac_trader_backend.controller;
 
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeResponseDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderRequestDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.PortfolioDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeRequestDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeResponseDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ConditionalOrderService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.TradingService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -16,9 +22,11 @@ import java.util.UUID;
 public class TradingController {
 
     private final TradingService tradingService;
+    private final ConditionalOrderService conditionalOrderService;
 
-    public TradingController(TradingService tradingService) {
+    public TradingController(TradingService tradingService, ConditionalOrderService conditionalOrderService) {
         this.tradingService = tradingService;
+        this.conditionalOrderService = conditionalOrderService;
     }
 
     @PostMapping("/buy")
@@ -45,6 +53,24 @@ public class TradingController {
         }
     }
 
+    /**
+     * Execute several buys and sells as one unit, ATOMIC (all or nothing) or BEST_EFFORT
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTradeResponseDTO> executeBatch(
+            @RequestParam UUID sessionId,
+            @Valid @RequestBody BatchTradeRequestDTO request) {
+        try {
+            BatchTradeResponseDTO response = tradingService.executeBatch(sessionId, request);
+            // A refused ATOMIC batch still reports which trades failed
+            return response.isCommitted()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/portfolio")
     public ResponseEntity<PortfolioDTO> getPortfolio(@RequestParam UUID sessionId) {
         try {
@@ -54,5 +80,36 @@ public class TradingController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
-}
 
+    /**
+     * Place a limit, stop-loss or take-profit order that trades when the live price crosses its trigger
+     */
+    @PostMapping("/orders")
+    public ResponseEntity<ConditionalOrderDTO> placeOrder(
+            @RequestParam UUID sessionId,
+            @Valid @RequestBody ConditionalOrderRequestDTO request) {
+        try {
+            ConditionalOrderDTO order = conditionalOrderService.placeOrder(sessionId, request);
+            return ResponseEntity.ok(order);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<List<ConditionalOrderDTO>> getOrders(@RequestParam UUID sessionId) {
+        return ResponseEntity.ok(conditionalOrderService.getOrders(sessionId));
+    }
+
+    @DeleteMapping("/orders/{orderId}")
+    public ResponseEntity<ConditionalOrderDTO> cancelOrder(
+            @RequestParam UUID sessionId,
+            @PathVariable UUID orderId) {
+        try {
+            ConditionalOrderDTO order = conditionalOrderService.cancelOrder(sessionId, orderId);
+            return ResponseEntity.ok(order);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.BatchMode;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTradeRequestDTO {
+    // ATOMIC when omitted
+    private BatchMode mode;
+
+    // Executed in order, so a sell early in the list can fund a buy later in it
+    @NotEmpty(message = "At least one trade is required")
+    @Valid
+    private List<Trade> trades;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Trade {
+        @NotNull(message = "Side is required")
+        private TransactionType side;
+
+        @NotNull(message = "Stock ID is required")
+        private UUID stockId;
+
+        @NotNull(message = "Shares is required")
+        @Min(value = 1, message = "Shares must be at least 1")
+        private Integer shares;
+    }
+}
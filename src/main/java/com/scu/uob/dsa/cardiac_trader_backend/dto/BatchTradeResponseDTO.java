@@ -0,0 +1,35 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTradeResponseDTO {
+    private BatchMode mode;
+    // False when an ATOMIC batch was refused and nothing was traded
+    private boolean committed;
+    private int executedCount;
+    private int failedCount;
+    private BigDecimal remainingCash;
+    // One result per requested trade, in request order
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private int index;
+        private boolean executed;
+        // Null unless executed
+        private TradeResponseDTO trade;
+        // Why the trade was refused; null if it executed or was only rolled back with its batch
+        private String error;
+    }
+}
@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalOrderDTO {
+    private UUID id;
+    private UUID stockId;
+    private String stockSymbol;
+    private ConditionalOrderType orderType;
+    private TransactionType side;
+    private BigDecimal triggerPrice;
+    private Integer shares;
+    private ConditionalOrderStatus status;
+    private BigDecimal executedPrice;
+    private UUID transactionId;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime triggeredAt;
+}
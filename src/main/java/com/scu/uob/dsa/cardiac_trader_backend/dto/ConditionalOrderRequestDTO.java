@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalOrderRequestDTO {
+    @NotNull(message = "Stock ID is required")
+    private UUID stockId;
+
+    @NotNull(message = "Order type is required")
+    private ConditionalOrderType orderType;
+
+    @NotNull(message = "Trigger price is required")
+    @DecimalMin(value = "0.01", message = "Trigger price must be at least 0.01")
+    private BigDecimal triggerPrice;
+
+    @NotNull(message = "Shares is required")
+    @Min(value = 1, message = "Shares must be at least 1")
+    private Integer shares;
+}
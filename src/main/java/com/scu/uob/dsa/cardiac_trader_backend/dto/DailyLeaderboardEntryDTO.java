@@ -0,0 +1,22 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyLeaderboardEntryDTO {
+    private int rank;
+    private UUID userId;
+    private String username;
+    private BigDecimal finalCapital;
+    // Profit over the starting capital, in percent with two decimals
+    private BigDecimal profitPercentage;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,17 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Prices that changed since the previous frame, as [stock index, price in cents] pairs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeltaFrameDTO {
+    private long seq;
+    private int round;
+    private long[][] prices;
+}
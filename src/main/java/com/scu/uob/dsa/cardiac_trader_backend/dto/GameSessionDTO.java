@@ -1,12 +1,14 @@
 package com.scu.uob.dsa.cardiac_trader_backend.dto;
 
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.GameMode;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.GameSessionStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Data
@@ -21,5 +23,7 @@ public class GameSessionDTO {
     private GameSessionStatus status;
     private DifficultyLevel difficultyLevel;
     private boolean hasActiveRound;
+    private GameMode gameMode;
+    private LocalDate challengeDate;
 }
 
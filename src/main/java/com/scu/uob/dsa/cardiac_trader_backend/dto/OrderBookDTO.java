@@ -0,0 +1,32 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aggregated depth of one tournament symbol, best prices first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBookDTO {
+    private UUID stockId;
+    private String stockSymbol;
+    private BigDecimal lastPrice;
+    private List<Level> bids;
+    private List<Level> asks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Level {
+        private BigDecimal price;
+        private long shares;
+        private long orders;
+    }
+}
@@ -0,0 +1,35 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.OrderType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestDTO {
+    @NotNull(message = "Stock ID is required")
+    private UUID stockId;
+
+    @NotNull(message = "Side is required")
+    private TransactionType side;
+
+    @NotNull(message = "Order type is required")
+    private OrderType type;
+
+    // Required for LIMIT orders, ignored for MARKET orders
+    @DecimalMin(value = "0.01", message = "Price must be at least 0.01")
+    private BigDecimal price;
+
+    @NotNull(message = "Shares is required")
+    @Min(value = 1, message = "Shares must be at least 1")
+    private Integer shares;
+}
@@ -0,0 +1,30 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.OrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.OrderType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResultDTO {
+    private long orderId;
+    private UUID stockId;
+    private String stockSymbol;
+    private TransactionType side;
+    private OrderType type;
+    private OrderStatus status;
+    private long requestedShares;
+    private long filledShares;
+    private long restingShares;
+    // Null when nothing filled
+    private BigDecimal averageFillPrice;
+    private List<TournamentTradeDTO> fills;
+}
@@ -0,0 +1,19 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed trade's resulting position and cash balance (amounts in cents)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionFrameDTO {
+    private long seq;
+    private int index;
+    private int shares;
+    private long averagePriceCents;
+    private long cashCents;
+}
@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.SessionEventType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionEventDTO {
+    private Long sequence;
+    private SessionEventType eventType;
+    private Integer roundNumber;
+    private BigDecimal cash;
+    private UUID transactionId;
+    private UUID stockId;
+    private TransactionType transactionType;
+    private Integer shares;
+    private BigDecimal price;
+    private Integer sharesAfter;
+    private BigDecimal averagePrice;
+    private ToolType toolType;
+    private LocalDateTime occurredAt;
+}
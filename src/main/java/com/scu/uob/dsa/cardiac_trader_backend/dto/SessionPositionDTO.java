@@ -0,0 +1,17 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPositionDTO {
+    private UUID stockId;
+    private Integer shares;
+    private BigDecimal averagePrice;
+}
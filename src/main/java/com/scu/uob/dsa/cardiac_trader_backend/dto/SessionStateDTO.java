@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A session's state rebuilt from its latest snapshot and the events after it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionStateDTO {
+    private UUID sessionId;
+    private Long lastSequence;
+    private Long eventCount;
+    // Sequence the snapshot covered (0 without one) and how many later events were replayed on top
+    private Long snapshotSequence;
+    private Integer replayedEvents;
+    private Integer roundNumber;
+    private Integer revealedRound;
+    private BigDecimal cash;
+    private List<SessionPositionDTO> positions;
+    private Map<ToolType, Integer> toolUnlocks;
+}
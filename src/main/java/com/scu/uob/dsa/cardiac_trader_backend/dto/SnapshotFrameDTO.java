@@ -0,0 +1,34 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full market state of a session's round; later delta frames refer to stocks by their index here
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotFrameDTO {
+    private long seq;
+    private int round;
+    private List<Entry> stocks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int index;
+        private UUID id;
+        private String symbol;
+        private String companyName;
+        private StockSector sector;
+        private String heartImageUrl;
+        private long priceCents;
+    }
+}
@@ -0,0 +1,15 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ToolUnlockDTO {
+    private ToolType toolType;
+    private Integer roundNumber;
+    private Integer usesRemaining;
+}
@@ -0,0 +1,34 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A shared tournament market and its symbols
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentDTO {
+    private UUID id;
+    private int participants;
+    private List<Entry> stocks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private UUID id;
+        private String symbol;
+        private String companyName;
+        private StockSector sector;
+        // Last traded price, or the opening price before the first trade
+        private BigDecimal lastPrice;
+    }
+}
@@ -0,0 +1,26 @@
+package com.scu.uob.dsa.cardiac_trader_backend.dto;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One execution on a tournament's trade tape
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentTradeDTO {
+    private long tradeId;
+    private UUID stockId;
+    private String stockSymbol;
+    private BigDecimal price;
+    private long shares;
+    // Side of the incoming order that took liquidity
+    private TransactionType aggressor;
+    private long timestamp;
+}
@@ -0,0 +1,394 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import com.scu.uob.dsa.cardiac_trader_backend.config.ExecutorConfig;
+import com.scu.uob.dsa.cardiac_trader_backend.util.MarketFrameCodec;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live market price engine for all sessions with an open round.
+ *
+ * Each session owns a slot in flat primitive arrays (one entry per stock at
+ * slot * stocksPerSession + stockIndex). Every tick moves each price toward its hidden true
+ * price with mean-reverting (Ornstein-Uhlenbeck) noise scaled by the session's difficulty:
+ *   p += meanReversion * (truePrice - p) + volatility * truePrice * N(0, 1)
+ * Slots are split into contiguous ranges, one per worker thread, and the workers are released
+ * and joined through a Phaser, so a tick allocates nothing on the price path.
+ * Price reads do not take the lock. Each slot has a generation, which is odd while the slot is
+ * being assigned or freed. A read checks that the generation was even and unchanged, and that the
+ * slot still belongs to its session, so a read that races a freed or reused slot is discarded.
+ */
+@Component
+public class MarketTickEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketTickEngine.class);
+    private static final double MIN_PRICE = 0.01;
+    private static final long IDLE_SCAN_INTERVAL_MILLIS = 60_000;
+
+    @Value("${market.tick.max-sessions:50000}")
+    private int maxSessions;
+
+    @Value("${market.tick.stocks-per-session:5}")
+    private int stocksPerSession;
+
+    @Value("${market.tick.mean-reversion:0.005}")
+    private double meanReversion;
+
+    @Value("${market.tick.noise:0.01}")
+    private double noise;
+
+    @Value("${market.tick.workers:0}")
+    private int configuredWorkers;
+
+    @Value("${market.tick.parallel-threshold:2048}")
+    private int parallelThreshold;
+
+    @Value("${market.tick.idle-timeout-minutes:30}")
+    private long idleTimeoutMinutes;
+
+    // Per stock, indexed by slot * stocksPerSession + stock index
+    private double[] prices;
+    private double[] truePrices;
+    private long[] stockIdMsb;
+    private long[] stockIdLsb;
+
+    // Per session slot (stockCounts[slot] == 0 marks a free slot)
+    private int[] stockCounts;
+    private double[] volatility;
+    private long[] sessionIdMsb;
+    private long[] sessionIdLsb;
+    private long[] lastAccessMillis;
+    private long[] ticks;
+    // Bumped (under the lock) before and after a slot's owner or stocks change
+    private AtomicLongArray generations;
+
+    private final Map<UUID, Integer> slotsBySession = new ConcurrentHashMap<>();
+    private final List<Runnable> tickListeners = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWater;
+
+    private int workerCount;
+    private Phaser phaser;
+    private volatile int tickHighWater;
+    private long lastIdleScanMillis;
+
+    private volatile long tickCount;
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+
+    @PostConstruct
+    void init() {
+        if (maxSessions < 1 || stocksPerSession < 1) {
+            throw new IllegalStateException("market.tick.max-sessions and stocks-per-session must be at least 1");
+        }
+        if (stocksPerSession > MarketFrameCodec.MAX_STOCKS) {
+            throw new IllegalStateException("market.tick.stocks-per-session must be at most "
+                + MarketFrameCodec.MAX_STOCKS + " (market frames index stocks with one byte)");
+        }
+        int stockSlots = Math.multiplyExact(maxSessions, stocksPerSession);
+        prices = new double[stockSlots];
+        truePrices = new double[stockSlots];
+        stockIdMsb = new long[stockSlots];
+        stockIdLsb = new long[stockSlots];
+        stockCounts = new int[maxSessions];
+        volatility = new double[maxSessions];
+        sessionIdMsb = new long[maxSessions];
+        sessionIdLsb = new long[maxSessions];
+        lastAccessMillis = new long[maxSessions];
+        ticks = new long[maxSessions];
+        generations = new AtomicLongArray(maxSessions);
+        freeSlots = new int[maxSessions];
+        lastIdleScanMillis = System.currentTimeMillis();
+
+        workerCount = configuredWorkers > 0 ? configuredWorkers : Runtime.getRuntime().availableProcessors();
+        // Workers plus the scheduler thread that drives each tick
+        phaser = new Phaser(workerCount + 1);
+        ThreadFactory threadFactory = ExecutorConfig.namedDaemonThreads("market-tick-");
+        for (int i = 0; i < workerCount; i++) {
+            int partition = i;
+            threadFactory.newThread(() -> workerLoop(partition)).start();
+        }
+        logger.info("Market tick engine started: {} session slots, {} workers", maxSessions, workerCount);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        phaser.forceTermination();
+    }
+
+    /**
+     * Start ticking a session's round (replaces any prices already tracked for the session)
+     * @param varianceMultiplier Difficulty variance multiplier, scaled by market.tick.noise
+     * @return false if every slot is taken, in which case prices stay frozen
+     * @throws IllegalArgumentException if the round has more stocks than market.tick.stocks-per-session
+     */
+    public boolean register(UUID sessionId, double varianceMultiplier,
+                            UUID[] stockIds, double[] truePriceValues, double[] marketPrices) {
+        int count = stockIds.length;
+        if (count > stocksPerSession) {
+            throw new IllegalArgumentException("Round has " + count + " stocks but market.tick.stocks-per-session is "
+                + stocksPerSession);
+        }
+        synchronized (lock) {
+            Integer existing = slotsBySession.get(sessionId);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+            } else if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else if (highWater < maxSessions) {
+                slot = highWater++;
+            } else {
+                logger.warn("Market tick engine full ({} sessions), prices for session {} stay frozen",
+                    maxSessions, sessionId);
+                return false;
+            }
+
+            generations.incrementAndGet(slot);
+            int base = slot * stocksPerSession;
+            for (int i = 0; i < count; i++) {
+                prices[base + i] = marketPrices[i];
+                truePrices[base + i] = truePriceValues[i];
+                stockIdMsb[base + i] = stockIds[i].getMostSignificantBits();
+                stockIdLsb[base + i] = stockIds[i].getLeastSignificantBits();
+            }
+            volatility[slot] = varianceMultiplier * noise;
+            sessionIdMsb[slot] = sessionId.getMostSignificantBits();
+            sessionIdLsb[slot] = sessionId.getLeastSignificantBits();
+            lastAccessMillis[slot] = System.currentTimeMillis();
+            ticks[slot] = 0;
+            stockCounts[slot] = count;
+            generations.incrementAndGet(slot);
+            slotsBySession.put(sessionId, slot);
+            return true;
+        }
+    }
+
+    /**
+     * Stop ticking a session (e.g. once its round is revealed)
+     */
+    public void unregister(UUID sessionId) {
+        synchronized (lock) {
+            Integer slot = slotsBySession.remove(sessionId);
+            if (slot != null) {
+                releaseSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * Run a callback after every tick (on the scheduler thread, outside the engine lock)
+     */
+    public void addTickListener(Runnable listener) {
+        tickListeners.add(listener);
+    }
+
+    public boolean isTracked(UUID sessionId) {
+        return slotsBySession.containsKey(sessionId);
+    }
+
+    /**
+     * Live price of a stock in a session
+     * @return Price, or NaN if the session or stock is not being ticked
+     */
+    public double priceOf(UUID sessionId, UUID stockId) {
+        Integer slot = slotsBySession.get(sessionId);
+        if (slot == null) {
+            return Double.NaN;
+        }
+        double price = priceAt(slot, sessionId, stockId);
+        if (!Double.isNaN(price)) {
+            // Only after the read proved the slot is the session's; should it be reused right after,
+            // this can only overwrite the timestamp register just set with one as recent
+            lastAccessMillis[slot] = System.currentTimeMillis();
+        }
+        return price;
+    }
+
+    /**
+     * Live price in cents without counting as a read of the session, for background readers that
+     * must not keep an abandoned session ticking; the fallback if the stock is not being ticked
+     */
+    public long peekPriceCents(UUID sessionId, UUID stockId, long fallbackCents) {
+        Integer slot = slotsBySession.get(sessionId);
+        double price = slot != null ? priceAt(slot, sessionId, stockId) : Double.NaN;
+        return Double.isNaN(price) ? fallbackCents : Money.ofDouble(price);
+    }
+
+    /**
+     * Price of a stock in the slot, or NaN if the slot is not (or, by the end of the read, no longer)
+     * the session's or the stock is not in it
+     */
+    private double priceAt(int slot, UUID sessionId, UUID stockId) {
+        long generation = generations.get(slot);
+        if ((generation & 1) != 0
+                || sessionIdMsb[slot] != sessionId.getMostSignificantBits()
+                || sessionIdLsb[slot] != sessionId.getLeastSignificantBits()) {
+            return Double.NaN;
+        }
+        long msb = stockId.getMostSignificantBits();
+        long lsb = stockId.getLeastSignificantBits();
+        int base = slot * stocksPerSession;
+        int count = stockCounts[slot];
+        double price = Double.NaN;
+        for (int i = base; i < base + count; i++) {
+            if (stockIdMsb[i] == msb && stockIdLsb[i] == lsb) {
+                price = prices[i];
+                break;
+            }
+        }
+        // Keeps the reads above from moving past the re-check
+        VarHandle.acquireFence();
+        return generations.get(slot) == generation ? price : Double.NaN;
+    }
+
+    /**
+     * Live price rounded to cents, or the fallback if the stock is not being ticked
+     */
+    public BigDecimal currentPrice(UUID sessionId, UUID stockId, BigDecimal fallback) {
+        double price = priceOf(sessionId, stockId);
+        return Double.isNaN(price) ? fallback : Money.toBigDecimal(Money.ofDouble(price));
+    }
+
+    /**
+     * Live price in cents, or the fallback if the stock is not being ticked
+     */
+    public long currentPriceCents(UUID sessionId, UUID stockId, long fallbackCents) {
+        double price = priceOf(sessionId, stockId);
+        return Double.isNaN(price) ? fallbackCents : Money.ofDouble(price);
+    }
+
+    /**
+     * Advance every tracked session by one tick
+     */
+    @Scheduled(fixedRateString = "${market.tick.interval-ms:1000}")
+    public void tick() {
+        long start = System.nanoTime();
+        synchronized (lock) {
+            int slots = highWater;
+            if (slots == 0) {
+                return;
+            }
+            if (slots < parallelThreshold || phaser.isTerminated()) {
+                advance(0, slots);
+            } else {
+                tickHighWater = slots;
+                phaser.arriveAndAwaitAdvance();   // release workers
+                phaser.arriveAndAwaitAdvance();   // wait until every partition is done
+            }
+            expireIdleSessions();
+        }
+        long elapsed = System.nanoTime() - start;
+        lastTickNanos = elapsed;
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+        tickCount++;
+
+        for (Runnable listener : tickListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error("Market tick listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    public int getStocksPerSession() {
+        return stocksPerSession;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeSessions", slotsBySession.size());
+        stats.put("capacity", maxSessions);
+        stats.put("workers", workerCount);
+        stats.put("ticks", tickCount);
+        stats.put("lastTickMs", lastTickNanos / 1_000_000.0);
+        stats.put("maxTickMs", maxTickNanos / 1_000_000.0);
+        return stats;
+    }
+
+    private void workerLoop(int partition) {
+        while (!phaser.isTerminated()) {
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                return;
+            }
+            int slots = tickHighWater;
+            int chunk = (slots + workerCount - 1) / workerCount;
+            int from = partition * chunk;
+            try {
+                advance(from, Math.min(slots, from + chunk));
+            } catch (RuntimeException e) {
+                logger.error("Market tick worker {} failed: {}", partition, e.getMessage());
+            }
+            phaser.arriveAndAwaitAdvance();
+        }
+    }
+
+    private void advance(int fromSlot, int toSlot) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            int count = stockCounts[slot];
+            if (count == 0) {
+                continue;
+            }
+            double sigma = volatility[slot];
+            int base = slot * stocksPerSession;
+            for (int i = base; i < base + count; i++) {
+                double target = truePrices[i];
+                double price = prices[i] + meanReversion * (target - prices[i]) + sigma * target * random.nextGaussian();
+                prices[i] = Math.max(MIN_PRICE, price);
+            }
+            ticks[slot]++;
+        }
+    }
+
+    /**
+     * Free slots of sessions nobody has read for a while (abandoned games); runs at most once a minute
+     */
+    private void expireIdleSessions() {
+        long now = System.currentTimeMillis();
+        if (now - lastIdleScanMillis < IDLE_SCAN_INTERVAL_MILLIS) {
+            return;
+        }
+        lastIdleScanMillis = now;
+        long cutoff = now - idleTimeoutMinutes * 60_000;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (stockCounts[slot] > 0 && lastAccessMillis[slot] < cutoff) {
+                slotsBySession.remove(new UUID(sessionIdMsb[slot], sessionIdLsb[slot]));
+                releaseSlot(slot);
+            }
+        }
+    }
+
+    private void releaseSlot(int slot) {
+        generations.incrementAndGet(slot);
+        stockCounts[slot] = 0;
+        sessionIdMsb[slot] = 0;
+        sessionIdLsb[slot] = 0;
+        generations.incrementAndGet(slot);
+        freeSlots[freeCount++] = slot;
+    }
+}
@@ -0,0 +1,272 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Limit order book of one symbol with price-time priority.
+ * Prices are in cents. Each price level holds an intrusive FIFO of orders, so adding, filling and
+ * cancelling an order is O(log levels) with no per-level scanning.
+ * Not thread-safe: a book is owned by exactly one writer thread (see TournamentMarket).
+ */
+public final class OrderBook {
+
+    /**
+     * Receives the book's events while an order is being matched
+     */
+    public interface Listener {
+        /**
+         * A trade at the maker's price
+         */
+        void onFill(Order taker, Order maker, long priceCents, long quantity);
+
+        /**
+         * A resting order removed without being filled (self-trade prevention)
+         */
+        void onCancel(Order order);
+    }
+
+    private final TreeMap<Long, Level> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final TreeMap<Long, Level> asks = new TreeMap<>();
+    private final Map<Long, Order> resting = new HashMap<>();
+
+    /**
+     * Match an order against the opposite side, then rest any remainder if it is a limit order.
+     * A buy stops matching once its budget cannot pay for one more share at the next maker's price.
+     * @return Quantity left resting on the book (always 0 for market orders)
+     */
+    public long submit(Order order, Listener listener) {
+        TreeMap<Long, Level> opposite = order.buy ? asks : bids;
+        while (order.remaining > 0 && !opposite.isEmpty()) {
+            Level level = opposite.firstEntry().getValue();
+            if (!order.market && (order.buy ? level.price > order.priceCents : level.price < order.priceCents)) {
+                break;
+            }
+            if (order.buy && order.budgetCents < level.price) {
+                break;
+            }
+            matchLevel(order, level, opposite, listener);
+        }
+        if (order.remaining > 0 && !order.market) {
+            rest(order);
+            return order.remaining;
+        }
+        return 0;
+    }
+
+    /**
+     * Remove a resting order placed by owner
+     * @return The cancelled order, or null if the owner has no such order on the book (filled, cancelled or not theirs)
+     */
+    public Order cancel(long orderId, int owner) {
+        Order order = resting.get(orderId);
+        if (order == null || order.owner != owner) {
+            return null;
+        }
+        unlink(order, order.buy ? bids : asks);
+        return order;
+    }
+
+    /**
+     * Quantity a market buy by owner could fill while spending at most cashCents.
+     * The owner's own asks are skipped, as matching pulls them instead of trading with them.
+     */
+    public long affordableQuantity(int owner, long cashCents, long maxQuantity) {
+        long quantity = 0;
+        long cash = cashCents;
+        for (Level level : asks.values()) {
+            for (Order maker = level.head; maker != null; maker = maker.next) {
+                if (maker.owner == owner) {
+                    continue;
+                }
+                long take = Math.min(Math.min(maker.remaining, maxQuantity - quantity), cash / level.price);
+                quantity += take;
+                cash -= take * level.price;
+                if (quantity == maxQuantity || take < maker.remaining) {
+                    return quantity;
+                }
+            }
+        }
+        return quantity;
+    }
+
+    public long bestBid() {
+        return bids.isEmpty() ? -1 : bids.firstKey();
+    }
+
+    public long bestAsk() {
+        return asks.isEmpty() ? -1 : asks.firstKey();
+    }
+
+    public int restingOrders() {
+        return resting.size();
+    }
+
+    /**
+     * Top price levels of one side as [price cents, total quantity, order count] rows, best first
+     */
+    public long[][] depth(boolean buySide, int levels) {
+        TreeMap<Long, Level> side = buySide ? bids : asks;
+        long[][] rows = new long[Math.min(levels, side.size())][];
+        int i = 0;
+        for (Level level : side.values()) {
+            if (i == rows.length) {
+                break;
+            }
+            rows[i++] = new long[]{level.price, level.quantity, level.orders};
+        }
+        return rows;
+    }
+
+    private void matchLevel(Order taker, Level level, TreeMap<Long, Level> side, Listener listener) {
+        Order maker = level.head;
+        while (maker != null && taker.remaining > 0) {
+            Order next = maker.next;
+            if (maker.owner == taker.owner) {
+                // Never trade with yourself: pull the resting order instead
+                unlink(maker, side);
+                listener.onCancel(maker);
+            } else {
+                long quantity = Math.min(taker.remaining, maker.remaining);
+                if (taker.buy) {
+                    quantity = Math.min(quantity, taker.budgetCents / level.price);
+                    if (quantity == 0) {
+                        return;
+                    }
+                    taker.budgetCents -= quantity * level.price;
+                }
+                taker.remaining -= quantity;
+                maker.remaining -= quantity;
+                level.quantity -= quantity;
+                listener.onFill(taker, maker, level.price, quantity);
+                if (maker.remaining == 0) {
+                    unlink(maker, side);
+                }
+            }
+            maker = next;
+        }
+    }
+
+    private void rest(Order order) {
+        TreeMap<Long, Level> side = order.buy ? bids : asks;
+        Level level = side.get(order.priceCents);
+        if (level == null) {
+            level = new Level(order.priceCents);
+            side.put(order.priceCents, level);
+        }
+        order.level = level;
+        order.prev = level.tail;
+        if (level.tail != null) {
+            level.tail.next = order;
+        } else {
+            level.head = order;
+        }
+        level.tail = order;
+        level.quantity += order.remaining;
+        level.orders++;
+        resting.put(order.id, order);
+    }
+
+    private void unlink(Order order, TreeMap<Long, Level> side) {
+        Level level = order.level;
+        if (order.prev != null) {
+            order.prev.next = order.next;
+        } else {
+            level.head = order.next;
+        }
+        if (order.next != null) {
+            order.next.prev = order.prev;
+        } else {
+            level.tail = order.prev;
+        }
+        level.quantity -= order.remaining;
+        level.orders--;
+        if (level.head == null) {
+            side.remove(level.price);
+        }
+        order.prev = null;
+        order.next = null;
+        order.level = null;
+        resting.remove(order.id);
+    }
+
+    /**
+     * An order; remaining is updated in place as it fills
+     */
+    public static final class Order {
+        final long id;
+        final int owner;
+        final int stockIndex;
+        final boolean buy;
+        final boolean market;
+        final long priceCents;
+        final long quantity;
+        long remaining;
+        // Cash a buy may still spend on fills (limit buys are bounded by their reservation instead)
+        long budgetCents = Long.MAX_VALUE;
+
+        private Order prev;
+        private Order next;
+        private Level level;
+
+        /**
+         * @param owner Account index of the session placing the order
+         * @param priceCents Limit price (ignored for market orders)
+         */
+        public Order(long id, int owner, int stockIndex, boolean buy, boolean market, long priceCents, long quantity) {
+            this.id = id;
+            this.owner = owner;
+            this.stockIndex = stockIndex;
+            this.buy = buy;
+            this.market = market;
+            this.priceCents = priceCents;
+            this.quantity = quantity;
+            this.remaining = quantity;
+        }
+
+        /**
+         * Cap what a buy may spend while matching; fills stop once the next share is unaffordable
+         */
+        public void setBudgetCents(long budgetCents) {
+            this.budgetCents = budgetCents;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getOwner() {
+            return owner;
+        }
+
+        public boolean isBuy() {
+            return buy;
+        }
+
+        public long getPriceCents() {
+            return priceCents;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+    }
+
+    private static final class Level {
+        private final long price;
+        private Order head;
+        private Order tail;
+        private long quantity;
+        private int orders;
+
+        private Level(long price) {
+            this.price = price;
+        }
+    }
+}
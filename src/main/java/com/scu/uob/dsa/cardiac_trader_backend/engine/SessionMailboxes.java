@@ -0,0 +1,140 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One mailbox per session: commands submitted for a session run one at a time, in submission order,
+ * while different sessions' commands run in parallel on the shared executor (a single logical writer
+ * thread per session, without a thread per session).
+ * A mailbox is scheduled on the executor only while it has commands, drains at most drainLimit of them
+ * per turn so a busy session cannot starve the others, and is dropped once empty. Scheduling and
+ * dropping happen inside ConcurrentHashMap.compute on the session's key, so two drains of the same
+ * session can never run at once.
+ * Commands must not wait for other commands of their own session (they would wait for themselves).
+ */
+public final class SessionMailboxes {
+
+    private final Executor executor;
+    private final int drainLimit;
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong turns = new AtomicLong();
+
+    public SessionMailboxes(Executor executor, int drainLimit) {
+        if (drainLimit < 1) {
+            throw new IllegalArgumentException("drainLimit must be positive");
+        }
+        this.executor = executor;
+        this.drainLimit = drainLimit;
+    }
+
+    /**
+     * Queue a command behind the session's earlier commands
+     * @return Completes with the command's result, or exceptionally with what it threw
+     */
+    public <T> CompletableFuture<T> submit(UUID sessionId, Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        boolean[] schedule = new boolean[1];
+        Mailbox mailbox = mailboxes.compute(sessionId, (id, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(id);
+            target.commands.add(task);
+            if (!target.scheduled) {
+                target.scheduled = true;
+                schedule[0] = true;
+            }
+            return target;
+        });
+        submitted.incrementAndGet();
+        if (schedule[0]) {
+            schedule(mailbox);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeMailboxes", mailboxes.size());
+        stats.put("submitted", submitted.get());
+        stats.put("executed", executed.get());
+        stats.put("queued", submitted.get() - executed.get());
+        stats.put("turns", turns.get());
+        return stats;
+    }
+
+    private void schedule(Mailbox mailbox) {
+        try {
+            executor.execute(() -> drain(mailbox));
+        } catch (RejectedExecutionException e) {
+            // Executor shut down: run the remaining commands on the caller, still one at a time
+            do {
+                Runnable command;
+                while ((command = mailbox.commands.poll()) != null) {
+                    command.run();
+                    executed.incrementAndGet();
+                }
+            } while (!finish(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        turns.incrementAndGet();
+        for (int i = 0; i < drainLimit; i++) {
+            Runnable command = mailbox.commands.poll();
+            if (command == null) {
+                break;
+            }
+            command.run();
+            executed.incrementAndGet();
+        }
+        if (!finish(mailbox)) {
+            schedule(mailbox);
+        }
+    }
+
+    /**
+     * Drop the mailbox if it is empty, atomically with respect to submit()
+     * @return false if commands remain and the mailbox must be scheduled again
+     */
+    private boolean finish(Mailbox mailbox) {
+        boolean[] empty = new boolean[1];
+        mailboxes.compute(mailbox.sessionId, (id, current) -> {
+            if (!mailbox.commands.isEmpty()) {
+                return current;
+            }
+            mailbox.scheduled = false;
+            empty[0] = true;
+            return null;
+        });
+        return empty[0];
+    }
+
+    private static final class Mailbox {
+        private final UUID sessionId;
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        // Guarded by the map's compute on sessionId
+        private boolean scheduled;
+
+        private Mailbox(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+}
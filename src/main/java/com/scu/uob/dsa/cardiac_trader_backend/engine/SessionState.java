@@ -0,0 +1,154 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A session's state folded from its event journal: cash, round progress, positions and tool unlocks.
+ * Events carry absolute cash and positions, so folding an event only overwrites what it changed.
+ * Encoded for session snapshots as
+ * [u8 version][i64 last sequence][i64 event count][i32 round][i32 revealed round][u8 has cash][i64 cash cents]
+ * [i32 positions] then per position [i64 x2 stock id][i32 shares][i64 average price cents]
+ * [u8 tools] then per tool [u8 ordinal][i32 unlocks]
+ */
+public final class SessionState {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private long lastSequence;
+    private long eventCount;
+    private int roundNumber;
+    private int revealedRound;
+    private Long cashCents;
+    private final Map<UUID, Position> positions = new LinkedHashMap<>();
+    private final Map<ToolType, Integer> toolUnlocks = new EnumMap<>(ToolType.class);
+
+    /**
+     * Shares held in one stock and their average price
+     */
+    public record Position(int shares, long averagePriceCents) {
+    }
+
+    /**
+     * Fold the next event of the session (events must be applied in sequence order)
+     */
+    public void apply(SessionEvent event) {
+        lastSequence = event.getSequence();
+        eventCount++;
+        if (event.getCashCents() != null) {
+            cashCents = event.getCashCents();
+        }
+        switch (event.getEventType()) {
+            case ROUND_STARTED -> roundNumber = event.getRoundNumber();
+            case PRICE_REVEALED -> revealedRound = event.getRoundNumber();
+            case TRADE_EXECUTED -> {
+                if (event.getSharesAfter() == 0) {
+                    positions.remove(event.getStockId());
+                } else {
+                    positions.put(event.getStockId(), new Position(event.getSharesAfter(), event.getAveragePriceCents()));
+                }
+            }
+            case TOOL_UNLOCKED -> toolUnlocks.merge(event.getToolType(), 1, Integer::sum);
+        }
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    public int getRevealedRound() {
+        return revealedRound;
+    }
+
+    /**
+     * @return Cash after the latest event that recorded it, or null if none did yet
+     */
+    public Long getCashCents() {
+        return cashCents;
+    }
+
+    public Map<UUID, Position> getPositions() {
+        return Collections.unmodifiableMap(positions);
+    }
+
+    public Map<ToolType, Integer> getToolUnlocks() {
+        return Collections.unmodifiableMap(toolUnlocks);
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48 + positions.size() * 28);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(lastSequence);
+            out.writeLong(eventCount);
+            out.writeInt(roundNumber);
+            out.writeInt(revealedRound);
+            out.writeBoolean(cashCents != null);
+            out.writeLong(cashCents != null ? cashCents : 0);
+            out.writeInt(positions.size());
+            for (Map.Entry<UUID, Position> entry : positions.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().shares);
+                out.writeLong(entry.getValue().averagePriceCents);
+            }
+            out.writeByte(toolUnlocks.size());
+            for (Map.Entry<ToolType, Integer> entry : toolUnlocks.entrySet()) {
+                out.writeByte(entry.getKey().ordinal());
+                out.writeInt(entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SessionState decode(byte[] encoded) {
+        SessionState state = new SessionState();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported session snapshot version " + version);
+            }
+            state.lastSequence = in.readLong();
+            state.eventCount = in.readLong();
+            state.roundNumber = in.readInt();
+            state.revealedRound = in.readInt();
+            boolean hasCash = in.readBoolean();
+            long cash = in.readLong();
+            state.cashCents = hasCash ? cash : null;
+            int positionCount = in.readInt();
+            for (int i = 0; i < positionCount; i++) {
+                UUID stockId = new UUID(in.readLong(), in.readLong());
+                state.positions.put(stockId, new Position(in.readInt(), in.readLong()));
+            }
+            int toolCount = in.readUnsignedByte();
+            for (int i = 0; i < toolCount; i++) {
+                state.toolUnlocks.put(ToolType.values()[in.readUnsignedByte()], in.readInt());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return state;
+    }
+}
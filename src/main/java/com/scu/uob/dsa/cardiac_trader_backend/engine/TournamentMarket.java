@@ -0,0 +1,396 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import com.scu.uob.dsa.cardiac_trader_backend.config.ExecutorConfig;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientSharesException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One shared market: an order book per symbol plus the cash and shares of every joined session.
+ * All state is owned by a single writer thread; callers enqueue commands and get a future back,
+ * so matching takes no locks and orders are processed strictly in arrival order.
+ * Buy limit orders reserve cash and sell orders reserve shares while they rest, so a session can
+ * never commit more than it holds. Trades are handed to the tradeSink for settlement.
+ */
+public final class TournamentMarket {
+
+    private final UUID id;
+    private final int symbols;
+    private final OrderBook[] books;
+    private final long[] lastPriceCents;
+    private final Trade[] tape;
+    private final Consumer<Trade> tradeSink;
+    private final ThreadPoolExecutor writer;
+
+    // Writer-thread state
+    private final Map<UUID, Integer> accountIndex = new HashMap<>();
+    private final List<Account> accounts = new ArrayList<>();
+    private final Matcher matcher = new Matcher();
+    private long nextOrderId = 1;
+    private long nextTradeId = 1;
+    private long tapeCount;
+
+    private final AtomicLong ordersProcessed = new AtomicLong();
+    private final AtomicLong tradesExecuted = new AtomicLong();
+
+    /**
+     * @param queueCapacity Commands that may wait for the writer; beyond it submissions are rejected
+     * @param tapeSize Recent trades kept for the trade tape
+     */
+    public TournamentMarket(UUID id, long[] openingPriceCents, int queueCapacity, int tapeSize, Consumer<Trade> tradeSink) {
+        this.id = id;
+        this.symbols = openingPriceCents.length;
+        this.books = new OrderBook[symbols];
+        for (int i = 0; i < symbols; i++) {
+            books[i] = new OrderBook();
+        }
+        this.lastPriceCents = openingPriceCents.clone();
+        this.tape = new Trade[tapeSize];
+        this.tradeSink = tradeSink;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            ExecutorConfig.namedDaemonThreads("tournament-" + id.toString().substring(0, 8) + "-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public int symbols() {
+        return symbols;
+    }
+
+    /**
+     * Open an account for a session; joining again keeps the existing account
+     * @param shares Shares held per symbol index
+     * @return true if this call opened the account
+     */
+    public CompletableFuture<Boolean> join(UUID sessionId, long cashCents, long[] shares) {
+        return submit(() -> {
+            if (accountIndex.containsKey(sessionId)) {
+                return false;
+            }
+            accountIndex.put(sessionId, accounts.size());
+            accounts.add(new Account(sessionId, accounts.size(), cashCents, shares.clone()));
+            return true;
+        });
+    }
+
+    /**
+     * Place a limit or market order. Limit orders rest for their unfilled quantity;
+     * market orders fill what the book offers and drop the rest.
+     * Completes exceptionally with InsufficientFundsException / InsufficientSharesException, or
+     * ResourceNotFoundException if the session has not joined.
+     */
+    public CompletableFuture<OrderResult> place(UUID sessionId, int symbol, boolean buy, boolean market,
+                                                long priceCents, long quantity) {
+        return submit(() -> {
+            Account account = account(sessionId);
+            OrderBook book = books[symbol];
+            long available = account.cash - account.reservedCash;
+            long orderQuantity = quantity;
+            if (buy && market) {
+                orderQuantity = book.affordableQuantity(account.index, available, quantity);
+                if (orderQuantity == 0 && book.bestAsk() >= 0) {
+                    throw new InsufficientFundsException(Money.toDouble(available), Money.toDouble(book.bestAsk()));
+                }
+            } else if (buy) {
+                long required = Money.times(priceCents, quantity);
+                if (required > available) {
+                    throw new InsufficientFundsException(Money.toDouble(available), Money.toDouble(required));
+                }
+                account.reservedCash += required;
+            } else {
+                long owned = account.shares[symbol] - account.reservedShares[symbol];
+                if (quantity > owned) {
+                    throw new InsufficientSharesException((int) owned, (int) quantity);
+                }
+                account.reservedShares[symbol] += quantity;
+            }
+
+            OrderBook.Order order = new OrderBook.Order(
+                nextOrderId++, account.index, symbol, buy, market, market ? 0 : priceCents, orderQuantity);
+            if (buy && market) {
+                // Market buys reserve nothing: never let their fills spend more than the free cash
+                order.setBudgetCents(available);
+            }
+            ordersProcessed.incrementAndGet();
+            matcher.fills = new ArrayList<>(2);
+            long resting = book.submit(order, matcher);
+            if (market && !buy && order.remaining > 0) {
+                account.reservedShares[symbol] -= order.remaining;
+            }
+            OrderResult result = new OrderResult(order.id, symbol, quantity, order.quantity - order.remaining,
+                resting, matcher.fills);
+            matcher.fills = null;
+            return result;
+        });
+    }
+
+    /**
+     * Cancel a resting order of this session
+     * @return The cancelled quantity, 0 if the order was no longer resting
+     */
+    public CompletableFuture<Long> cancel(UUID sessionId, long orderId, int symbol) {
+        return submit(() -> {
+            Account account = account(sessionId);
+            OrderBook.Order order = books[symbol].cancel(orderId, account.index);
+            if (order == null) {
+                return 0L;
+            }
+            release(order);
+            return order.remaining;
+        });
+    }
+
+    /**
+     * Bids and asks as [price cents, quantity, orders] rows, best first
+     */
+    public CompletableFuture<long[][][]> depth(int symbol, int levels) {
+        return submit(() -> new long[][][]{books[symbol].depth(true, levels), books[symbol].depth(false, levels)});
+    }
+
+    /**
+     * Most recent trades, newest first
+     */
+    public CompletableFuture<List<Trade>> recentTrades(int limit) {
+        return submit(() -> {
+            int count = (int) Math.min(Math.min(limit, tape.length), tapeCount);
+            List<Trade> trades = new ArrayList<>(count);
+            for (long i = tapeCount - 1; i >= tapeCount - count; i--) {
+                trades.add(tape[(int) (i % tape.length)]);
+            }
+            return trades;
+        });
+    }
+
+    /**
+     * Last traded (or opening) price per symbol
+     */
+    public CompletableFuture<long[]> lastPrices() {
+        return submit(lastPriceCents::clone);
+    }
+
+    /**
+     * Stop accepting commands; commands already queued are still processed
+     */
+    public void close() {
+        writer.shutdown();
+    }
+
+    /**
+     * @return true once closed and every queued command has run, so no further trades will reach the tradeSink
+     */
+    public boolean isTerminated() {
+        return writer.isTerminated();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("symbols", symbols);
+        stats.put("ordersProcessed", ordersProcessed.get());
+        stats.put("tradesExecuted", tradesExecuted.get());
+        stats.put("queuedCommands", writer.getQueue().size());
+        return stats;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> command) {
+        // Rejection (queue full or closed) surfaces as RejectedExecutionException from supplyAsync
+        return CompletableFuture.supplyAsync(command, writer);
+    }
+
+    private Account account(UUID sessionId) {
+        Integer index = accountIndex.get(sessionId);
+        if (index == null) {
+            throw new ResourceNotFoundException("TournamentAccount", "sessionId", sessionId);
+        }
+        return accounts.get(index);
+    }
+
+    private void release(OrderBook.Order order) {
+        Account account = accounts.get(order.owner);
+        if (order.buy) {
+            account.reservedCash -= Money.times(order.priceCents, order.remaining);
+        } else {
+            account.reservedShares[order.stockIndex] -= order.remaining;
+        }
+    }
+
+    /**
+     * Applies fills to accounts, the tape and the trade sink; reused for every order on the writer thread
+     */
+    private final class Matcher implements OrderBook.Listener {
+        private List<Trade> fills;
+
+        @Override
+        public void onFill(OrderBook.Order taker, OrderBook.Order maker, long priceCents, long quantity) {
+            OrderBook.Order buyOrder = taker.buy ? taker : maker;
+            OrderBook.Order sellOrder = taker.buy ? maker : taker;
+            Account buyer = accounts.get(buyOrder.owner);
+            Account seller = accounts.get(sellOrder.owner);
+            long value = Money.times(priceCents, quantity);
+            int symbol = taker.stockIndex;
+
+            // A limit buy reserved its own limit price; market buys reserved nothing
+            if (!buyOrder.market) {
+                buyer.reservedCash -= Money.times(buyOrder.priceCents, quantity);
+            }
+            buyer.cash -= value;
+            buyer.shares[symbol] += quantity;
+            seller.reservedShares[symbol] -= quantity;
+            seller.shares[symbol] -= quantity;
+            seller.cash += value;
+            lastPriceCents[symbol] = priceCents;
+
+            Trade trade = new Trade(nextTradeId++, symbol, priceCents, quantity, buyer.sessionId, seller.sessionId,
+                taker.buy, System.currentTimeMillis());
+            tape[(int) (tapeCount++ % tape.length)] = trade;
+            tradesExecuted.incrementAndGet();
+            fills.add(trade);
+            tradeSink.accept(trade);
+        }
+
+        @Override
+        public void onCancel(OrderBook.Order order) {
+            release(order);
+        }
+    }
+
+    private static final class Account {
+        private final UUID sessionId;
+        private final int index;
+        private long cash;
+        private long reservedCash;
+        private final long[] shares;
+        private final long[] reservedShares;
+
+        private Account(UUID sessionId, int index, long cash, long[] shares) {
+            this.sessionId = sessionId;
+            this.index = index;
+            this.cash = cash;
+            this.shares = shares;
+            this.reservedShares = new long[shares.length];
+        }
+    }
+
+    /**
+     * Outcome of placing an order
+     */
+    public static final class OrderResult {
+        private final long orderId;
+        private final int symbol;
+        private final long requestedQuantity;
+        private final long filledQuantity;
+        private final long restingQuantity;
+        private final List<Trade> fills;
+
+        private OrderResult(long orderId, int symbol, long requestedQuantity, long filledQuantity,
+                            long restingQuantity, List<Trade> fills) {
+            this.orderId = orderId;
+            this.symbol = symbol;
+            this.requestedQuantity = requestedQuantity;
+            this.filledQuantity = filledQuantity;
+            this.restingQuantity = restingQuantity;
+            this.fills = Collections.unmodifiableList(fills);
+        }
+
+        public long getOrderId() {
+            return orderId;
+        }
+
+        public int getSymbol() {
+            return symbol;
+        }
+
+        public long getRequestedQuantity() {
+            return requestedQuantity;
+        }
+
+        public long getFilledQuantity() {
+            return filledQuantity;
+        }
+
+        public long getRestingQuantity() {
+            return restingQuantity;
+        }
+
+        public List<Trade> getFills() {
+            return fills;
+        }
+    }
+
+    /**
+     * One execution on the trade tape
+     */
+    public static final class Trade {
+        private final long id;
+        private final int symbol;
+        private final long priceCents;
+        private final long quantity;
+        private final UUID buyerSessionId;
+        private final UUID sellerSessionId;
+        private final boolean buyerInitiated;
+        private final long timestamp;
+
+        public Trade(long id, int symbol, long priceCents, long quantity, UUID buyerSessionId, UUID sellerSessionId,
+                     boolean buyerInitiated, long timestamp) {
+            this.id = id;
+            this.symbol = symbol;
+            this.priceCents = priceCents;
+            this.quantity = quantity;
+            this.buyerSessionId = buyerSessionId;
+            this.sellerSessionId = sellerSessionId;
+            this.buyerInitiated = buyerInitiated;
+            this.timestamp = timestamp;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getSymbol() {
+            return symbol;
+        }
+
+        public long getPriceCents() {
+            return priceCents;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public UUID getBuyerSessionId() {
+            return buyerSessionId;
+        }
+
+        public UUID getSellerSessionId() {
+            return sellerSessionId;
+        }
+
+        public boolean isBuyerInitiated() {
+            return buyerInitiated;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable append-only log of opaque records numbered 1, 2, 3...
+ * Records go to segment files named after their first sequence:
+ *   [int magic][int version][long journal id msb][long journal id lsb][long base sequence]
+ * followed by records [int payload length][int crc32 of sequence and payload][long sequence][payload].
+ * append() only writes (page cache); sync(sequence) makes everything up to that record durable.
+ * Concurrent sync() calls share one fsync (group commit): whoever finds no fsync running starts one
+ * covering every record written so far, and the others wait for it, so N concurrent appenders cost
+ * roughly one fsync rather than N.
+ * A segment is fsynced before the next one is started, so only the last segment can end in a torn
+ * record; opening the journal cuts such a tail off.
+ * A failed fsync fails the journal for good: the kernel may have dropped the unwritten pages, so a later
+ * fsync that succeeds proves nothing. Every append and sync then throws until the journal is reopened,
+ * which recovers exactly what reached the disk.
+ */
+public final class TradeJournal implements Closeable {
+
+    /**
+     * Receives the records of the journal in sequence order
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long sequence, byte[] payload) throws IOException;
+    }
+
+    private static final int MAGIC = 0x544A4E4C; // "TJNL"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8;
+    private static final int MAX_PAYLOAD_BYTES = 1024 * 1024;
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final UUID journalId;
+
+    // Closed segments (base sequence -> path), oldest first; each is fully durable
+    private final LinkedHashMap<Long, Path> closedSegments = new LinkedHashMap<>();
+    private FileChannel active;
+    private long activeBase;
+    private long activeEnd;
+    private long lastSequence;
+
+    // Highest sequence fully written / fsynced
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private boolean syncing;
+    // The first fsync failure; once set, nothing more is written or reported durable
+    private volatile IOException failure;
+
+    private final AtomicLong appends = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private TradeJournal(Path dir, long segmentBytes, UUID journalId) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.journalId = journalId;
+    }
+
+    /**
+     * Open (or create) the journal in a directory, cutting off any torn record at its end
+     * @param segmentBytes Size after which appends move on to a new segment file
+     */
+    public static TradeJournal open(Path dir, long segmentBytes) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().forEach(segments::add);
+        }
+        // A crash while starting a segment can leave it without a complete header (and so without records)
+        if (!segments.isEmpty() && Files.size(segments.get(segments.size() - 1)) < SEGMENT_HEADER_BYTES) {
+            Files.delete(segments.remove(segments.size() - 1));
+        }
+        UUID journalId = segments.isEmpty() ? UUID.randomUUID() : readHeader(segments.get(0)).journalId;
+        TradeJournal journal = new TradeJournal(dir, segmentBytes, journalId);
+        journal.recover(segments);
+        return journal;
+    }
+
+    /**
+     * Identifies this journal's sequence numbers (kept across restarts and segment deletion)
+     */
+    public UUID journalId() {
+        return journalId;
+    }
+
+    /**
+     * Write a record; it is durable only once sync() has covered its sequence
+     * @return The record's sequence
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        checkFailure();
+        if (payload.length > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Journal record too large: " + payload.length + " bytes");
+        }
+        long sequence = lastSequence + 1;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length);
+        record.putInt(payload.length)
+            .putInt(checksum(sequence, payload))
+            .putLong(sequence)
+            .put(payload)
+            .flip();
+        try {
+            if (activeEnd >= segmentBytes) {
+                roll();
+            }
+            writeFully(active, record, activeEnd);
+        } catch (IOException e) {
+            // A failed write or roll leaves the file in an unknown state, like a failed fsync
+            if (failure == null) {
+                failure = e;
+            }
+            throw e;
+        }
+        activeEnd += record.capacity();
+        lastSequence = sequence;
+        writtenSequence = sequence;
+        appends.incrementAndGet();
+        bytes.addAndGet(record.capacity());
+        return sequence;
+    }
+
+    /**
+     * Block until every record up to the sequence is on disk
+     * @return true if this call ran the fsync, false if an fsync of another caller covered the sequence
+     */
+    public boolean sync(long sequence) throws IOException {
+        boolean ran = false;
+        syncLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                checkFailure();
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target;
+                FileChannel channel;
+                synchronized (this) {
+                    target = writtenSequence;
+                    channel = active;
+                }
+                syncLock.unlock();
+                IOException failure = null;
+                try {
+                    channel.force(false);
+                } catch (ClosedChannelException e) {
+                    // The segment was rolled meanwhile, and rolling forces it, so the target is durable
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    syncLock.lock();
+                    if (failure != null && this.failure == null) {
+                        this.failure = failure;
+                    }
+                    syncing = false;
+                    synced.signalAll();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                syncs.incrementAndGet();
+                durableSequence = Math.max(durableSequence, target);
+                ran = true;
+            }
+        } finally {
+            syncLock.unlock();
+        }
+        return ran;
+    }
+
+    public long durableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * @return true once an fsync has failed; the journal must be reopened before it accepts records again
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Read every record after a sequence, in order (used at startup, before any append)
+     */
+    public synchronized void replay(long afterSequence, RecordConsumer consumer) throws IOException {
+        List<Path> segments = new ArrayList<>(closedSegments.values());
+        segments.add(segmentPath(activeBase));
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long position = SEGMENT_HEADER_BYTES;
+                long size = channel.size();
+                while (position < size) {
+                    Record record = readRecord(channel, position, size);
+                    if (record == null) {
+                        break;
+                    }
+                    if (record.sequence > afterSequence) {
+                        consumer.accept(record.sequence, record.payload);
+                    }
+                    position += RECORD_HEADER_BYTES + record.payload.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete closed segments whose records are all at or below the sequence (e.g. already in the database)
+     * @return Number of segments deleted
+     */
+    public synchronized int deleteThrough(long sequence) throws IOException {
+        int deleted = 0;
+        List<Long> bases = new ArrayList<>(closedSegments.keySet());
+        for (int i = 0; i < bases.size(); i++) {
+            long nextBase = i + 1 < bases.size() ? bases.get(i + 1) : activeBase;
+            if (nextBase - 1 > sequence) {
+                break;
+            }
+            Files.deleteIfExists(closedSegments.remove(bases.get(i)));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("journalId", journalId);
+        stats.put("writtenSequence", writtenSequence);
+        stats.put("durableSequence", durableSequence);
+        stats.put("appends", appends.get());
+        stats.put("syncs", syncs.get());
+        stats.put("failed", failure != null);
+        stats.put("bytesWritten", bytes.get());
+        synchronized (this) {
+            stats.put("segments", closedSegments.size() + 1);
+        }
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null && active.isOpen()) {
+            active.force(true);
+            active.close();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Trade journal failed an fsync and must be reopened", cause);
+        }
+    }
+
+    /**
+     * Make the active segment durable and start the next one at the following sequence
+     */
+    private void roll() throws IOException {
+        active.force(true);
+        active.close();
+        closedSegments.put(activeBase, segmentPath(activeBase));
+        openSegment(lastSequence + 1);
+    }
+
+    private void recover(List<Path> segments) throws IOException {
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            Header header = readHeader(segment);
+            if (!header.journalId.equals(journalId)) {
+                throw new IOException("Segment " + segment + " belongs to another journal");
+            }
+            long expected = header.baseSequence;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long position = SEGMENT_HEADER_BYTES;
+                long size = channel.size();
+                while (position < size) {
+                    Record record = readRecord(channel, position, size);
+                    if (record == null || record.sequence != expected) {
+                        break;
+                    }
+                    position += RECORD_HEADER_BYTES + record.payload.length;
+                    expected++;
+                }
+                if (position < size) {
+                    if (i < segments.size() - 1) {
+                        throw new IOException("Journal segment " + segment + " is corrupt at offset " + position);
+                    }
+                    // Torn write at the very end: the record was never acknowledged
+                    channel.truncate(position);
+                    channel.force(true);
+                }
+                lastSequence = expected - 1;
+                if (i < segments.size() - 1) {
+                    closedSegments.put(header.baseSequence, segment);
+                } else {
+                    activeBase = header.baseSequence;
+                    activeEnd = position;
+                }
+            }
+        }
+        active = FileChannel.open(segmentPath(activeBase), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writtenSequence = lastSequence;
+        durableSequence = lastSequence;
+    }
+
+    private void openSegment(long baseSequence) throws IOException {
+        Path path = segmentPath(baseSequence);
+        active = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+        header.putInt(MAGIC)
+            .putInt(VERSION)
+            .putLong(journalId.getMostSignificantBits())
+            .putLong(journalId.getLeastSignificantBits())
+            .putLong(baseSequence)
+            .flip();
+        writeFully(active, header, 0);
+        active.force(true);
+        activeBase = baseSequence;
+        activeEnd = SEGMENT_HEADER_BYTES;
+    }
+
+    private Path segmentPath(long baseSequence) {
+        return dir.resolve(String.format("%020d", baseSequence) + SUFFIX);
+    }
+
+    private static Header readHeader(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unrecognised journal segment " + segment);
+            }
+            UUID journalId = new UUID(header.getLong(), header.getLong());
+            return new Header(journalId, header.getLong());
+        }
+    }
+
+    /**
+     * @return The record at the position, or null if it is incomplete or fails its checksum
+     */
+    private static Record readRecord(FileChannel channel, long position, long size) throws IOException {
+        if (position + RECORD_HEADER_BYTES > size) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        readFully(channel, header, position);
+        header.flip();
+        int length = header.getInt();
+        int crc = header.getInt();
+        long sequence = header.getLong();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES || position + RECORD_HEADER_BYTES + length > size) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + RECORD_HEADER_BYTES);
+        if (checksum(sequence, payload.array()) != crc) {
+            return null;
+        }
+        return new Record(sequence, payload.array());
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of journal at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private record Header(UUID journalId, long baseSequence) {
+    }
+
+    private record Record(long sequence, byte[] payload) {
+    }
+}
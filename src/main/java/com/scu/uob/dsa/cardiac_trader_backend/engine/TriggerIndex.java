@@ -0,0 +1,187 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open conditional orders indexed by session, stock and trigger price.
+ * Each (session, stock) book keeps two sorted maps: orders that fire when the price falls to their
+ * trigger and orders that fire when it rises to it. A price check only compares the price with the
+ * nearest trigger on each side and polls the orders actually crossed, so evaluating a tick costs
+ * O(log n) per book plus the fired orders, however many orders are open.
+ */
+public final class TriggerIndex {
+
+    /**
+     * Live price of a stock in a session
+     */
+    @FunctionalInterface
+    public interface PriceSource {
+        /**
+         * @return Price in cents, or a negative value if the stock has no live price
+         */
+        long priceCents(UUID sessionId, UUID stockId);
+    }
+
+    /**
+     * An order whose trigger was crossed, with what it takes to put it back
+     */
+    public record Fired(UUID orderId, UUID sessionId, UUID stockId, long triggerCents, boolean triggersOnFall) {
+    }
+
+    private final Map<UUID, Map<UUID, Book>> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public void add(UUID orderId, UUID sessionId, UUID stockId, long triggerCents, boolean triggersOnFall) {
+        // Mutating a session's books inside compute serialises it with the empty-book cleanup in evaluate
+        sessions.compute(sessionId, (id, books) -> {
+            Map<UUID, Book> result = books != null ? books : new ConcurrentHashMap<>();
+            Book book = result.computeIfAbsent(stockId, stock -> new Book());
+            synchronized (book) {
+                if (book.add(orderId, triggerCents, triggersOnFall)) {
+                    size.incrementAndGet();
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return false if the order was not in the index (already fired or removed)
+     */
+    public boolean remove(UUID orderId, UUID sessionId, UUID stockId) {
+        boolean[] removed = new boolean[1];
+        sessions.computeIfPresent(sessionId, (id, books) -> {
+            Book book = books.get(stockId);
+            if (book != null) {
+                synchronized (book) {
+                    removed[0] = book.remove(orderId);
+                    if (book.isEmpty()) {
+                        books.remove(stockId);
+                    }
+                }
+            }
+            return books.isEmpty() ? null : books;
+        });
+        if (removed[0]) {
+            size.decrementAndGet();
+        }
+        return removed[0];
+    }
+
+    /**
+     * Put a fired order back, e.g. when it could not be executed yet; it fires again on a later crossing
+     */
+    public void restore(Fired order) {
+        add(order.orderId(), order.sessionId(), order.stockId(), order.triggerCents(), order.triggersOnFall());
+    }
+
+    /**
+     * Remove and return every order whose trigger the current prices have crossed
+     */
+    public List<Fired> evaluate(PriceSource prices) {
+        List<Fired> fired = new ArrayList<>();
+        for (Map.Entry<UUID, Map<UUID, Book>> session : sessions.entrySet()) {
+            for (Map.Entry<UUID, Book> stock : session.getValue().entrySet()) {
+                long priceCents = prices.priceCents(session.getKey(), stock.getKey());
+                if (priceCents < 0) {
+                    continue;
+                }
+                Book book = stock.getValue();
+                int before = fired.size();
+                synchronized (book) {
+                    book.pollCrossed(session.getKey(), stock.getKey(), priceCents, fired);
+                }
+                if (fired.size() > before) {
+                    size.addAndGet(before - fired.size());
+                    removeIfEmpty(session.getKey(), stock.getKey());
+                }
+            }
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int sessions() {
+        return sessions.size();
+    }
+
+    private void removeIfEmpty(UUID sessionId, UUID stockId) {
+        sessions.computeIfPresent(sessionId, (id, books) -> {
+            Book book = books.get(stockId);
+            if (book != null) {
+                synchronized (book) {
+                    if (book.isEmpty()) {
+                        books.remove(stockId);
+                    }
+                }
+            }
+            return books.isEmpty() ? null : books;
+        });
+    }
+
+    private static final class Book {
+        // Fire when price <= trigger: crossed triggers are the highest keys
+        private final TreeMap<Long, ArrayDeque<UUID>> onFall = new TreeMap<>();
+        // Fire when price >= trigger: crossed triggers are the lowest keys
+        private final TreeMap<Long, ArrayDeque<UUID>> onRise = new TreeMap<>();
+        // Trigger of each order, signed by side (onFall negative) so remove finds its level
+        private final Map<UUID, Long> triggers = new HashMap<>();
+
+        private boolean add(UUID orderId, long triggerCents, boolean triggersOnFall) {
+            if (triggers.putIfAbsent(orderId, triggersOnFall ? -triggerCents - 1 : triggerCents) != null) {
+                return false;
+            }
+            (triggersOnFall ? onFall : onRise).computeIfAbsent(triggerCents, price -> new ArrayDeque<>()).add(orderId);
+            return true;
+        }
+
+        private boolean remove(UUID orderId) {
+            Long signed = triggers.remove(orderId);
+            if (signed == null) {
+                return false;
+            }
+            TreeMap<Long, ArrayDeque<UUID>> side = signed < 0 ? onFall : onRise;
+            long triggerCents = signed < 0 ? -(signed + 1) : signed;
+            ArrayDeque<UUID> level = side.get(triggerCents);
+            level.remove(orderId);
+            if (level.isEmpty()) {
+                side.remove(triggerCents);
+            }
+            return true;
+        }
+
+        private void pollCrossed(UUID sessionId, UUID stockId, long priceCents, List<Fired> fired) {
+            while (!onFall.isEmpty() && onFall.lastKey() >= priceCents) {
+                Map.Entry<Long, ArrayDeque<UUID>> level = onFall.pollLastEntry();
+                drain(sessionId, stockId, level.getKey(), true, level.getValue(), fired);
+            }
+            while (!onRise.isEmpty() && onRise.firstKey() <= priceCents) {
+                Map.Entry<Long, ArrayDeque<UUID>> level = onRise.pollFirstEntry();
+                drain(sessionId, stockId, level.getKey(), false, level.getValue(), fired);
+            }
+        }
+
+        private void drain(UUID sessionId, UUID stockId, long triggerCents, boolean triggersOnFall,
+                           ArrayDeque<UUID> level, List<Fired> fired) {
+            for (UUID orderId : level) {
+                triggers.remove(orderId);
+                fired.add(new Fired(orderId, sessionId, stockId, triggerCents, triggersOnFall));
+            }
+        }
+
+        private boolean isEmpty() {
+            return triggers.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents what a trade batch does when one of its trades is refused
+ */
+public enum BatchMode {
+    ATOMIC,       // All trades execute or none do
+    BEST_EFFORT   // Refused trades are skipped; the rest execute
+}
@@ -0,0 +1,12 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents the lifecycle of a conditional order
+ */
+public enum ConditionalOrderStatus {
+    OPEN,        // Waiting for its trigger price
+    FILLED,      // Triggered and traded
+    FAILED,      // Triggered but the trade was refused (e.g. insufficient funds)
+    CANCELLED,   // Cancelled by the player
+    EXPIRED      // Its round ended before it triggered
+}
@@ -0,0 +1,39 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents a resting order that trades once the live price crosses its trigger price
+ */
+public enum ConditionalOrderType {
+    LIMIT_BUY(TransactionType.BUY, true, true),      // Buy once the price falls to the trigger, never above it
+    LIMIT_SELL(TransactionType.SELL, false, true),   // Sell once the price rises to the trigger, never below it
+    STOP_LOSS(TransactionType.SELL, true, false),    // Sell at the live price once the price falls to the trigger or below
+    TAKE_PROFIT(TransactionType.SELL, false, false); // Sell at the live price once the price rises to the trigger or above
+
+    private final TransactionType side;
+    private final boolean triggersOnFall;
+    private final boolean limit;
+
+    ConditionalOrderType(TransactionType side, boolean triggersOnFall, boolean limit) {
+        this.side = side;
+        this.triggersOnFall = triggersOnFall;
+        this.limit = limit;
+    }
+
+    public TransactionType getSide() {
+        return side;
+    }
+
+    /**
+     * true if the order fires at price <= trigger, false if at price >= trigger
+     */
+    public boolean triggersOnFall() {
+        return triggersOnFall;
+    }
+
+    /**
+     * true if the trigger price is also the worst price the order may trade at
+     */
+    public boolean isLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,9 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents how a game session's markets are generated
+ */
+public enum GameMode {
+    STANDARD,          // Fresh stocks and puzzles every round
+    DAILY_CHALLENGE    // The day's shared market: every player gets the same stocks, puzzles and opening prices
+}
@@ -0,0 +1,11 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents the state of a tournament order after it reached the book
+ */
+public enum OrderStatus {
+    FILLED,            // Fully traded
+    PARTIALLY_FILLED,  // Some shares traded; the rest is resting (limit) or dropped (market)
+    RESTING,           // Nothing traded yet; waiting on the book
+    CANCELLED          // Nothing traded and nothing resting
+}
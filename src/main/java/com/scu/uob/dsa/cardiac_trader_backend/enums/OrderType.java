@@ -0,0 +1,9 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Represents how a tournament order is priced
+ */
+public enum OrderType {
+    LIMIT,     // Trade at the given price or better; any remainder rests on the book
+    MARKET     // Trade immediately at the best available prices; any remainder is dropped
+}
@@ -0,0 +1,11 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Kinds of events in a session's event journal
+ */
+public enum SessionEventType {
+    ROUND_STARTED,    // A round opened; carries the cash it started with
+    TRADE_EXECUTED,   // A buy or sell; carries the position and cash it left
+    PRICE_REVEALED,   // A round's true prices were revealed; carries the capital it ended with
+    TOOL_UNLOCKED     // A tool was earned at the end of a round
+}
@@ -4,20 +4,21 @@ package com.scu.uob.dsa.cardiac_trader_backend.enums;
  * Represents different sectors in the stock market
  */
 public enum StockSector {
-    TECH(1.5, "Technology"),           // Tech stocks worth more
-    MEDICAL(1.3, "Medical"),           // Medical/healthcare stocks
-    FINANCE(1.0, "Finance");           // Finance stocks (base multiplier)
+    TECH(15_000, "Technology"),        // Tech stocks worth more (1.5x)
+    MEDICAL(13_000, "Medical"),        // Medical/healthcare stocks (1.3x)
+    FINANCE(10_000, "Finance");        // Finance stocks (base multiplier)
 
-    private final double multiplier;
+    // Price multiplier in basis points, so prices are computed exactly in cents
+    private final int multiplierBasisPoints;
     private final String displayName;
 
-    StockSector(double multiplier, String displayName) {
-        this.multiplier = multiplier;
+    StockSector(int multiplierBasisPoints, String displayName) {
+        this.multiplierBasisPoints = multiplierBasisPoints;
         this.displayName = displayName;
     }
 
-    public double getMultiplier() {
-        return multiplier;
+    public int getMultiplierBasisPoints() {
+        return multiplierBasisPoints;
     }
 
     public String getDisplayName() {
@@ -0,0 +1,9 @@
+package com.scu.uob.dsa.cardiac_trader_backend.enums;
+
+/**
+ * Encoding of market stream frames
+ */
+public enum StreamFormat {
+    JSON,     // Frames as JSON objects
+    BINARY    // Frames in the fixed binary layout of MarketFrameCodec, base64-encoded
+}
@@ -12,6 +12,7 @@ import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Global Exception Handler for all exceptions
@@ -68,6 +69,78 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(TooManyConnectionsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTooManyConnectionsException(
+            TooManyConnectionsException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ex.getMessage(),
+                "TOO_MANY_CONNECTIONS",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponseDTO> handleRejectedExecutionException(
+            RejectedExecutionException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                "Market is busy, retry shortly",
+                "MARKET_BUSY",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIllegalArgumentException(
+            IllegalArgumentException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ex.getMessage(),
+                "INVALID_REQUEST",
+                HttpStatus.BAD_REQUEST.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TooManyTournamentsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTooManyTournamentsException(
+            TooManyTournamentsException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ex.getMessage(),
+                "TOO_MANY_TOURNAMENTS",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(SessionInTournamentException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSessionInTournamentException(
+            SessionInTournamentException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ex.getMessage(),
+                "SESSION_IN_TOURNAMENT",
+                HttpStatus.CONFLICT.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TradeJournalFailedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTradeJournalFailedException(
+            TradeJournalFailedException ex, WebRequest request) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ex.getMessage(),
+                "TRADE_JOURNAL_FAILED",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        errorResponse.setPath(request.getDescription(false).replace("uri=", ""));
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
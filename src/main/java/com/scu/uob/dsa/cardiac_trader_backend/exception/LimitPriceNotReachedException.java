@@ -0,0 +1,23 @@
+package com.scu.uob.dsa.cardiac_trader_backend.exception;
+
+/**
+ * Exception thrown when a limit order's trade would execute at a price worse than its limit
+ */
+public class LimitPriceNotReachedException extends RuntimeException {
+    private final long priceCents;
+    private final long limitPriceCents;
+
+    public LimitPriceNotReachedException(String message, long priceCents, long limitPriceCents) {
+        super(message);
+        this.priceCents = priceCents;
+        this.limitPriceCents = limitPriceCents;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public long getLimitPriceCents() {
+        return limitPriceCents;
+    }
+}
@@ -0,0 +1,19 @@
+package com.scu.uob.dsa.cardiac_trader_backend.exception;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a session trades outside the tournament it has joined, or joins a second one
+ */
+public class SessionInTournamentException extends RuntimeException {
+    private final UUID sessionId;
+
+    public SessionInTournamentException(UUID sessionId) {
+        super(String.format("Session %s is trading in a tournament until it closes", sessionId));
+        this.sessionId = sessionId;
+    }
+
+    public UUID getSessionId() {
+        return sessionId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.scu.uob.dsa.cardiac_trader_backend.exception;
+
+/**
+ * Exception thrown when this node already serves its maximum number of market streams
+ */
+public class TooManyConnectionsException extends RuntimeException {
+    private final int limit;
+
+    public TooManyConnectionsException(int limit) {
+        super(String.format("Too many market stream connections (limit: %d)", limit));
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
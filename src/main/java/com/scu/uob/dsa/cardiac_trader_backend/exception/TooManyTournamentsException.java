@@ -0,0 +1,17 @@
+package com.scu.uob.dsa.cardiac_trader_backend.exception;
+
+/**
+ * Exception thrown when this node already runs its maximum number of tournament markets
+ */
+public class TooManyTournamentsException extends RuntimeException {
+    private final int limit;
+
+    public TooManyTournamentsException(int limit) {
+        super(String.format("Too many open tournaments (limit: %d)", limit));
+        this.limit = limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
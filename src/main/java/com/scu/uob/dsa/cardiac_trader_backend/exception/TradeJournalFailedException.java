@@ -0,0 +1,12 @@
+package com.scu.uob.dsa.cardiac_trader_backend.exception;
+
+/**
+ * Exception thrown when a trade could not be made durable in the trade journal; trading stays stopped
+ * until the journal is reopened on restart, and the trade counts only if it is found on disk then
+ */
+public class TradeJournalFailedException extends RuntimeException {
+
+    public TradeJournalFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,72 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * ConditionalOrder entity representing a limit, stop-loss or take-profit order waiting for its trigger price
+ */
+@Entity
+@Table(name = "conditional_orders", indexes = @Index(name = "idx_conditional_orders_status", columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private GameSession gameSession;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id", nullable = false)
+    private Stock stock;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_type", nullable = false)
+    private ConditionalOrderType orderType;
+
+    @Column(name = "trigger_price", precision = 10, scale = 2, nullable = false)
+    private BigDecimal triggerPrice;
+
+    @Column(nullable = false)
+    private Integer shares;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConditionalOrderStatus status = ConditionalOrderStatus.OPEN;
+
+    @Column(name = "executed_price", precision = 10, scale = 2)
+    private BigDecimal executedPrice;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "triggered_at")
+    private LocalDateTime triggeredAt;
+
+    // Optimistic lock: a cancel and a trigger racing on the same order cannot both win
+    @Version
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
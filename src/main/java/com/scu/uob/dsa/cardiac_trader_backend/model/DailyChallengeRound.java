@@ -0,0 +1,43 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DailyChallengeRound entity holding one round of a day's shared market, encoded by DailyChallengeCache
+ */
+@Entity
+@Table(name = "daily_challenge_rounds", uniqueConstraints = @UniqueConstraint(
+    name = "uk_daily_challenge_round", columnNames = {"challenge_date", "round_number"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyChallengeRound {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "challenge_date", nullable = false)
+    private LocalDate challengeDate;
+
+    @Column(name = "round_number", nullable = false)
+    private Integer roundNumber;
+
+    // Stocks, heart counts, prices and image hashes in a compact binary layout (about 100 bytes per stock)
+    @Column(name = "market", nullable = false, length = 4096)
+    private byte[] market;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
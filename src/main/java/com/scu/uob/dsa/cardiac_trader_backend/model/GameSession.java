@@ -1,13 +1,16 @@
 package com.scu.uob.dsa.cardiac_trader_backend.model;
 
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.GameMode;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.GameSessionStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,9 +18,14 @@ import java.util.UUID;
 
 /**
  * GameSession entity representing a complete 3-round game
+ * Updates write only changed columns, so saving a session never overwrites the cash the trade ledger flushed.
+ * A user has at most one daily challenge session per day, whatever its status (classic sessions have no date).
  */
 @Entity
-@Table(name = "game_sessions")
+@DynamicUpdate
+@Table(name = "game_sessions",
+    indexes = @Index(name = "idx_game_sessions_challenge", columnList = "game_mode, challenge_date"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_game_sessions_daily", columnNames = {"user_id", "game_mode", "challenge_date"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +55,15 @@ public class GameSession {
     @Column(nullable = false)
     private DifficultyLevel difficultyLevel = DifficultyLevel.MEDIUM;
 
+    // Null for sessions created before game modes existed, which are STANDARD
+    @Enumerated(EnumType.STRING)
+    @Column(name = "game_mode")
+    private GameMode gameMode = GameMode.STANDARD;
+
+    // Day of the shared market for DAILY_CHALLENGE sessions (UTC)
+    @Column(name = "challenge_date")
+    private LocalDate challengeDate;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
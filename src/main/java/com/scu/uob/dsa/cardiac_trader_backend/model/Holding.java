@@ -1,5 +1,6 @@
 package com.scu.uob.dsa.cardiac_trader_backend.model;
 
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,11 +37,11 @@ public class Holding {
     private BigDecimal averagePrice;
 
     /**
-     * Calculate total value of this holding
+     * Calculate total value of this holding at the given market price
      */
-    public BigDecimal getTotalValue() {
-        if (stock != null && stock.getMarketPrice() != null) {
-            return stock.getMarketPrice().multiply(BigDecimal.valueOf(shares));
+    public BigDecimal getTotalValue(BigDecimal marketPrice) {
+        if (marketPrice != null) {
+            return Money.toBigDecimal(Money.times(Money.ofBigDecimal(marketPrice), shares));
         }
         return BigDecimal.ZERO;
     }
@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * LedgerCheckpoint entity recording the last trade journal entry written to the database,
+ * updated by TradeLedger in the same transaction as the entries themselves
+ */
+@Entity
+@Table(name = "ledger_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+    // One row per journal directory (the ID is stored in the journal's segment headers)
+    @Id
+    @Column(name = "journal_id")
+    private UUID journalId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
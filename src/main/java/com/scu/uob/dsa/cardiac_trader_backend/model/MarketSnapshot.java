@@ -0,0 +1,61 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * MarketSnapshot entity holding one stock's puzzle and prices for one round of one game session.
+ * Stocks themselves are shared and never modified during play, so concurrent sessions don't contend on them.
+ */
+@Entity
+@Table(name = "market_snapshots",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"session_id", "round_number", "stock_id"}),
+       indexes = @Index(name = "idx_market_snapshot_session_round", columnList = "session_id, round_number"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private GameSession gameSession;
+
+    @Column(name = "round_number", nullable = false)
+    private Integer roundNumber;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "stock_id", nullable = false)
+    private Stock stock;
+
+    @Column(name = "heart_image_hash", length = 64)
+    private String heartImageHash;  // Puzzle image in the PuzzleImageStore (served from /api/puzzles/{hash})
+
+    @Column(name = "actual_heart_count", nullable = false)
+    private Integer actualHeartCount;  // Hidden until market closes
+
+    @Column(name = "base_price", precision = 10, scale = 2, nullable = false)
+    private BigDecimal basePrice;  // True price implied by the heart count
+
+    @Column(name = "market_price", precision = 10, scale = 2, nullable = false)
+    private BigDecimal marketPrice;  // Current market price (may differ from true value)
+
+    @Column(nullable = false)
+    private boolean revealed;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,98 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.SessionEventType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * SessionEvent entity: one append-only entry of a session's event journal.
+ * The sequence is assigned by SessionEventService in append order (one counter for all sessions),
+ * so rows are inserted in key order and in JDBC batches. Cash and positions are absolute values
+ * after the event, so replaying a session needs no joins. Only the columns of the event's type are set.
+ */
+@Entity
+@Table(name = "session_events", indexes = @Index(name = "idx_session_events_session", columnList = "session_id, sequence"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionEvent implements Persistable<Long> {
+    @Id
+    private Long sequence;
+
+    @Column(name = "session_id", nullable = false)
+    private UUID sessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private SessionEventType eventType;
+
+    @Column(name = "round_number")
+    private Integer roundNumber;
+
+    // Cash after the event
+    @Column(name = "cash_cents")
+    private Long cashCents;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "stock_id")
+    private UUID stockId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type")
+    private TransactionType transactionType;
+
+    private Integer shares;
+
+    @Column(name = "price_cents")
+    private Long priceCents;
+
+    // Position in the stock after the trade
+    @Column(name = "shares_after")
+    private Integer sharesAfter;
+
+    @Column(name = "average_price_cents")
+    private Long averagePriceCents;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tool_type")
+    private ToolType toolType;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public Long getId() {
+        return sequence;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        persisted = true;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+}
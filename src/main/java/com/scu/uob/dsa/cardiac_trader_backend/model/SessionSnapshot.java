@@ -0,0 +1,38 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * SessionSnapshot entity: a session's state folded from its event journal up to lastSequence
+ * (encoded by SessionState), so rebuilding the session reads this row plus the events after it.
+ * Only the latest snapshot of a session is kept.
+ */
+@Entity
+@Table(name = "session_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionSnapshot {
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] state;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package com.scu.uob.dsa.cardiac_trader_backend.model;
 
 import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,7 +12,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
- * Stock entity representing a company stock in the game
+ * Stock entity representing a company stock in the game.
+ * Per-round puzzles and prices live in MarketSnapshot.
  */
 @Entity
 @Table(name = "stocks")
@@ -33,18 +35,6 @@ public class Stock {
     @Column(nullable = false)
     private StockSector sector;
 
-    @Column(name = "heart_image_url", columnDefinition = "LONGTEXT")
-    private String heartImageUrl;
-
-    @Column(name = "actual_heart_count")
-    private Integer actualHeartCount;  // Hidden until market closes
-
-    @Column(name = "base_price", precision = 10, scale = 2)
-    private BigDecimal basePrice;
-
-    @Column(name = "market_price", precision = 10, scale = 2)
-    private BigDecimal marketPrice;  // Current market price (may differ from true value)
-
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -56,12 +46,19 @@ public class Stock {
     /**
      * Calculate the true price based on heart count and sector multiplier
      */
-    public BigDecimal calculateTruePrice() {
+    public BigDecimal calculateTruePrice(Integer actualHeartCount) {
+        return Money.toBigDecimal(calculateTruePriceCents(actualHeartCount));
+    }
+
+    /**
+     * True price in cents: 100 per heart, scaled by the sector multiplier
+     */
+    public long calculateTruePriceCents(Integer actualHeartCount) {
         if (actualHeartCount == null) {
-            return BigDecimal.ZERO;
+            return 0;
         }
-        return BigDecimal.valueOf(actualHeartCount * 100)
-                .multiply(BigDecimal.valueOf(sector.getMultiplier()));
+        return Money.timesBasisPoints(Money.times(actualHeartCount, 100 * Money.CENTS_PER_UNIT),
+                sector.getMultiplierBasisPoints());
     }
 }
 
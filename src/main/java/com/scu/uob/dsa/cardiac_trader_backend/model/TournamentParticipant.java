@@ -0,0 +1,31 @@
+package com.scu.uob.dsa.cardiac_trader_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * TournamentParticipant entity recording that a session's cash is committed to a tournament,
+ * so its suspension from the trade ledger survives a restart until its fills are settled
+ */
+@Entity
+@Table(name = "tournament_participants")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TournamentParticipant {
+    // A session joins one tournament at a time
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @Column(name = "tournament_id", nullable = false)
+    private UUID tournamentId;
+
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+}
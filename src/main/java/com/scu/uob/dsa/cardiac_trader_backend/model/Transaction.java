@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,15 +13,16 @@ import java.util.UUID;
 
 /**
  * Transaction entity representing a buy or sell order
+ * IDs are assigned by the application (at trade time by the trade ledger), so new rows are
+ * told apart by a transient flag rather than a null ID and still insert in JDBC batches.
  */
 @Entity
 @Table(name = "transactions")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Transaction {
+public class Transaction implements Persistable<UUID> {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,9 +53,28 @@ public class Transaction {
     @Column(name = "timestamp")
     private LocalDateTime timestamp;
 
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        persisted = true;
+    }
+
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
         if (totalValue == null && pricePerShare != null) {
             totalValue = pricePerShare.multiply(BigDecimal.valueOf(shares));
         }
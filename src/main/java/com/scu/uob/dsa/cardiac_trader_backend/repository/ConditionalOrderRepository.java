@@ -0,0 +1,23 @@
+package com.scu.uob.dsa.cardiac_trader_backend.repository;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.model.ConditionalOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ConditionalOrderRepository extends JpaRepository<ConditionalOrder, UUID> {
+    @EntityGraph(attributePaths = "stock")
+    List<ConditionalOrder> findByGameSessionIdOrderByCreatedAtDesc(UUID gameSessionId);
+
+    List<ConditionalOrder> findByStatus(ConditionalOrderStatus status);
+
+    @EntityGraph(attributePaths = "stock")
+    List<ConditionalOrder> findByGameSessionIdAndStatus(UUID gameSessionId, ConditionalOrderStatus status);
+
+    long countByGameSessionIdAndStatus(UUID gameSessionId, ConditionalOrderStatus status);
+}
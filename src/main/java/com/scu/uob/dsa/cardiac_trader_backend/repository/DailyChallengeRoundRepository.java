@@ -0,0 +1,14 @@
+package com.scu.uob.dsa.cardiac_trader_backend.repository;
+
+import com.scu.uob.dsa.cardiac_trader_backend.model.DailyChallengeRound;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DailyChallengeRoundRepository extends JpaRepository<DailyChallengeRound, UUID> {
+    Optional<DailyChallengeRound> findByChallengeDateAndRoundNumber(LocalDate challengeDate, Integer roundNumber);
+}
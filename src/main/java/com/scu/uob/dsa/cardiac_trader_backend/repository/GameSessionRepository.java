@@ -1,10 +1,14 @@
 package com.scu.uob.dsa.cardiac_trader_backend.repository;
 
 import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.GameMode;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.GameSessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,5 +18,12 @@ public interface GameSessionRepository extends JpaRepository<GameSession, UUID>
     List<GameSession> findByUserId(UUID userId);
     List<GameSession> findByUserIdAndStatus(UUID userId, GameSessionStatus status);
     Optional<GameSession> findFirstByUserIdAndStatusOrderByStartedAtDesc(UUID userId, GameSessionStatus status);
+    // At most one per user and day (uk_game_sessions_daily)
+    Optional<GameSession> findByUserIdAndGameModeAndChallengeDate(UUID userId, GameMode gameMode, LocalDate challengeDate);
+
+    // Daily leaderboard: best final capital first, earlier finish breaks ties (served by idx_game_sessions_challenge)
+    @EntityGraph(attributePaths = "user")
+    List<GameSession> findByGameModeAndChallengeDateAndStatusOrderByCurrentCapitalDescCompletedAtAsc(
+        GameMode gameMode, LocalDate challengeDate, GameSessionStatus status, Pageable pageable);
 }
 
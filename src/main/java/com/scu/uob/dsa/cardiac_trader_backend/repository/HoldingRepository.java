@@ -2,9 +2,14 @@ package com.scu.uob.dsa.cardiac_trader_backend.repository;
 
 import com.scu.uob.dsa.cardiac_trader_backend.model.Holding;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,5 +17,23 @@ import java.util.UUID;
 public interface HoldingRepository extends JpaRepository<Holding, UUID> {
     List<Holding> findByGameSessionId(UUID gameSessionId);
     Optional<Holding> findByGameSessionIdAndStockId(UUID gameSessionId, UUID stockId);
-}
+    List<Holding> findByGameSessionIdIn(Collection<UUID> gameSessionIds);
+
+    /**
+     * All holdings of a session with their stocks, in one query
+     */
+    @Query("select h from Holding h join fetch h.stock where h.gameSession.id = :sessionId")
+    List<Holding> findWithStockByGameSessionId(@Param("sessionId") UUID sessionId);
 
+    /**
+     * All holdings of a session keyed by stock ID, so mapping a list of stocks needs no per-stock lookup
+     */
+    default Map<UUID, Holding> findByGameSessionIdKeyedByStockId(UUID sessionId) {
+        List<Holding> holdings = findWithStockByGameSessionId(sessionId);
+        Map<UUID, Holding> byStockId = new HashMap<>(holdings.size() * 2);
+        for (Holding holding : holdings) {
+            byStockId.put(holding.getStock().getId(), holding);
+        }
+        return byStockId;
+    }
+}
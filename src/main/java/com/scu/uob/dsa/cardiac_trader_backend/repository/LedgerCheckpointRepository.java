@@ -0,0 +1,11 @@
+package com.scu.uob.dsa.cardiac_trader_backend.repository;
+
+import com.scu.uob.dsa.cardiac_trader_backend.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, UUID> {
+}
@@ -0,0 +1,32 @@
+package com.scu.uob.dsa.cardiac_trader_backend.repository;
+
+import com.scu.uob.dsa.cardiac_trader_backend.model.MarketSnapshot;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MarketSnapshotRepository extends JpaRepository<MarketSnapshot, UUID> {
+    @EntityGraph(attributePaths = "stock")
+    List<MarketSnapshot> findByGameSessionIdAndRoundNumber(UUID gameSessionId, Integer roundNumber);
+
+    /**
+     * Snapshot of a stock in the session's most recent round
+     */
+    @EntityGraph(attributePaths = "stock")
+    Optional<MarketSnapshot> findFirstByGameSessionIdAndStockIdOrderByRoundNumberDesc(UUID gameSessionId, UUID stockId);
+
+    @Query("select max(m.roundNumber) from MarketSnapshot m where m.gameSession.id = :sessionId")
+    Optional<Integer> findLatestRoundNumber(@Param("sessionId") UUID sessionId);
+
+    @Modifying
+    @Query("delete from MarketSnapshot m where m.gameSession.id = :sessionId and m.roundNumber = :roundNumber")
+    int deleteRound(@Param("sessionId") UUID sessionId, @Param("roundNumber") Integer roundNumber);
+}
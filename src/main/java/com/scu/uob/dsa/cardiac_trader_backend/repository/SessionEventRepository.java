@@ -0,0 +1,22 @@
+package com.scu.uob.dsa.cardiac_trader_backend.repository;
+
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SessionEventRepository extends JpaRepository<SessionEvent, Long> {
+    List<SessionEvent> findBySessionIdAndSequenceGreaterThanOrderBySequenceAsc(UUID sessionId, long sequence);
+
+    List<SessionEvent> findBySessionIdAndSequenceGreaterThanOrderBySequenceAsc(UUID sessionId, long sequence,
+                                                                              Pageable pageable);
+
+    @Query("select max(e.sequence) from SessionEvent e")
+    Optional<Long> findMaxSequence();
+}
@@ -0,0 +1,45 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service interface for limit, stop-loss and take-profit orders that trade when the live price crosses their trigger
+ */
+public interface ConditionalOrderService {
+    /**
+     * Place a conditional order; it trades at the live price on the first tick that crosses its trigger
+     * (limit orders fail rather than trade at a price worse than the trigger).
+     * Funds and shares are checked when it triggers, not when it is placed.
+     * @throws ResourceNotFoundException if the session or the stock in its latest round is not found
+     * @throws IllegalStateException if the session already has the maximum number of open orders
+     */
+    ConditionalOrderDTO placeOrder(UUID sessionId, ConditionalOrderRequestDTO request)
+            throws ResourceNotFoundException;
+
+    /**
+     * All conditional orders of a session, newest first
+     */
+    List<ConditionalOrderDTO> getOrders(UUID sessionId);
+
+    /**
+     * Cancel an open order; orders that already triggered are returned unchanged (as FILLED if their trade
+     * executed but is not flushed yet)
+     * @throws ResourceNotFoundException if the session has no such order
+     */
+    ConditionalOrderDTO cancelOrder(UUID sessionId, UUID orderId) throws ResourceNotFoundException;
+
+    /**
+     * Expire a session's open orders when its round completes: the round's stocks stop trading, and the
+     * next round samples new ones, so the orders could never trigger
+     * @return Number of orders expired
+     */
+    int expireOrders(UUID sessionId);
+
+    Map<String, Object> getStats();
+}
@@ -1,11 +1,14 @@
 package com.scu.uob.dsa.cardiac_trader_backend.service;
 
+import com.scu.uob.dsa.cardiac_trader_backend.dto.DailyLeaderboardEntryDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.GameSessionDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundResultDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundStartDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -20,6 +23,23 @@ public interface GameService {
      */
     GameSessionDTO startNewGame(UUID userId, DifficultyLevel difficultyLevel);
 
+    /**
+     * Start (or resume) today's daily challenge: every player gets the same seeded market for the day.
+     * Other active sessions are abandoned; each user has one challenge session per day, and an abandoned one is
+     * resumed where it was left rather than restarted.
+     * @param userId The user ID
+     * @return GameSessionDTO of the day's challenge session
+     * @throws IllegalStateException if the user already finished today's challenge
+     */
+    GameSessionDTO startDailyChallenge(UUID userId);
+
+    /**
+     * Finished daily challenge sessions of a day ranked by final capital
+     * @param date The challenge day (UTC)
+     * @param limit Maximum number of entries
+     */
+    List<DailyLeaderboardEntryDTO> getDailyLeaderboard(LocalDate date, int limit);
+
     /**
      * Start a new round in an active game session
      * @param sessionId The game session ID
@@ -2,13 +2,15 @@ package com.scu.uob.dsa.cardiac_trader_backend.service;
 
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
 
+import java.util.Base64;
+
 /**
  * Service interface for Heart Game API integration
  */
 public interface HeartAPIService {
     /**
      * Fetch a heart puzzle from the external API
-     * @return HeartPuzzle containing image URL and correct answer
+     * @return HeartPuzzle containing image bytes and correct answer
      * @throws ExternalAPIException if API call fails
      */
     HeartPuzzle fetchPuzzle() throws ExternalAPIException;
@@ -17,18 +19,33 @@ public interface HeartAPIService {
      * Inner class representing a heart puzzle
      */
     class HeartPuzzle {
-        private String imageUrl;
-        private Integer correctAnswer;
-        private String puzzleId;
+        private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+
+        private final byte[] imageData;
+        private final Integer correctAnswer;
+        private final String puzzleId;
 
-        public HeartPuzzle(String imageUrl, Integer correctAnswer, String puzzleId) {
-            this.imageUrl = imageUrl;
+        public HeartPuzzle(byte[] imageData, Integer correctAnswer, String puzzleId) {
+            this.imageData = imageData;
             this.correctAnswer = correctAnswer;
             this.puzzleId = puzzleId;
         }
 
+        /**
+         * Raw PNG bytes of the puzzle image (empty if the API returned no image)
+         */
+        public byte[] getImageData() {
+            return imageData;
+        }
+
+        /**
+         * Image as a base64 data URI, built on demand for callers that still need one
+         */
         public String getImageUrl() {
-            return imageUrl;
+            if (imageData == null || imageData.length == 0) {
+                return "";
+            }
+            return DATA_URI_PREFIX + Base64.getEncoder().encodeToString(imageData);
         }
 
         public Integer getCorrectAnswer() {
@@ -40,4 +57,3 @@ public interface HeartAPIService {
         }
     }
 }
-
@@ -24,7 +24,8 @@ public interface MarketService {
     List<StockDTO> initializeStocksForRound(UUID sessionId);
 
     /**
-     * Update market prices (can be called periodically)
+     * Persist the live prices of the session's open round.
+     * Prices themselves move on every tick of the market tick engine.
      * @param sessionId The game session ID
      */
     void updateMarketPrices(UUID sessionId);
@@ -0,0 +1,63 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.StockDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StreamFormat;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TooManyConnectionsException;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service interface for pushing market events to connected clients
+ */
+public interface MarketStreamService {
+    /**
+     * Open a server-sent event stream for a game session.
+     * Events: "snapshot" (full round market, on connect and periodically), "delta" (changed prices),
+     * "position" (position and cash after a trade), "reveal" (revealed stocks) and "tool-unlock".
+     * @param sessionId The game session ID
+     * @param format Encoding of snapshot, delta and position frames (reveal and tool-unlock are always JSON)
+     * @return Event stream; completes when the client disconnects
+     * @throws ResourceNotFoundException if the session does not exist
+     * @throws TooManyConnectionsException if this node is at its stream limit
+     */
+    Flux<ServerSentEvent<Object>> subscribe(UUID sessionId, StreamFormat format)
+            throws ResourceNotFoundException, TooManyConnectionsException;
+
+    /**
+     * Push the revealed stocks of a round
+     * @param sessionId The game session ID
+     * @param revealedStocks Stocks with their true prices
+     */
+    void publishReveal(UUID sessionId, List<StockDTO> revealedStocks);
+
+    /**
+     * Push a tool unlock
+     * @param sessionId The game session ID
+     * @param toolType The unlocked tool
+     * @param roundNumber The round it was unlocked in
+     * @param usesRemaining Uses of the tool now available
+     */
+    void publishToolUnlock(UUID sessionId, ToolType toolType, Integer roundNumber, Integer usesRemaining);
+
+    /**
+     * Push a committed trade's resulting position
+     * @param sessionId The game session ID
+     * @param stockId The traded stock
+     * @param shares Shares now held (0 once sold out)
+     * @param averagePrice Average purchase price of the shares held
+     * @param cash Cash balance after the trade
+     */
+    void publishPosition(UUID sessionId, UUID stockId, int shares, BigDecimal averagePrice, BigDecimal cash);
+
+    /**
+     * Stream statistics (open connections, sessions, dropped events)
+     */
+    Map<String, Object> getStats();
+}
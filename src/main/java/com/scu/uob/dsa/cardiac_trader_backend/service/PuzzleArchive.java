@@ -0,0 +1,68 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only archive of heart puzzles fetched from the Heart API.
+ * Archived puzzles can be replayed when the API is down or rate limited.
+ */
+public interface PuzzleArchive {
+    /**
+     * Append a puzzle to the archive
+     * @param puzzle Puzzle with image bytes and solution
+     * @return Index of the archived puzzle, or -1 if archiving is disabled
+     */
+    long append(HeartAPIService.HeartPuzzle puzzle);
+
+    /**
+     * Read an archived puzzle by index
+     * @param index Index returned by append(), between 0 and size() - 1
+     * @return Archived puzzle, or empty if the index is out of range
+     */
+    Optional<ArchivedPuzzle> read(long index);
+
+    /**
+     * Pick a uniformly random archived puzzle
+     * @return Archived puzzle, or empty if the archive is empty
+     */
+    Optional<ArchivedPuzzle> randomPuzzle();
+
+    /**
+     * Number of archived puzzles
+     */
+    long size();
+
+    /**
+     * Archive statistics (size, bytes, appends, replays)
+     */
+    Map<String, Object> getStats();
+
+    /**
+     * A puzzle read back from the archive
+     */
+    class ArchivedPuzzle {
+        private final long index;
+        private final HeartAPIService.HeartPuzzle puzzle;
+        private final Instant fetchedAt;
+
+        public ArchivedPuzzle(long index, HeartAPIService.HeartPuzzle puzzle, Instant fetchedAt) {
+            this.index = index;
+            this.puzzle = puzzle;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public HeartAPIService.HeartPuzzle getPuzzle() {
+            return puzzle;
+        }
+
+        public Instant getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+}
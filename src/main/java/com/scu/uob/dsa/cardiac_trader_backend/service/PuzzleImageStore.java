@@ -0,0 +1,47 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed store for heart puzzle images.
+ * Images are keyed by the SHA-256 hash of their bytes, so identical images are stored once.
+ */
+public interface PuzzleImageStore {
+    /**
+     * Store an image (no-op if an image with the same hash already exists)
+     * @param imageData Raw PNG bytes
+     * @return Lower-case hex SHA-256 hash identifying the image
+     */
+    String store(byte[] imageData);
+
+    /**
+     * Load an image by hash
+     * @param hash Image hash as returned by store()
+     * @return Image bytes, or empty if no image exists for the hash
+     */
+    Optional<byte[]> load(String hash);
+
+    /**
+     * Locate the file holding an image, for zero-copy serving
+     * @param hash Image hash as returned by store()
+     * @return Path of the stored image, or empty if no image exists for the hash
+     */
+    Optional<Path> locate(String hash);
+
+    /**
+     * Check whether a string has the shape of an image hash (64 lower-case hex characters)
+     */
+    static boolean isValidHash(String hash) {
+        if (hash == null || hash.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+
+import java.util.Map;
+
+/**
+ * Service interface for the pre-fetched heart puzzle pool
+ */
+public interface PuzzlePoolService {
+    /**
+     * Take a puzzle from the pool, falling back to a direct API fetch when the pool is empty
+     * @return HeartPuzzle ready to be assigned to a stock
+     * @throws ExternalAPIException if the pool is empty and the direct fetch fails
+     */
+    HeartAPIService.HeartPuzzle takePuzzle() throws ExternalAPIException;
+
+    /**
+     * Top the pool back up to the high watermark once it has drained to the low watermark
+     */
+    void refill();
+
+    /**
+     * Get pool statistics (depth, watermarks, hits, misses, refill rate)
+     * @return Map of statistic name to value
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,23 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of the Heart Game API client.
+ * Enabled with heart.api.client=reactive; fetchPuzzle() stays available for blocking callers.
+ */
+public interface ReactiveHeartAPIService extends HeartAPIService {
+    /**
+     * Fetch a heart puzzle without blocking the calling thread
+     * @return Mono emitting the puzzle, or an ExternalAPIException error if the call fails
+     */
+    Mono<HeartPuzzle> fetchPuzzleAsync();
+
+    /**
+     * Fetch a batch of heart puzzles concurrently over pooled connections
+     * @param count Number of puzzles to fetch
+     * @return Flux emitting each puzzle as it arrives (failed fetches are skipped)
+     */
+    Flux<HeartPuzzle> fetchPuzzles(int count);
+}
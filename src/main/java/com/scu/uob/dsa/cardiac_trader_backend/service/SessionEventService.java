@@ -0,0 +1,42 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionEventDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionStateDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service interface for the append-only session event journal (round started, trade executed,
+ * price revealed, tool unlocked) and the periodic snapshots that keep replays short
+ */
+public interface SessionEventService {
+    /**
+     * Append events in order, in the caller's transaction; assigns their sequence numbers
+     */
+    void append(List<SessionEvent> events);
+
+    void roundStarted(UUID sessionId, int roundNumber, long cashCents);
+
+    void pricesRevealed(UUID sessionId, int roundNumber, long cashCents);
+
+    void toolUnlocked(UUID sessionId, ToolType toolType, int roundNumber);
+
+    /**
+     * Rebuild a session's state from its latest snapshot plus the events after it
+     * @throws ResourceNotFoundException if the session does not exist
+     */
+    SessionStateDTO replay(UUID sessionId) throws ResourceNotFoundException;
+
+    /**
+     * A session's events after a sequence number, oldest first
+     * @param limit Maximum number of events
+     */
+    List<SessionEventDTO> getEvents(UUID sessionId, long afterSequence, int limit);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,68 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderBookDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderResultDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentTradeDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientSharesException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TooManyTournamentsException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service interface for tournament mode: many sessions trading against each other through
+ * per-symbol limit order books instead of the house market price
+ */
+public interface TournamentService {
+    /**
+     * Open a tournament market on a random sample of the stock catalog
+     * @throws TooManyTournamentsException if the node already runs its maximum number of tournaments
+     */
+    TournamentDTO createTournament() throws TooManyTournamentsException;
+
+    /**
+     * @throws ResourceNotFoundException if the tournament is not open on this node
+     */
+    TournamentDTO getTournament(UUID tournamentId) throws ResourceNotFoundException;
+
+    /**
+     * Enter a game session into a tournament, trading with its current cash and holdings.
+     * Sessions are granted the configured starting shares of every tournament stock so the book has sellers.
+     * @throws ResourceNotFoundException if the tournament or session is not found
+     */
+    TournamentDTO joinTournament(UUID tournamentId, UUID sessionId) throws ResourceNotFoundException;
+
+    /**
+     * Place a limit or market order; fills are settled to the sessions' cash and holdings shortly after
+     * @throws InsufficientFundsException if a buy needs more cash than the session has unreserved
+     * @throws InsufficientSharesException if a sell exceeds the session's unreserved shares
+     */
+    OrderResultDTO placeOrder(UUID tournamentId, UUID sessionId, OrderRequestDTO request)
+            throws ResourceNotFoundException, InsufficientFundsException, InsufficientSharesException;
+
+    /**
+     * Cancel a resting order; cancelling an order that already filled is a no-op
+     * @return The cancelled order with the shares taken off the book
+     */
+    OrderResultDTO cancelOrder(UUID tournamentId, UUID sessionId, UUID stockId, long orderId)
+            throws ResourceNotFoundException;
+
+    OrderBookDTO getOrderBook(UUID tournamentId, UUID stockId, int depth) throws ResourceNotFoundException;
+
+    /**
+     * Most recent trades of a tournament, newest first
+     */
+    List<TournamentTradeDTO> getTrades(UUID tournamentId, int limit) throws ResourceNotFoundException;
+
+    /**
+     * Stop matching; resting orders are dropped and their reservations released
+     */
+    void closeTournament(UUID tournamentId) throws ResourceNotFoundException;
+
+    Map<String, Object> getStats();
+}
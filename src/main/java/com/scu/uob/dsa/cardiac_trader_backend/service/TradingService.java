@@ -1,9 +1,13 @@
 package com.scu.uob.dsa.cardiac_trader_backend.service;
 
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeResponseDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeRequestDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeResponseDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientSharesException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.LimitPriceNotReachedException;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
 
 import java.util.UUID;
@@ -34,6 +38,33 @@ public interface TradingService {
     TradeResponseDTO sellStock(UUID sessionId, TradeRequestDTO request)
             throws ResourceNotFoundException, InsufficientSharesException;
 
+    /**
+     * Execute the trade of a triggered conditional order; the order is marked FILLED
+     * when the trade is written to the database
+     * @param sessionId The game session ID
+     * @param orderId The conditional order ID
+     * @param side BUY or SELL
+     * @param request Trade request with stock ID and shares
+     * @param limitPriceCents Highest buy or lowest sell price allowed, or null to trade at any price
+     * @return TradeResponseDTO with transaction details
+     * @throws InsufficientFundsException or InsufficientSharesException if the trade is refused
+     * @throws LimitPriceNotReachedException if the live price is worse than the limit (nothing is traded)
+     */
+    TradeResponseDTO fillConditionalOrder(UUID sessionId, UUID orderId, TransactionType side, TradeRequestDTO request,
+                                          Long limitPriceCents);
+
+    /**
+     * Execute an ordered list of buys and sells as one journaled unit.
+     * Cash and shares are checked cumulatively, so earlier trades in the list fund later ones.
+     * ATOMIC batches trade nothing if any trade is refused; BEST_EFFORT batches skip refused trades.
+     * @param sessionId The game session ID
+     * @param request Batch mode and trades
+     * @return Per-trade results in request order
+     * @throws ResourceNotFoundException if session not found
+     */
+    BatchTradeResponseDTO executeBatch(UUID sessionId, BatchTradeRequestDTO request)
+            throws ResourceNotFoundException;
+
     /**
      * Get portfolio for a game session
      * @param sessionId The game session ID
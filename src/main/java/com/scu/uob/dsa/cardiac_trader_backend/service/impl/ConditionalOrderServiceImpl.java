@@ -0,0 +1,318 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ConditionalOrderRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TriggerIndex;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ConditionalOrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.LimitPriceNotReachedException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.model.ConditionalOrder;
+import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
+import com.scu.uob.dsa.cardiac_trader_backend.model.MarketSnapshot;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.ConditionalOrderRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.MarketSnapshotRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ConditionalOrderService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.TradingService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conditional orders are stored in the database and mirrored in a TriggerIndex.
+ * After every market tick the index returns the orders whose trigger the new prices crossed;
+ * each is then traded through TradingService on the order-trigger thread. The trade carries the
+ * order ID into the trade journal, and the order is marked FILLED in the same database transaction
+ * that writes the trade; fired orders leave the index, so an order trades at most once.
+ * Cancelling, failing and expiring an order are settled through the trade ledger's session mailbox,
+ * so they never race a trade that is filling the same order.
+ * Limit orders trade only at their trigger price or better: if the price has moved back past the limit
+ * by the time the order trades, the order stays open and goes back into the index to wait for the next
+ * crossing. Open orders expire when their round completes.
+ */
+@Service
+public class ConditionalOrderServiceImpl implements ConditionalOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalOrderServiceImpl.class);
+    private static final int MAX_FAILURE_REASON = 255;
+
+    private final ConditionalOrderRepository conditionalOrderRepository;
+    private final GameSessionRepository gameSessionRepository;
+    private final MarketSnapshotRepository marketSnapshotRepository;
+    private final TradingService tradingService;
+    private final TradeLedger tradeLedger;
+    private final MarketTickEngine marketTickEngine;
+    private final ExecutorService orderTriggerExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TriggerIndex triggerIndex = new TriggerIndex();
+
+    @Value("${market.orders.max-open-per-session:50}")
+    private int maxOpenPerSession;
+
+    private final AtomicLong triggered = new AtomicLong();
+    private final AtomicLong filled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong rearmed = new AtomicLong();
+
+    public ConditionalOrderServiceImpl(
+            ConditionalOrderRepository conditionalOrderRepository,
+            GameSessionRepository gameSessionRepository,
+            MarketSnapshotRepository marketSnapshotRepository,
+            TradingService tradingService,
+            TradeLedger tradeLedger,
+            MarketTickEngine marketTickEngine,
+            @Qualifier("orderTriggerExecutor") ExecutorService orderTriggerExecutor,
+            PlatformTransactionManager transactionManager) {
+        this.conditionalOrderRepository = conditionalOrderRepository;
+        this.gameSessionRepository = gameSessionRepository;
+        this.marketSnapshotRepository = marketSnapshotRepository;
+        this.tradingService = tradingService;
+        this.tradeLedger = tradeLedger;
+        this.marketTickEngine = marketTickEngine;
+        this.orderTriggerExecutor = orderTriggerExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void init() {
+        List<ConditionalOrder> open = conditionalOrderRepository.findByStatus(ConditionalOrderStatus.OPEN);
+        for (ConditionalOrder order : open) {
+            index(order);
+        }
+        marketTickEngine.addTickListener(this::evaluateTriggers);
+        logger.info("Conditional orders loaded: {} open", open.size());
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("null")
+    public ConditionalOrderDTO placeOrder(UUID sessionId, ConditionalOrderRequestDTO request)
+            throws ResourceNotFoundException {
+        GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
+            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
+        MarketSnapshot snapshot = marketSnapshotRepository
+            .findFirstByGameSessionIdAndStockIdOrderByRoundNumberDesc(sessionId, request.getStockId())
+            .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", request.getStockId()));
+        if (conditionalOrderRepository.countByGameSessionIdAndStatus(sessionId, ConditionalOrderStatus.OPEN)
+                >= maxOpenPerSession) {
+            throw new IllegalStateException("Too many open orders (limit: " + maxOpenPerSession + ")");
+        }
+
+        ConditionalOrder order = new ConditionalOrder();
+        order.setGameSession(gameSession);
+        order.setStock(snapshot.getStock());
+        order.setOrderType(request.getOrderType());
+        order.setTriggerPrice(Money.toBigDecimal(Money.ofBigDecimal(request.getTriggerPrice())));
+        order.setShares(request.getShares());
+        ConditionalOrder saved = conditionalOrderRepository.save(order);
+        AfterCommit.run(() -> index(saved));
+        return mapToDTO(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConditionalOrderDTO> getOrders(UUID sessionId) {
+        List<ConditionalOrderDTO> orders = new ArrayList<>();
+        for (ConditionalOrder order : conditionalOrderRepository.findByGameSessionIdOrderByCreatedAtDesc(sessionId)) {
+            orders.add(mapToDTO(order));
+        }
+        return orders;
+    }
+
+    @Override
+    @Transactional
+    public ConditionalOrderDTO cancelOrder(UUID sessionId, UUID orderId) throws ResourceNotFoundException {
+        ConditionalOrder order = conditionalOrderRepository.findById(orderId)
+            .filter(found -> found.getGameSession().getId().equals(sessionId))
+            .orElseThrow(() -> new ResourceNotFoundException("ConditionalOrder", "id", orderId));
+        if (order.getStatus() != ConditionalOrderStatus.OPEN) {
+            return mapToDTO(order);
+        }
+        ConditionalOrderStatus current = tradeLedger.settleOrder(sessionId, orderId, ConditionalOrderStatus.CANCELLED);
+        if (current != ConditionalOrderStatus.OPEN) {
+            // A trade filled it (or another request settled it) first
+            ConditionalOrderDTO dto = mapToDTO(order);
+            dto.setStatus(current);
+            return dto;
+        }
+        order.setStatus(ConditionalOrderStatus.CANCELLED);
+        conditionalOrderRepository.save(order);
+        UUID stockId = order.getStock().getId();
+        AfterCommit.run(() -> triggerIndex.remove(orderId, sessionId, stockId));
+        return mapToDTO(order);
+    }
+
+    @Override
+    @Transactional
+    public int expireOrders(UUID sessionId) {
+        List<ConditionalOrder> open = conditionalOrderRepository
+            .findByGameSessionIdAndStatus(sessionId, ConditionalOrderStatus.OPEN);
+        if (open.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ConditionalOrder> expiring = new ArrayList<>(open.size());
+        List<UUID[]> removed = new ArrayList<>(open.size());
+        for (ConditionalOrder order : open) {
+            if (tradeLedger.settleOrder(sessionId, order.getId(), ConditionalOrderStatus.EXPIRED)
+                    != ConditionalOrderStatus.OPEN) {
+                // Filled by a trade that is not flushed yet
+                continue;
+            }
+            order.setStatus(ConditionalOrderStatus.EXPIRED);
+            order.setTriggeredAt(now);
+            expiring.add(order);
+            removed.add(new UUID[]{order.getId(), order.getStock().getId()});
+        }
+        conditionalOrderRepository.saveAll(expiring);
+        AfterCommit.run(() -> {
+            for (UUID[] order : removed) {
+                triggerIndex.remove(order[0], sessionId, order[1]);
+            }
+            expired.addAndGet(removed.size());
+        });
+        return expiring.size();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openOrders", triggerIndex.size());
+        stats.put("sessionsWithOrders", triggerIndex.sessions());
+        stats.put("triggered", triggered.get());
+        stats.put("filled", filled.get());
+        stats.put("failed", failed.get());
+        stats.put("expired", expired.get());
+        stats.put("deferred", deferred.get());
+        stats.put("rearmed", rearmed.get());
+        return stats;
+    }
+
+    /**
+     * Runs after each market tick: hand every crossed order to the order-trigger thread
+     */
+    private void evaluateTriggers() {
+        // Peek, so open orders alone never keep an abandoned session from expiring
+        List<TriggerIndex.Fired> fired = triggerIndex.evaluate(
+            (sessionId, stockId) -> marketTickEngine.peekPriceCents(sessionId, stockId, -1));
+        triggered.addAndGet(fired.size());
+        for (TriggerIndex.Fired order : fired) {
+            try {
+                orderTriggerExecutor.execute(() -> execute(order));
+            } catch (RejectedExecutionException e) {
+                // Never trade on the tick thread: the order stays open and fires again on a later tick
+                triggerIndex.restore(order);
+                deferred.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Trade a triggered order at the live price (marked FILLED when the trade is flushed), or mark it FAILED
+     * if the trade is refused. A limit order whose limit the price has moved back past is put back instead.
+     */
+    private void execute(TriggerIndex.Fired fired) {
+        UUID orderId = fired.orderId();
+        TriggeredOrder order = null;
+        try {
+            order = transactionTemplate.execute(status -> conditionalOrderRepository.findById(orderId)
+                .filter(found -> found.getStatus() == ConditionalOrderStatus.OPEN)
+                .map(found -> new TriggeredOrder(found.getGameSession().getId(), found.getStock().getId(),
+                    found.getOrderType().getSide(), found.getShares(),
+                    found.getOrderType().isLimit() ? Money.ofBigDecimal(found.getTriggerPrice()) : null))
+                .orElse(null));
+            if (order == null) {
+                return;
+            }
+            tradingService.fillConditionalOrder(order.sessionId(), orderId, order.side(),
+                new TradeRequestDTO(order.stockId(), order.shares()), order.limitPriceCents());
+            filled.incrementAndGet();
+        } catch (LimitPriceNotReachedException e) {
+            // Nothing traded and the order is still open: wait for the price to cross the limit again
+            triggerIndex.restore(fired);
+            rearmed.incrementAndGet();
+            logger.debug("Conditional order {} waits again: {}", orderId, e.getMessage());
+        } catch (RuntimeException e) {
+            // Refused trades change nothing; record why
+            failed.incrementAndGet();
+            logger.debug("Conditional order {} failed: {}", orderId, e.getMessage());
+            if (order != null) {
+                markFailed(order.sessionId(), orderId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * What a triggered order trades, read before the trade so no entity outlives its transaction
+     */
+    private record TriggeredOrder(UUID sessionId, UUID stockId, TransactionType side, int shares, Long limitPriceCents) {
+    }
+
+    /**
+     * Mark an order FAILED, unless its trade executed after all (e.g. it was journaled before a later error)
+     */
+    private void markFailed(UUID sessionId, UUID orderId, String reason) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> conditionalOrderRepository.findById(orderId)
+                .filter(order -> order.getStatus() == ConditionalOrderStatus.OPEN)
+                .filter(order -> tradeLedger.settleOrder(sessionId, orderId, ConditionalOrderStatus.FAILED)
+                    == ConditionalOrderStatus.OPEN)
+                .ifPresent(order -> {
+                    order.setStatus(ConditionalOrderStatus.FAILED);
+                    order.setFailureReason(reason == null || reason.length() <= MAX_FAILURE_REASON
+                        ? reason : reason.substring(0, MAX_FAILURE_REASON));
+                    order.setTriggeredAt(LocalDateTime.now());
+                    conditionalOrderRepository.save(order);
+                }));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to record failure of conditional order {}", orderId, e);
+        }
+    }
+
+    private void index(ConditionalOrder order) {
+        triggerIndex.add(order.getId(), order.getGameSession().getId(), order.getStock().getId(),
+            Money.ofBigDecimal(order.getTriggerPrice()), order.getOrderType().triggersOnFall());
+    }
+
+    private ConditionalOrderDTO mapToDTO(ConditionalOrder order) {
+        return new ConditionalOrderDTO(
+            order.getId(),
+            order.getStock().getId(),
+            order.getStock().getSymbol(),
+            order.getOrderType(),
+            order.getOrderType().getSide(),
+            order.getTriggerPrice(),
+            order.getShares(),
+            order.getStatus(),
+            order.getExecutedPrice(),
+            order.getTransactionId(),
+            order.getFailureReason(),
+            order.getCreatedAt(),
+            order.getTriggeredAt()
+        );
+    }
+}
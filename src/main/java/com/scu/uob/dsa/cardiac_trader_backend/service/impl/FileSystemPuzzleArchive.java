@@ -0,0 +1,284 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleArchive;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Filesystem-backed puzzle archive.
+ * - puzzles.dat: append-only records
+ *   [int length][int crc32][int solution][long fetchedAtMillis][int idLength][id][image bytes]
+ * - puzzles.idx: memory-mapped [int magic][int version][long count] header followed by one
+ *   long data-file offset per puzzle, so any puzzle is found in O(1) without loading the archive.
+ * The count is written after the record and its offset, so a crash mid-append loses at most that puzzle.
+ */
+@Service
+public class FileSystemPuzzleArchive implements PuzzleArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemPuzzleArchive.class);
+
+    private static final int INDEX_MAGIC = 0x505A4958; // "PZIX"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 16;
+    private static final int COUNT_POSITION = 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 4 + 8 + 4;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    // A single mapping is addressed with int positions
+    private static final long MAX_INDEX_CAPACITY = (Integer.MAX_VALUE - INDEX_HEADER_BYTES) / Long.BYTES;
+
+    @Value("${puzzle.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${puzzle.archive.dir:data/puzzle-archive}")
+    private String archiveDir;
+
+    @Value("${puzzle.archive.initial-index-capacity:65536}")
+    private int initialIndexCapacity;
+
+    private FileChannel dataChannel;
+    private FileChannel indexChannel;
+    private volatile MappedByteBuffer index;
+    private long indexCapacity;
+    private volatile long count;
+    private long dataEnd;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            logger.info("Puzzle archive disabled");
+            return;
+        }
+        Path root = Paths.get(archiveDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        dataChannel = FileChannel.open(root.resolve("puzzles.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(root.resolve("puzzles.idx"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        boolean fresh = indexChannel.size() < INDEX_HEADER_BYTES;
+        long existingCapacity = fresh ? 0 : (indexChannel.size() - INDEX_HEADER_BYTES) / Long.BYTES;
+        mapIndex(Math.max(initialIndexCapacity, existingCapacity));
+
+        if (fresh) {
+            index.putInt(0, INDEX_MAGIC);
+            index.putInt(4, INDEX_VERSION);
+            index.putLong(COUNT_POSITION, 0);
+        } else if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION) {
+            throw new IllegalStateException("Unrecognised puzzle archive index in " + root);
+        }
+        recover();
+        logger.info("Puzzle archive at {} ({} puzzles, {} bytes)", root, count, dataEnd);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            index.force();
+            dataChannel.force(true);
+            indexChannel.close();
+            dataChannel.close();
+        }
+    }
+
+    @Override
+    public synchronized long append(HeartAPIService.HeartPuzzle puzzle) {
+        if (!enabled) {
+            return -1;
+        }
+        byte[] image = puzzle.getImageData() != null ? puzzle.getImageData() : new byte[0];
+        byte[] id = puzzle.getPuzzleId() != null ? puzzle.getPuzzleId().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int length = RECORD_HEADER_BYTES + id.length + image.length;
+        if (length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Puzzle too large to archive: " + length + " bytes");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(image);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES + id.length);
+        header.putInt(length)
+            .putInt((int) crc.getValue())
+            .putInt(puzzle.getCorrectAnswer() != null ? puzzle.getCorrectAnswer() : -1)
+            .putLong(System.currentTimeMillis())
+            .putInt(id.length)
+            .put(id)
+            .flip();
+
+        try {
+            long offset = dataEnd;
+            writeFully(new ByteBuffer[]{header, ByteBuffer.wrap(image)}, offset);
+            if (count == indexCapacity) {
+                mapIndex(indexCapacity * 2);
+            }
+            index.putLong(slotPosition(count), offset);
+            index.putLong(COUNT_POSITION, count + 1);
+            dataEnd = offset + length;
+            appends.increment();
+            return count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive puzzle", e);
+        }
+    }
+
+    @Override
+    public Optional<ArchivedPuzzle> read(long puzzleIndex) {
+        if (!enabled || puzzleIndex < 0 || puzzleIndex >= count) {
+            return Optional.empty();
+        }
+        long offset = index.getLong(slotPosition(puzzleIndex));
+        try {
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+            readFully(lengthBuffer, offset);
+            int length = lengthBuffer.getInt(0);
+            if (length < RECORD_HEADER_BYTES || length > MAX_RECORD_BYTES) {
+                logger.warn("Archived puzzle {} has an invalid record length {}, skipping", puzzleIndex, length);
+                return Optional.empty();
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(length - Integer.BYTES);
+            readFully(record, offset + Integer.BYTES);
+            record.flip();
+            int crc = record.getInt();
+            int solution = record.getInt();
+            long fetchedAt = record.getLong();
+            byte[] id = new byte[record.getInt()];
+            record.get(id);
+            byte[] image = new byte[record.remaining()];
+            record.get(image);
+
+            CRC32 check = new CRC32();
+            check.update(image);
+            if ((int) check.getValue() != crc) {
+                logger.warn("Archived puzzle {} failed its checksum, skipping", puzzleIndex);
+                return Optional.empty();
+            }
+
+            HeartAPIService.HeartPuzzle puzzle = new HeartAPIService.HeartPuzzle(
+                image, solution >= 0 ? solution : null, new String(id, StandardCharsets.UTF_8));
+            return Optional.of(new ArchivedPuzzle(puzzleIndex, puzzle, Instant.ofEpochMilli(fetchedAt)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived puzzle " + puzzleIndex, e);
+        }
+    }
+
+    @Override
+    public Optional<ArchivedPuzzle> randomPuzzle() {
+        long size = count;
+        if (size == 0) {
+            return Optional.empty();
+        }
+        Optional<ArchivedPuzzle> puzzle = read(ThreadLocalRandom.current().nextLong(size));
+        puzzle.ifPresent(p -> replays.increment());
+        return puzzle;
+    }
+
+    @Override
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", count);
+        synchronized (this) {
+            stats.put("dataBytes", dataEnd);
+        }
+        stats.put("indexCapacity", indexCapacity);
+        stats.put("appends", appends.sum());
+        stats.put("replays", replays.sum());
+        return stats;
+    }
+
+    /**
+     * Drop index entries whose records never fully reached the data file, then cut any partial tail record
+     */
+    private void recover() throws IOException {
+        long indexed = index.getLong(COUNT_POSITION);
+        long dataSize = dataChannel.size();
+        long end = 0;
+        while (indexed > 0) {
+            long offset = index.getLong(slotPosition(indexed - 1));
+            if (offset + RECORD_HEADER_BYTES <= dataSize) {
+                ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+                readFully(lengthBuffer, offset);
+                int length = lengthBuffer.getInt(0);
+                if (length >= RECORD_HEADER_BYTES && offset + length <= dataSize) {
+                    end = offset + length;
+                    break;
+                }
+            }
+            indexed--;
+        }
+        if (indexed != index.getLong(COUNT_POSITION)) {
+            logger.warn("Puzzle archive recovered {} of {} indexed puzzles", indexed, index.getLong(COUNT_POSITION));
+            index.putLong(COUNT_POSITION, indexed);
+        }
+        if (dataSize > end) {
+            dataChannel.truncate(end);
+        }
+        count = indexed;
+        dataEnd = end;
+    }
+
+    private void mapIndex(long capacity) throws IOException {
+        capacity = Math.min(capacity, MAX_INDEX_CAPACITY);
+        if (capacity <= count) {
+            throw new IOException("Puzzle archive index is full (" + count + " puzzles)");
+        }
+        // Mapping beyond the current size grows the file
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_BYTES + capacity * Long.BYTES);
+        indexCapacity = capacity;
+    }
+
+    private static int slotPosition(long puzzleIndex) {
+        return (int) (INDEX_HEADER_BYTES + puzzleIndex * Long.BYTES);
+    }
+
+    private void writeFully(ByteBuffer[] buffers, long position) throws IOException {
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                position += dataChannel.write(buffer, position);
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = dataChannel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of puzzle archive at " + position);
+            }
+            position += read;
+        }
+    }
+}
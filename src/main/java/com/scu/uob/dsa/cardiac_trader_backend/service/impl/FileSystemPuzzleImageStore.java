@@ -0,0 +1,104 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleImageStore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Filesystem-backed puzzle image store.
+ * Layout: {dir}/{first two hash chars}/{hash}.png, written via temp file + atomic move
+ * so readers never see a partially written image.
+ */
+@Service
+public class FileSystemPuzzleImageStore implements PuzzleImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemPuzzleImageStore.class);
+
+    @Value("${puzzle.image.store.dir:data/puzzle-images}")
+    private String storeDir;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storeDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        logger.info("Puzzle image store at {}", root);
+    }
+
+    @Override
+    public String store(byte[] imageData) {
+        String hash = sha256(imageData);
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, imageData);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another thread stored the same image first
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store puzzle image " + hash, e);
+        }
+        return hash;
+    }
+
+    @Override
+    public Optional<byte[]> load(String hash) {
+        if (!PuzzleImageStore.isValidHash(hash)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(pathFor(hash)));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read puzzle image " + hash, e);
+        }
+    }
+
+    @Override
+    public Optional<Path> locate(String hash) {
+        if (!PuzzleImageStore.isValidHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + ".png");
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
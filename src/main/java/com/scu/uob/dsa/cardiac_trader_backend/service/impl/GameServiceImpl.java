@@ -1,10 +1,13 @@
 package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
 
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.DailyLeaderboardEntryDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.GameSessionDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundResultDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.RoundStartDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.StockDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.GameMode;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.GameSessionStatus;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.RoundStatus;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
@@ -15,18 +18,27 @@ import com.scu.uob.dsa.cardiac_trader_backend.model.User;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.RoundRepository;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.UserRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ConditionalOrderService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.GameService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.MarketService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.ToolService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.TradingService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
@@ -38,6 +50,9 @@ public class GameServiceImpl implements GameService {
     private final MarketService marketService;
     private final ToolService toolService;
     private final TradingService tradingService;
+    private final TradeLedger tradeLedger;
+    private final SessionEventService sessionEventService;
+    private final ConditionalOrderService conditionalOrderService;
     
     @Value("${game.starting.capital:10000}")
     private BigDecimal startingCapital;
@@ -57,13 +72,19 @@ public class GameServiceImpl implements GameService {
             UserRepository userRepository,
             MarketService marketService,
             ToolService toolService,
-            TradingService tradingService) {
+            TradingService tradingService,
+            TradeLedger tradeLedger,
+            SessionEventService sessionEventService,
+            ConditionalOrderService conditionalOrderService) {
         this.gameSessionRepository = gameSessionRepository;
         this.roundRepository = roundRepository;
         this.userRepository = userRepository;
         this.marketService = marketService;
         this.toolService = toolService;
         this.tradingService = tradingService;
+        this.tradeLedger = tradeLedger;
+        this.sessionEventService = sessionEventService;
+        this.conditionalOrderService = conditionalOrderService;
     }
 
     @Override
@@ -103,6 +124,82 @@ public class GameServiceImpl implements GameService {
         return mapToDTO(gameSession);
     }
 
+    @Override
+    @Transactional
+    @SuppressWarnings("null")
+    public GameSessionDTO startDailyChallenge(UUID userId) {
+        User user = userRepository.findById(userId)  // NOSONAR - orElseThrow guarantees non-null
+            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        // One challenge per UTC day, so every node agrees on which market a player gets
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        GameSession existing = gameSessionRepository
+            .findByUserIdAndGameModeAndChallengeDate(userId, GameMode.DAILY_CHALLENGE, today)
+            .orElse(null);
+        if (existing != null) {
+            if (existing.getStatus() == GameSessionStatus.COMPLETED) {
+                throw new IllegalStateException("Today's daily challenge is already completed");
+            }
+            if (existing.getStatus() == GameSessionStatus.ABANDONED) {
+                // Resumed where it was left, never restarted, so the seeded market can't be replayed from round 1
+                abandonActiveSessions(userId);
+                existing.setStatus(GameSessionStatus.ACTIVE);
+                existing.setCompletedAt(null);
+                existing = gameSessionRepository.save(existing);
+            }
+            return mapToDTO(existing);
+        }
+
+        abandonActiveSessions(userId);
+
+        // Everyone plays at the same difficulty so the leaderboard compares like with like
+        GameSession gameSession = new GameSession();
+        gameSession.setUser(user);
+        gameSession.setStartingCapital(startingCapital);
+        gameSession.setCurrentCapital(startingCapital);
+        gameSession.setCurrentRound(1);
+        gameSession.setStatus(GameSessionStatus.ACTIVE);
+        gameSession.setDifficultyLevel(DifficultyLevel.MEDIUM);
+        gameSession.setGameMode(GameMode.DAILY_CHALLENGE);
+        gameSession.setChallengeDate(today);
+
+        try {
+            // Flushed here, so a concurrent start for the same day fails on uk_game_sessions_daily instead of at commit
+            gameSession = gameSessionRepository.saveAndFlush(gameSession);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Today's daily challenge is already being started", e);
+        }
+
+        return mapToDTO(gameSession);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailyLeaderboardEntryDTO> getDailyLeaderboard(LocalDate date, int limit) {
+        List<GameSession> sessions = gameSessionRepository
+            .findByGameModeAndChallengeDateAndStatusOrderByCurrentCapitalDescCompletedAtAsc(
+                GameMode.DAILY_CHALLENGE, date, GameSessionStatus.COMPLETED, PageRequest.of(0, limit));
+
+        List<DailyLeaderboardEntryDTO> entries = new ArrayList<>(sessions.size());
+        for (GameSession session : sessions) {
+            BigDecimal percentage = BigDecimal.ZERO;
+            if (session.getStartingCapital().compareTo(BigDecimal.ZERO) > 0) {
+                percentage = session.getCurrentCapital().subtract(session.getStartingCapital())
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(session.getStartingCapital(), 2, RoundingMode.HALF_UP);
+            }
+            entries.add(new DailyLeaderboardEntryDTO(
+                entries.size() + 1,
+                session.getUser().getId(),
+                session.getUser().getUsername(),
+                session.getCurrentCapital(),
+                percentage,
+                session.getCompletedAt()
+            ));
+        }
+        return entries;
+    }
+
     @Override
     @Transactional
     @SuppressWarnings("null")
@@ -121,9 +218,10 @@ public class GameServiceImpl implements GameService {
         Round round = new Round();
         round.setGameSession(gameSession);
         round.setRoundNumber(gameSession.getCurrentRound());
-        round.setCapitalAtStart(gameSession.getCurrentCapital());
+        round.setCapitalAtStart(currentCapital(gameSession));
         round.setStatus(RoundStatus.ACTIVE);
         round = roundRepository.save(round);
+        sessionEventService.roundStarted(sessionId, round.getRoundNumber(), Money.ofBigDecimal(round.getCapitalAtStart()));
 
         // Get difficulty-specific round duration
         int roundDuration = getRoundDuration(gameSession.getDifficultyLevel());
@@ -132,7 +230,7 @@ public class GameServiceImpl implements GameService {
         dto.setRoundId(round.getId());
         dto.setGameSessionId(sessionId);
         dto.setRoundNumber(round.getRoundNumber());
-        dto.setCapital(gameSession.getCurrentCapital());
+        dto.setCapital(round.getCapitalAtStart());
         dto.setDurationSeconds(roundDuration);
         dto.setAvailableStocks(stocks);
         dto.setStartTime(System.currentTimeMillis());
@@ -144,6 +242,10 @@ public class GameServiceImpl implements GameService {
     @Transactional
     @SuppressWarnings("null")
     public RoundResultDTO completeRound(UUID sessionId, Integer roundNumber) {
+        // Flush the session's trades first and refuse new ones until this commits: the capital written below
+        // must not be overwritten by the ledger
+        tradeLedger.holdUntilCompletion(sessionId);
+
         GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
             .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
 
@@ -151,8 +253,9 @@ public class GameServiceImpl implements GameService {
             .findByGameSessionIdAndRoundNumber(sessionId, roundNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Round", "roundNumber", roundNumber));
 
-        // Reveal true values
+        // Reveal true values; the round's stocks stop trading, so its open conditional orders expire
         List<StockDTO> revealedStocks = marketService.revealTrueValues(sessionId, roundNumber);
+        conditionalOrderService.expireOrders(sessionId);
 
         // Calculate final portfolio value using TradingService
         com.scu.uob.dsa.cardiac_trader_backend.dto.PortfolioDTO portfolio = tradingService.getPortfolio(sessionId);
@@ -181,6 +284,7 @@ public class GameServiceImpl implements GameService {
             gameSession.setCurrentRound(roundNumber + 1);
         }
         gameSessionRepository.save(gameSession);
+        sessionEventService.pricesRevealed(sessionId, roundNumber, Money.ofBigDecimal(capitalAtEnd));
 
         // Check for tool unlocks based on difficulty
         List<String> unlockedTools = new java.util.ArrayList<>();
@@ -251,9 +355,11 @@ public class GameServiceImpl implements GameService {
         dto.setUserId(gameSession.getUser().getId());
         dto.setCurrentRound(gameSession.getCurrentRound());
         dto.setStartingCapital(gameSession.getStartingCapital());
-        dto.setCurrentCapital(gameSession.getCurrentCapital());
+        dto.setCurrentCapital(currentCapital(gameSession));
         dto.setStatus(gameSession.getStatus());
         dto.setDifficultyLevel(gameSession.getDifficultyLevel());
+        dto.setGameMode(gameSession.getGameMode() != null ? gameSession.getGameMode() : GameMode.STANDARD);
+        dto.setChallengeDate(gameSession.getChallengeDate());
         
         // Check if there's an active round
         boolean hasActiveRound = roundRepository.findByGameSessionId(gameSession.getId())
@@ -264,6 +370,14 @@ public class GameServiceImpl implements GameService {
         return dto;
     }
     
+    /**
+     * Cash of a session: the trade ledger's while it is trading, which the database may not have yet
+     */
+    private BigDecimal currentCapital(GameSession gameSession) {
+        OptionalLong cashCents = tradeLedger.cashCents(gameSession.getId());
+        return cashCents.isPresent() ? Money.toBigDecimal(cashCents.getAsLong()) : gameSession.getCurrentCapital();
+    }
+
     /**
      * Get round duration based on difficulty level
      */
@@ -1,56 +1,117 @@
 package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
 
+import com.scu.uob.dsa.cardiac_trader_backend.cache.DailyChallengeCache;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarket;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarketCache;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.SessionLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.StockCatalog;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.StockDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.DifficultyLevel;
-import com.scu.uob.dsa.cardiac_trader_backend.enums.StockSector;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.GameMode;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
 import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
-import com.scu.uob.dsa.cardiac_trader_backend.model.Holding;
+import com.scu.uob.dsa.cardiac_trader_backend.model.MarketSnapshot;
 import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.HoldingRepository;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.MarketSnapshotRepository;
 import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.MarketService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleArchive;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzleImageStore;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzlePoolService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 public class MarketServiceImpl implements MarketService {
 
-    private final StockRepository stockRepository;
+    private static final Logger logger = LoggerFactory.getLogger(MarketServiceImpl.class);
+
+    private final StockCatalog stockCatalog;
     private final GameSessionRepository gameSessionRepository;
-    private final HoldingRepository holdingRepository;
-    private final HeartAPIService heartAPIService;
+    private final MarketSnapshotRepository marketSnapshotRepository;
+    private final PuzzlePoolService puzzlePoolService;
+    private final PuzzleImageStore puzzleImageStore;
+    private final PuzzleArchive puzzleArchive;
+    private final RoundMarketCache roundMarketCache;
+    private final DailyChallengeCache dailyChallengeCache;
+    private final SessionLedger sessionLedger;
+    private final TradeLedger tradeLedger;
+    private final MarketTickEngine marketTickEngine;
+    private final MarketStreamService marketStreamService;
+    private final ExecutorService puzzleFetchExecutor;
 
     @Value("${game.stock.count:5}")
     private Integer stockCount;
 
-    // Pre-defined stock symbols from the concept
-    private static final String[][] STOCK_DATA = {
-        {"HTCH", "Heart-Tech Inc", "TECH"},
-        {"CRDC", "Cardiac Systems", "MEDICAL"},
-        {"PLSE", "Pulse Dynamics", "TECH"},
-        {"BEAT", "HeartBeat Finance", "FINANCE"},
-        {"RYTM", "Rhythm Corp", "MEDICAL"}
-    };
+    @Value("${heart.api.round-deadline-ms:6000}")
+    private long roundFetchDeadlineMs;
+
+    // Prefix of puzzle image URLs sent to clients (point it at a CDN in front of /api/puzzles/)
+    @Value("${puzzle.image.base-url:/api/puzzles/}")
+    private String puzzleImageBaseUrl;
 
     public MarketServiceImpl(
-            StockRepository stockRepository,
+            StockCatalog stockCatalog,
             GameSessionRepository gameSessionRepository,
-            HoldingRepository holdingRepository,
-            HeartAPIService heartAPIService) {
-        this.stockRepository = stockRepository;
+            MarketSnapshotRepository marketSnapshotRepository,
+            PuzzlePoolService puzzlePoolService,
+            PuzzleImageStore puzzleImageStore,
+            PuzzleArchive puzzleArchive,
+            RoundMarketCache roundMarketCache,
+            DailyChallengeCache dailyChallengeCache,
+            SessionLedger sessionLedger,
+            TradeLedger tradeLedger,
+            MarketTickEngine marketTickEngine,
+            MarketStreamService marketStreamService,
+            @Qualifier("puzzleFetchExecutor") ExecutorService puzzleFetchExecutor) {
+        this.stockCatalog = stockCatalog;
         this.gameSessionRepository = gameSessionRepository;
-        this.holdingRepository = holdingRepository;
-        this.heartAPIService = heartAPIService;
+        this.marketSnapshotRepository = marketSnapshotRepository;
+        this.puzzlePoolService = puzzlePoolService;
+        this.puzzleImageStore = puzzleImageStore;
+        this.puzzleArchive = puzzleArchive;
+        this.roundMarketCache = roundMarketCache;
+        this.dailyChallengeCache = dailyChallengeCache;
+        this.sessionLedger = sessionLedger;
+        this.tradeLedger = tradeLedger;
+        this.marketTickEngine = marketTickEngine;
+        this.marketStreamService = marketStreamService;
+        this.puzzleFetchExecutor = puzzleFetchExecutor;
+    }
+
+    /**
+     * Every round's stocks must fit the tick engine's per-session slots
+     */
+    @PostConstruct
+    void validateStockCount() {
+        if (stockCount < 1 || stockCount > marketTickEngine.getStocksPerSession()) {
+            throw new IllegalStateException("game.stock.count must be between 1 and market.tick.stocks-per-session ("
+                + marketTickEngine.getStocksPerSession() + ")");
+        }
     }
 
     @Override
@@ -67,149 +128,419 @@ public class MarketServiceImpl implements MarketService {
         }
 
         List<StockDTO> stockDTOs = new ArrayList<>();
-        Random random = new Random();
-        
+
         // Get variance multiplier based on difficulty
         double varianceMultiplier = getVarianceMultiplier(difficulty);
 
-        // Use pre-defined stocks or create new ones
-        for (int i = 0; i < Math.min(stockCount, STOCK_DATA.length); i++) {
-            String[] stockInfo = STOCK_DATA[i];
-            String symbol = stockInfo[0];
-            
-            // Find or create stock
-            Stock stock = stockRepository.findBySymbol(symbol).orElse(null);
-            
-            if (stock == null) {
-                stock = new Stock();
-                stock.setSymbol(symbol);
-                stock.setCompanyName(stockInfo[1]);
-                stock.setSector(StockSector.valueOf(stockInfo[2]));
-                stock = stockRepository.save(stock);
+        // Replace any snapshots left over from an earlier start of the same round
+        Integer roundNumber = gameSession.getCurrentRound();
+        marketSnapshotRepository.deleteRound(sessionId, roundNumber);
+
+        List<MarketSnapshot> snapshots = gameSession.getGameMode() == GameMode.DAILY_CHALLENGE
+            ? dailySnapshots(gameSession, roundNumber)
+            : freshSnapshots(gameSession, roundNumber, varianceMultiplier);
+
+        // One batched insert for the whole round (JDBC batching via hibernate.jdbc.batch_size)
+        snapshots = marketSnapshotRepository.saveAll(snapshots);
+        RoundMarket market = toRoundMarket(sessionId, roundNumber, false, snapshots);
+        List<MarketSnapshot> tickedSnapshots = snapshots;
+        AfterCommit.run(() -> {
+            roundMarketCache.put(market);
+            startTicking(sessionId, varianceMultiplier, tickedSnapshots);
+        });
+
+        // Get all of the user's positions at once
+        Map<UUID, SessionLedger.Position> positions = sessionLedger.positions(sessionId, this::loadPositions);
+        for (MarketSnapshot snapshot : snapshots) {
+            StockDTO dto = mapToDTO(snapshot, positions.get(snapshot.getStock().getId()));
+            stockDTOs.add(dto);
+        }
+
+        return stockDTOs;
+    }
+
+    /**
+     * A round of its own: sample the stocks, fetch their puzzles and draw the opening prices
+     */
+    private List<MarketSnapshot> freshSnapshots(GameSession gameSession, Integer roundNumber, double varianceMultiplier) {
+        Random random = new Random();
+
+        // Sample this round's stocks from the in-memory catalog (no per-symbol queries)
+        List<Stock> stocks = stockCatalog.sample(stockCount);
+
+        // Fetch all of the round's heart puzzles at once (null = failed or missed the deadline)
+        List<HeartAPIService.HeartPuzzle> puzzles = fetchPuzzlesForRound(stocks);
+
+        List<MarketSnapshot> snapshots = new ArrayList<>(stocks.size());
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock stock = stocks.get(i);
+            HeartAPIService.HeartPuzzle puzzle = resolvePuzzle(puzzles.get(i), stock);
+
+            MarketSnapshot snapshot = new MarketSnapshot();
+            snapshot.setGameSession(gameSession);
+            snapshot.setRoundNumber(roundNumber);
+            snapshot.setStock(stock);
+
+            if (puzzle != null && puzzle.getCorrectAnswer() != null) {
+                snapshot.setHeartImageHash(storeImage(puzzle));
+                snapshot.setActualHeartCount(puzzle.getCorrectAnswer());
+            } else {
+                // If API fails and the archive is empty, use random heart count for demo
+                // No puzzle image if API fails
+                snapshot.setActualHeartCount(random.nextInt(10) + 1); // 1-10 hearts
+            }
+
+            // Calculate base price
+            long basePriceCents = stock.calculateTruePriceCents(snapshot.getActualHeartCount());
+            snapshot.setBasePrice(Money.toBigDecimal(basePriceCents));
+
+            // Set market price with variance based on difficulty (never below one cent)
+            snapshot.setMarketPrice(Money.toBigDecimal(openingPriceCents(basePriceCents, random, varianceMultiplier)));
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    /**
+     * The day's shared round: every challenger gets the same stocks, puzzles and opening prices.
+     * Only the first challenger of the round (cluster-wide) pays for the puzzle fetches.
+     */
+    private List<MarketSnapshot> dailySnapshots(GameSession gameSession, Integer roundNumber) {
+        LocalDate date = gameSession.getChallengeDate();
+        DailyChallengeCache.DailyRound round = dailyChallengeCache.get(date, roundNumber,
+            () -> buildDailyRound(date, roundNumber));
+
+        List<MarketSnapshot> snapshots = new ArrayList<>(round.size());
+        for (int i = 0; i < round.size(); i++) {
+            int index = stockCatalog.indexOf(round.stockId(i));
+            if (index < 0) {
+                // Stock dropped from the catalog since the round was built; the other stocks still play
+                logger.warn("Daily challenge {} round {} stock {} is no longer listed", date, roundNumber, round.stockId(i));
+                continue;
             }
+            MarketSnapshot snapshot = new MarketSnapshot();
+            snapshot.setGameSession(gameSession);
+            snapshot.setRoundNumber(roundNumber);
+            snapshot.setStock(stockCatalog.get(index));
+            snapshot.setHeartImageHash(round.imageHash(i));
+            snapshot.setActualHeartCount(round.heartCount(i));
+            snapshot.setBasePrice(Money.toBigDecimal(round.basePriceCents(i)));
+            snapshot.setMarketPrice(Money.toBigDecimal(round.marketPriceCents(i)));
+            snapshots.add(snapshot);
+        }
+        return snapshots;
+    }
+
+    private DailyChallengeCache.DailyRound buildDailyRound(LocalDate date, int roundNumber) {
+        // Seeded by the day, so a rebuild after losing the stored round picks the same stocks and prices
+        Random random = dailyChallengeCache.random(date, roundNumber);
+        double varianceMultiplier = getVarianceMultiplier(DifficultyLevel.MEDIUM);
+        List<Stock> stocks = stockCatalog.sample(stockCount, random);
+        List<HeartAPIService.HeartPuzzle> puzzles = fetchPuzzlesForRound(stocks);
+
+        int size = stocks.size();
+        UUID[] stockIds = new UUID[size];
+        byte[] heartCounts = new byte[size];
+        long[] basePriceCents = new long[size];
+        long[] marketPriceCents = new long[size];
+        String[] imageHashes = new String[size];
+        for (int i = 0; i < size; i++) {
+            Stock stock = stocks.get(i);
+            HeartAPIService.HeartPuzzle puzzle = resolvePuzzle(puzzles.get(i), stock);
+            // Draw the fallback count either way so later stocks' prices don't depend on API outcomes
+            int fallbackHearts = random.nextInt(10) + 1;
+            int hearts = fallbackHearts;
+            if (puzzle != null && puzzle.getCorrectAnswer() != null) {
+                imageHashes[i] = storeImage(puzzle);
+                hearts = puzzle.getCorrectAnswer();
+            }
+            stockIds[i] = stock.getId();
+            heartCounts[i] = (byte) hearts;
+            basePriceCents[i] = stock.calculateTruePriceCents(hearts);
+            marketPriceCents[i] = openingPriceCents(basePriceCents[i], random, varianceMultiplier);
+        }
+        return new DailyChallengeCache.DailyRound(stockIds, heartCounts, basePriceCents, marketPriceCents, imageHashes);
+    }
+
+    /**
+     * The fetched puzzle, or if the fetch failed a real archived puzzle (null if the archive is empty too)
+     */
+    private HeartAPIService.HeartPuzzle resolvePuzzle(HeartAPIService.HeartPuzzle puzzle, Stock stock) {
+        if (puzzle != null) {
+            archivePuzzle(puzzle);
+            return puzzle;
+        }
+        // API down or too slow: replay a real archived puzzle before giving up on an image
+        puzzle = puzzleArchive.randomPuzzle()
+            .map(PuzzleArchive.ArchivedPuzzle::getPuzzle)
+            .orElse(null);
+        if (puzzle != null) {
+            logger.info("Replaying archived heart puzzle {} for stock {}", puzzle.getPuzzleId(), stock.getSymbol());
+        }
+        return puzzle;
+    }
+
+    /**
+     * Opening market price: the true price off by a normal variance (never below one cent)
+     */
+    private long openingPriceCents(long basePriceCents, Random random, double varianceMultiplier) {
+        double variance = (random.nextGaussian() * varianceMultiplier);
+        return Math.max(1, Money.ofDouble(Money.toDouble(basePriceCents) * (1 + variance)));
+    }
 
-            // Fetch heart puzzle from API
+    /**
+     * Fetch one puzzle per stock concurrently, bounded by the per-round deadline.
+     * Round start then costs roughly one API latency instead of one per stock.
+     * Fetches never run on the calling thread: one the executor cannot take counts as missed, one still
+     * queued at the deadline is skipped, and one still running is interrupted.
+     * @return puzzles in stock order, with null for any stock whose fetch failed or timed out
+     */
+    private List<HeartAPIService.HeartPuzzle> fetchPuzzlesForRound(List<Stock> stocks) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(roundFetchDeadlineMs);
+
+        List<Future<HeartAPIService.HeartPuzzle>> futures = new ArrayList<>(stocks.size());
+        for (int i = 0; i < stocks.size(); i++) {
             try {
-                HeartAPIService.HeartPuzzle puzzle = heartAPIService.fetchPuzzle();
-                stock.setHeartImageUrl(puzzle.getImageUrl());
-                stock.setActualHeartCount(puzzle.getCorrectAnswer());
-                
-                // Calculate base price
-                BigDecimal basePrice = stock.calculateTruePrice();
-                stock.setBasePrice(basePrice);
-                
-                // Set market price with variance based on difficulty
-                double variance = (random.nextGaussian() * varianceMultiplier);
-                BigDecimal marketPrice = basePrice.multiply(BigDecimal.valueOf(1 + variance))
-                    .setScale(2, RoundingMode.HALF_UP);
-                stock.setMarketPrice(marketPrice);
-                
-                stock = stockRepository.save(stock);
-            } catch (Exception e) {
-                // Log the error for debugging
-                System.err.println("Error fetching heart puzzle for stock " + symbol + ": " + e.getMessage());
-                e.printStackTrace();
-                
-                // If API fails, use random heart count for demo
-                int randomHeartCount = random.nextInt(10) + 1; // 1-10 hearts
-                stock.setActualHeartCount(randomHeartCount);
-                stock.setBasePrice(stock.calculateTruePrice());
-                
-                double variance = (random.nextGaussian() * varianceMultiplier);
-                BigDecimal marketPrice = stock.getBasePrice()
-                    .multiply(BigDecimal.valueOf(1 + variance))
-                    .setScale(2, RoundingMode.HALF_UP);
-                stock.setMarketPrice(marketPrice);
-                
-                // Set empty heart image URL if API fails (don't set null to avoid database issues)
-                stock.setHeartImageUrl("");
-                stock = stockRepository.save(stock);
+                futures.add(puzzleFetchExecutor.submit(() -> takePuzzleBefore(deadline)));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
             }
+        }
 
-            // Get user's holdings for this stock
-            Holding holding = holdingRepository
-                .findByGameSessionIdAndStockId(sessionId, stock.getId())
-                .orElse(null);
+        List<HeartAPIService.HeartPuzzle> puzzles = new ArrayList<>(stocks.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Future<HeartAPIService.HeartPuzzle> future = futures.get(i);
+            String symbol = stocks.get(i).getSymbol();
+            if (future == null) {
+                logger.warn("Heart puzzle fetch for stock {} rejected: fetch executor is saturated", symbol);
+                puzzles.add(null);
+                continue;
+            }
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                puzzles.add(future.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // FutureTask.cancel interrupts the worker, which abandons the API call
+                future.cancel(true);
+                logger.warn("Heart puzzle for stock {} missed the {} ms round deadline", symbol, roundFetchDeadlineMs);
+                puzzles.add(null);
+            } catch (ExecutionException e) {
+                logger.warn("Error fetching heart puzzle for stock {}: {}", symbol, e.getCause().getMessage());
+                puzzles.add(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                puzzles.add(null);
+            }
+        }
+        return puzzles;
+    }
 
-            StockDTO dto = mapToDTO(stock, holding);
-            stockDTOs.add(dto);
+    /**
+     * Take a puzzle unless the round deadline passed while the fetch was queued
+     */
+    private HeartAPIService.HeartPuzzle takePuzzleBefore(long deadline) {
+        if (deadline - System.nanoTime() <= 0) {
+            return null;
         }
+        return puzzlePoolService.takePuzzle();
+    }
 
-        return stockDTOs;
+    /**
+     * Keep a freshly fetched puzzle for replay during later outages
+     */
+    private void archivePuzzle(HeartAPIService.HeartPuzzle puzzle) {
+        try {
+            puzzleArchive.append(puzzle);
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            logger.warn("Could not archive heart puzzle {}: {}", puzzle.getPuzzleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Put the puzzle image into the content-addressed store
+     * @return image hash, or null if the puzzle has no image or it could not be stored
+     */
+    private String storeImage(HeartAPIService.HeartPuzzle puzzle) {
+        byte[] imageData = puzzle.getImageData();
+        if (imageData == null || imageData.length == 0) {
+            return null;
+        }
+        try {
+            return puzzleImageStore.store(imageData);
+        } catch (UncheckedIOException e) {
+            logger.error("Could not store puzzle image: {}", e.getMessage());
+            return null;
+        }
     }
 
     @Override
     @SuppressWarnings("null")
     public List<StockDTO> getAvailableStocks(UUID sessionId) {
-        // Verify session exists
-        gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
+        // Repeat polls are answered from the cached round market and in-memory ledger
+        RoundMarket market = roundMarketCache.get(sessionId).orElse(null);
+        if (market == null) {
+            // Verify session exists
+            GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
+                .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
 
-        // Get all stocks (could be filtered by active stocks for current round)
-        List<Stock> stocks = stockRepository.findAll();
-        
-        // If no stocks exist, initialize them (stocks should be created when round starts,
-        // but this handles edge cases where stocks might be missing)
-        if (stocks.isEmpty()) {
-            // Return empty list - stocks will be created when round starts
+            // Stocks of the session's latest round (snapshots are created when a round starts)
+            List<MarketSnapshot> snapshots = findLatestSnapshots(sessionId);
+
+            // If no round has started yet there is nothing to trade
             // Don't auto-initialize here to preserve the design where each round gets fresh puzzles
-            return new ArrayList<>();
+            if (snapshots.isEmpty()) {
+                return new ArrayList<>();
+            }
+            MarketSnapshot first = snapshots.get(0);
+            market = roundMarketCache.putIfAbsent(
+                toRoundMarket(sessionId, first.getRoundNumber(), first.isRevealed(), snapshots));
+
+            // Resume ticking an open round the engine dropped (restart or idle expiry)
+            if (!first.isRevealed() && !marketTickEngine.isTracked(sessionId)) {
+                startTicking(sessionId, getVarianceMultiplier(gameSession.getDifficultyLevel()), snapshots);
+            }
         }
-        
-        return stocks.stream()
-            .map(stock -> {
-                Holding holding = holdingRepository
-                    .findByGameSessionIdAndStockId(sessionId, stock.getId())
-                    .orElse(null);
-                return mapToDTO(stock, holding);
-            })
-            .collect(Collectors.toList());
+
+        Map<UUID, SessionLedger.Position> positions = sessionLedger.positions(sessionId, this::loadPositions);
+        List<StockDTO> stockDTOs = new ArrayList<>(market.getQuotes().size());
+        for (RoundMarket.Quote quote : market.getQuotes()) {
+            stockDTOs.add(mapToDTO(sessionId, quote, positions.get(quote.getStockId())));
+        }
+        return stockDTOs;
     }
 
     @Override
+    @Transactional
     public void updateMarketPrices(UUID sessionId) {
-        // Could implement price fluctuations here
-        // For now, prices are set when stocks are initialized
+        // Prices move on every engine tick; this persists the current live prices of the open round
+        List<MarketSnapshot> snapshots = findLatestSnapshots(sessionId);
+        for (MarketSnapshot snapshot : snapshots) {
+            if (!snapshot.isRevealed()) {
+                snapshot.setMarketPrice(marketTickEngine.currentPrice(
+                    sessionId, snapshot.getStock().getId(), snapshot.getMarketPrice()));
+            }
+        }
     }
 
     @Override
+    @Transactional
     public List<StockDTO> revealTrueValues(UUID sessionId, Integer roundNumber) {
-        // Get all stocks and reveal their true prices
-        List<Stock> stocks = stockRepository.findAll();
+        // Reveal the true prices of this session's stocks for the round
+        List<MarketSnapshot> snapshots = marketSnapshotRepository
+            .findByGameSessionIdAndRoundNumber(sessionId, roundNumber);
+        for (MarketSnapshot snapshot : snapshots) {
+            // Market price should now equal true price (flushed with the transaction)
+            snapshot.setMarketPrice(snapshot.getBasePrice());
+            snapshot.setRevealed(true);
+        }
+
+        // Replace the cached market with the revealed one once the prices are committed
+        if (!snapshots.isEmpty()) {
+            RoundMarket market = toRoundMarket(sessionId, roundNumber, true, snapshots);
+            AfterCommit.run(() -> {
+                marketTickEngine.unregister(sessionId);
+                roundMarketCache.put(market);
+            });
+        }
         
-        return stocks.stream()
-            .map(stock -> {
-                // Market price should now equal true price
-                if (stock.getActualHeartCount() != null) {
-                    stock.setMarketPrice(stock.calculateTruePrice());
-                    stock = stockRepository.save(stock);
-                }
-                
-                Holding holding = holdingRepository
-                    .findByGameSessionIdAndStockId(sessionId, stock.getId())
-                    .orElse(null);
-                return mapToDTO(stock, holding);
-            })
+        Map<UUID, SessionLedger.Position> positions = sessionLedger.positions(sessionId, this::loadPositions);
+        List<StockDTO> revealedStocks = snapshots.stream()
+            .map(snapshot -> mapToDTO(snapshot, positions.get(snapshot.getStock().getId())))
             .collect(Collectors.toList());
+        AfterCommit.run(() -> marketStreamService.publishReveal(sessionId, revealedStocks));
+        return revealedStocks;
+    }
+
+    private List<MarketSnapshot> findLatestSnapshots(UUID sessionId) {
+        return marketSnapshotRepository.findLatestRoundNumber(sessionId)
+            .map(round -> marketSnapshotRepository.findByGameSessionIdAndRoundNumber(sessionId, round))
+            .orElseGet(ArrayList::new);
+    }
+
+    /**
+     * Hand the round's prices to the tick engine, which moves them toward the hidden true prices
+     */
+    private void startTicking(UUID sessionId, double varianceMultiplier, List<MarketSnapshot> snapshots) {
+        int size = snapshots.size();
+        UUID[] stockIds = new UUID[size];
+        double[] truePrices = new double[size];
+        double[] marketPrices = new double[size];
+        for (int i = 0; i < size; i++) {
+            MarketSnapshot snapshot = snapshots.get(i);
+            stockIds[i] = snapshot.getStock().getId();
+            truePrices[i] = snapshot.getBasePrice().doubleValue();
+            marketPrices[i] = snapshot.getMarketPrice().doubleValue();
+        }
+        marketTickEngine.register(sessionId, varianceMultiplier, stockIds, truePrices, marketPrices);
+    }
+
+    private Map<UUID, SessionLedger.Position> loadPositions(UUID sessionId) {
+        // From the trade ledger, whose positions may not be in the database yet
+        Map<UUID, SessionLedger.Position> positions = new HashMap<>();
+        for (TradeLedger.Position position : tradeLedger.view(sessionId).positions()) {
+            positions.put(position.stock().getId(), new SessionLedger.Position(
+                position.shares(), Money.toBigDecimal(position.averagePriceCents())));
+        }
+        return positions;
+    }
+
+    private RoundMarket toRoundMarket(UUID sessionId, int roundNumber, boolean revealed, List<MarketSnapshot> snapshots) {
+        List<RoundMarket.Quote> quotes = new ArrayList<>(snapshots.size());
+        for (MarketSnapshot snapshot : snapshots) {
+            Stock stock = snapshot.getStock();
+            quotes.add(new RoundMarket.Quote(stock.getId(), stock.getSymbol(), stock.getCompanyName(),
+                stock.getSector(), heartImageUrl(snapshot), snapshot.getMarketPrice()));
+        }
+        return new RoundMarket(sessionId, roundNumber, revealed, quotes);
+    }
+
+    private String heartImageUrl(MarketSnapshot snapshot) {
+        return snapshot.getHeartImageHash() != null ? puzzleImageBaseUrl + snapshot.getHeartImageHash() : "";
+    }
+
+    private StockDTO mapToDTO(UUID sessionId, RoundMarket.Quote quote, SessionLedger.Position position) {
+        // Live price while the round is ticking, otherwise the cached (opening or revealed) price
+        BigDecimal marketPrice = marketTickEngine.currentPrice(sessionId, quote.getStockId(), quote.getMarketPrice());
+        StockDTO dto = new StockDTO();
+        dto.setId(quote.getStockId());
+        dto.setSymbol(quote.getSymbol());
+        dto.setCompanyName(quote.getCompanyName());
+        dto.setSector(quote.getSector());
+        dto.setHeartImageUrl(quote.getHeartImageUrl());
+        dto.setMarketPrice(marketPrice);
+
+        if (position != null) {
+            dto.setSharesOwned(position.getShares());
+            dto.setAveragePrice(position.getAveragePrice());
+            dto.setTotalValue(marketPrice != null ?
+                Money.toBigDecimal(Money.times(Money.ofBigDecimal(marketPrice), position.getShares())) :
+                BigDecimal.ZERO);
+        } else {
+            dto.setSharesOwned(0);
+            dto.setTotalValue(BigDecimal.ZERO);
+        }
+        return dto;
     }
 
-    private StockDTO mapToDTO(Stock stock, Holding holding) {
+    private StockDTO mapToDTO(MarketSnapshot snapshot, SessionLedger.Position position) {
+        Stock stock = snapshot.getStock();
         StockDTO dto = new StockDTO();
         dto.setId(stock.getId());
         dto.setSymbol(stock.getSymbol());
         dto.setCompanyName(stock.getCompanyName());
         dto.setSector(stock.getSector());
-        dto.setHeartImageUrl(stock.getHeartImageUrl());
+        dto.setHeartImageUrl(heartImageUrl(snapshot));
         
         // Show market price (hide true price during round)
-        dto.setMarketPrice(stock.getMarketPrice());
+        dto.setMarketPrice(snapshot.getMarketPrice());
         
         // Include holdings info if user owns shares
-        if (holding != null) {
-            dto.setSharesOwned(holding.getShares());
-            dto.setAveragePrice(holding.getAveragePrice());
+        if (position != null) {
+            dto.setSharesOwned(position.getShares());
+            dto.setAveragePrice(position.getAveragePrice());
             dto.setTotalValue(dto.getMarketPrice() != null ?
-                dto.getMarketPrice().multiply(BigDecimal.valueOf(holding.getShares())) :
+                Money.toBigDecimal(Money.times(Money.ofBigDecimal(dto.getMarketPrice()), position.getShares())) :
                 BigDecimal.ZERO);
         } else {
             dto.setSharesOwned(0);
@@ -0,0 +1,324 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarket;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarketCache;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.DeltaFrameDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.PositionFrameDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SnapshotFrameDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.StockDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.ToolUnlockDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.StreamFormat;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TooManyConnectionsException;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.MarketFrameCodec;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Server-sent event streams of market events, one multicast channel per game session.
+ * - Prices go out as a full snapshot (on connect, on a new round and every
+ *   market.stream.snapshot-interval-ticks) and otherwise as deltas holding only the prices that
+ *   changed, keyed by the stock's index in the snapshot. Every frame carries the channel's sequence
+ *   number (also the SSE id); a client that sees a gap waits for the next snapshot or reconnects.
+ * - Every subscriber gets its own bounded buffer; when a slow client falls behind, its oldest
+ *   frames are dropped and other clients are unaffected.
+ * - The number of open streams per node is capped by market.stream.max-connections.
+ */
+@Service
+public class MarketStreamServiceImpl implements MarketStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketStreamServiceImpl.class);
+
+    static final String EVENT_SNAPSHOT = "snapshot";
+    static final String EVENT_DELTA = "delta";
+    static final String EVENT_POSITION = "position";
+    static final String EVENT_REVEAL = "reveal";
+    static final String EVENT_TOOL_UNLOCK = "tool-unlock";
+
+    private final GameSessionRepository gameSessionRepository;
+    private final RoundMarketCache roundMarketCache;
+    private final MarketTickEngine marketTickEngine;
+
+    @Value("${market.stream.max-connections:2000}")
+    private int maxConnections;
+
+    @Value("${market.stream.buffer-size:16}")
+    private int bufferSize;
+
+    @Value("${market.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${market.stream.snapshot-interval-ticks:30}")
+    private int snapshotIntervalTicks;
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private final LongAdder publishedFrames = new LongAdder();
+    private final LongAdder snapshotFrames = new LongAdder();
+    private final LongAdder deltaFrames = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+
+    public MarketStreamServiceImpl(
+            GameSessionRepository gameSessionRepository,
+            RoundMarketCache roundMarketCache,
+            MarketTickEngine marketTickEngine) {
+        this.gameSessionRepository = gameSessionRepository;
+        this.roundMarketCache = roundMarketCache;
+        this.marketTickEngine = marketTickEngine;
+    }
+
+    @PostConstruct
+    void init() {
+        marketTickEngine.addTickListener(this::publishPrices);
+        logger.info("Market streams enabled: max {} connections, {} frames buffered per client, snapshot every {} ticks",
+            maxConnections, bufferSize, snapshotIntervalTicks);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<Object>> subscribe(UUID sessionId, StreamFormat format) {
+        if (!gameSessionRepository.existsById(sessionId)) {
+            throw new ResourceNotFoundException("GameSession", "id", sessionId);
+        }
+        // Counted here rather than on subscription so the limit is enforced before the response starts
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            rejectedConnections.increment();
+            throw new TooManyConnectionsException(maxConnections);
+        }
+        Channel channel = channels.compute(sessionId, (id, existing) -> {
+            Channel c = existing != null ? existing : new Channel();
+            c.subscribers++;
+            return c;
+        });
+
+        Flux<ServerSentEvent<Object>> frames = Flux.<Frame>create(emitter -> connect(sessionId, channel, emitter))
+            .onBackpressureBuffer(bufferSize, dropped -> droppedFrames.increment(), BufferOverflowStrategy.DROP_OLDEST)
+            .map(frame -> toEvent(frame, format));
+        Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(Duration.ofSeconds(heartbeatSeconds))
+            .map(i -> ServerSentEvent.builder().comment("keep-alive").build())
+            .onBackpressureDrop();
+
+        return Flux.merge(frames, heartbeat)
+            .doFinally(signal -> release(sessionId));
+    }
+
+    @Override
+    public void publishReveal(UUID sessionId, List<StockDTO> revealedStocks) {
+        emit(sessionId, channel -> new Frame(EVENT_REVEAL, ++channel.seq, revealedStocks));
+    }
+
+    @Override
+    public void publishToolUnlock(UUID sessionId, ToolType toolType, Integer roundNumber, Integer usesRemaining) {
+        emit(sessionId, channel -> new Frame(EVENT_TOOL_UNLOCK, ++channel.seq,
+            new ToolUnlockDTO(toolType, roundNumber, usesRemaining)));
+    }
+
+    @Override
+    public void publishPosition(UUID sessionId, UUID stockId, int shares, BigDecimal averagePrice, BigDecimal cash) {
+        emit(sessionId, channel -> {
+            int index = channel.indexOf(stockId);
+            if (index < 0) {
+                return null;
+            }
+            long seq = ++channel.seq;
+            return new Frame(EVENT_POSITION, seq, new PositionFrameDTO(seq, index, shares,
+                Money.ofBigDecimal(averagePrice), Money.ofBigDecimal(cash)));
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", connections.get());
+        stats.put("maxConnections", maxConnections);
+        stats.put("sessions", channels.size());
+        stats.put("rejectedConnections", rejectedConnections.sum());
+        stats.put("publishedFrames", publishedFrames.sum());
+        stats.put("snapshotFrames", snapshotFrames.sum());
+        stats.put("deltaFrames", deltaFrames.sum());
+        stats.put("droppedFrames", droppedFrames.sum());
+        return stats;
+    }
+
+    /**
+     * Tick listener: push a delta (or a due snapshot) to every session with an open stream
+     */
+    private void publishPrices() {
+        for (Map.Entry<UUID, Channel> entry : channels.entrySet()) {
+            RoundMarket market = roundMarketCache.get(entry.getKey()).orElse(null);
+            if (market == null || market.isRevealed()) {
+                continue;
+            }
+            emit(entry.getKey(), channel -> priceFrame(channel, market));
+        }
+    }
+
+    /**
+     * Next price frame of a channel; null if no price moved by a cent
+     */
+    private Frame priceFrame(Channel channel, RoundMarket market) {
+        if (channel.round != market.getRoundNumber() || channel.prices == null
+                || ++channel.ticksSinceSnapshot >= snapshotIntervalTicks) {
+            return snapshotFrame(channel, market, ++channel.seq);
+        }
+        List<RoundMarket.Quote> quotes = market.getQuotes();
+        long[][] changed = new long[quotes.size()][];
+        int count = 0;
+        for (int i = 0; i < quotes.size(); i++) {
+            long price = priceCents(market.getSessionId(), quotes.get(i));
+            if (price != channel.prices[i]) {
+                channel.prices[i] = price;
+                changed[count++] = new long[]{i, price};
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        long[][] prices = new long[count][];
+        System.arraycopy(changed, 0, prices, 0, count);
+        deltaFrames.increment();
+        long seq = ++channel.seq;
+        return new Frame(EVENT_DELTA, seq, new DeltaFrameDTO(seq, channel.round, prices));
+    }
+
+    /**
+     * Start a new subscriber with a snapshot of the channel's current state, then its live frames.
+     * Both happen under the channel's lock, which every emission holds, so no frame falls between them.
+     */
+    private void connect(UUID sessionId, Channel channel, FluxSink<Frame> emitter) {
+        RoundMarket market = roundMarketCache.get(sessionId).orElse(null);
+        synchronized (channel) {
+            if (market != null) {
+                if (channel.round != market.getRoundNumber() || channel.prices == null) {
+                    emitter.next(snapshotFrame(channel, market, ++channel.seq));
+                } else {
+                    emitter.next(new Frame(EVENT_SNAPSHOT, channel.seq, toSnapshot(channel, market, channel.seq)));
+                }
+            }
+            Disposable live = channel.sink.asFlux().subscribe(emitter::next, emitter::error, emitter::complete);
+            emitter.onDispose(live);
+        }
+    }
+
+    private Frame snapshotFrame(Channel channel, RoundMarket market, long seq) {
+        List<RoundMarket.Quote> quotes = market.getQuotes();
+        channel.round = market.getRoundNumber();
+        channel.stockIds = new UUID[quotes.size()];
+        channel.prices = new long[quotes.size()];
+        for (int i = 0; i < quotes.size(); i++) {
+            channel.stockIds[i] = quotes.get(i).getStockId();
+            channel.prices[i] = priceCents(market.getSessionId(), quotes.get(i));
+        }
+        channel.ticksSinceSnapshot = 0;
+        snapshotFrames.increment();
+        return new Frame(EVENT_SNAPSHOT, seq, toSnapshot(channel, market, seq));
+    }
+
+    private SnapshotFrameDTO toSnapshot(Channel channel, RoundMarket market, long seq) {
+        List<RoundMarket.Quote> quotes = market.getQuotes();
+        List<SnapshotFrameDTO.Entry> entries = new ArrayList<>(quotes.size());
+        for (int i = 0; i < quotes.size(); i++) {
+            RoundMarket.Quote quote = quotes.get(i);
+            entries.add(new SnapshotFrameDTO.Entry(i, quote.getStockId(), quote.getSymbol(), quote.getCompanyName(),
+                quote.getSector(), quote.getHeartImageUrl(), channel.prices[i]));
+        }
+        return new SnapshotFrameDTO(seq, market.getRoundNumber(), entries);
+    }
+
+    private long priceCents(UUID sessionId, RoundMarket.Quote quote) {
+        return marketTickEngine.currentPriceCents(sessionId, quote.getStockId(), Money.ofBigDecimal(quote.getMarketPrice()));
+    }
+
+    private void emit(UUID sessionId, Function<Channel, Frame> frameBuilder) {
+        Channel channel = channels.get(sessionId);
+        if (channel == null) {
+            return;
+        }
+        // Ticks, trades, reveals and unlocks come from different threads; the lock keeps sequence
+        // numbers in emission order and a sink accepts one emitter at a time
+        synchronized (channel) {
+            Frame frame = frameBuilder.apply(channel);
+            if (frame != null && channel.sink.tryEmitNext(frame).isSuccess()) {
+                publishedFrames.increment();
+            }
+        }
+    }
+
+    private void release(UUID sessionId) {
+        connections.decrementAndGet();
+        channels.computeIfPresent(sessionId, (id, channel) -> --channel.subscribers == 0 ? null : channel);
+    }
+
+    private static ServerSentEvent<Object> toEvent(Frame frame, StreamFormat format) {
+        Object data = frame.data;
+        if (format == StreamFormat.BINARY && !EVENT_REVEAL.equals(frame.event) && !EVENT_TOOL_UNLOCK.equals(frame.event)) {
+            data = MarketFrameCodec.encodeBase64(data);
+        }
+        return ServerSentEvent.builder(data).id(Long.toString(frame.seq)).event(frame.event).build();
+    }
+
+    private static final class Frame {
+        private final String event;
+        private final long seq;
+        private final Object data;
+
+        private Frame(String event, long seq, Object data) {
+            this.event = event;
+            this.seq = seq;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Per-session stream state; everything but the sink is guarded by the channel's monitor
+     */
+    private static final class Channel {
+        // Best effort: a subscriber without demand is skipped instead of failing the emission
+        private final Sinks.Many<Frame> sink = Sinks.many().multicast().directBestEffort();
+        // Guarded by the channels map's per-key lock
+        private int subscribers;
+        private long seq;
+        private int round = -1;
+        private UUID[] stockIds;
+        private long[] prices;
+        private int ticksSinceSnapshot;
+
+        private int indexOf(UUID stockId) {
+            if (stockIds != null) {
+                for (int i = 0; i < stockIds.length; i++) {
+                    if (stockIds[i].equals(stockId)) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+}
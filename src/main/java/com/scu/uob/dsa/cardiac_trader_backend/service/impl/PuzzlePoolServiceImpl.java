@@ -0,0 +1,165 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.PuzzlePoolService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ReactiveHeartAPIService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of heart puzzles kept filled by a background scheduler.
+ * Round start takes puzzles from memory and only calls the Heart API directly
+ * when the pool has run dry.
+ */
+@Service
+public class PuzzlePoolServiceImpl implements PuzzlePoolService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PuzzlePoolServiceImpl.class);
+
+    private final HeartAPIService heartAPIService;
+
+    @Value("${heart.pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${heart.pool.low-watermark:10}")
+    private int lowWatermark;
+
+    @Value("${heart.pool.high-watermark:30}")
+    private int highWatermark;
+
+    private BlockingQueue<HeartAPIService.HeartPuzzle> pool;
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refilled = new LongAdder();
+    private final LongAdder refillFailures = new LongAdder();
+    private volatile double lastRefillRate;
+    private volatile long lastRefillAt;
+
+    public PuzzlePoolServiceImpl(HeartAPIService heartAPIService) {
+        this.heartAPIService = heartAPIService;
+    }
+
+    @PostConstruct
+    void init() {
+        if (highWatermark < 1) {
+            throw new IllegalStateException("heart.pool.high-watermark must be at least 1");
+        }
+        if (lowWatermark < 0 || lowWatermark >= highWatermark) {
+            throw new IllegalStateException("heart.pool.low-watermark must be between 0 and high-watermark - 1");
+        }
+        this.pool = new ArrayBlockingQueue<>(highWatermark);
+        logger.info("Puzzle pool {} (low watermark: {}, high watermark: {})",
+            enabled ? "enabled" : "disabled", lowWatermark, highWatermark);
+    }
+
+    @Override
+    public HeartAPIService.HeartPuzzle takePuzzle() throws ExternalAPIException {
+        if (enabled) {
+            HeartAPIService.HeartPuzzle puzzle = pool.poll();
+            if (puzzle != null) {
+                hits.increment();
+                return puzzle;
+            }
+            misses.increment();
+            logger.debug("Puzzle pool empty, fetching directly from Heart API");
+        }
+        return heartAPIService.fetchPuzzle();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${heart.pool.refill-interval-ms:2000}")
+    public void refill() {
+        if (!enabled || pool.size() > lowWatermark) {
+            return;
+        }
+        // Only one refill cycle at a time, whoever triggered it
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+
+        // The reactive API (the client itself, or the resilience layer in front of any client)
+        // fetches the whole batch without holding this thread
+        if (heartAPIService instanceof ReactiveHeartAPIService reactiveHeartAPIService) {
+            int requested = pool.remainingCapacity();
+            AtomicInteger fetched = new AtomicInteger();
+            reactiveHeartAPIService.fetchPuzzles(requested)
+                .filter(pool::offer)
+                .doOnNext(puzzle -> {
+                    fetched.incrementAndGet();
+                    refilled.increment();
+                })
+                .doFinally(signal -> {
+                    if (fetched.get() < requested) {
+                        refillFailures.increment();
+                    }
+                    recordRefill(fetched.get(), startNanos);
+                    refilling.set(false);
+                })
+                .subscribe();
+            return;
+        }
+
+        try {
+            int fetched = 0;
+            while (pool.remainingCapacity() > 0) {
+                HeartAPIService.HeartPuzzle puzzle;
+                try {
+                    puzzle = heartAPIService.fetchPuzzle();
+                } catch (Exception e) {
+                    // Stop this cycle - hammering a failing API won't help, the next cycle will retry
+                    refillFailures.increment();
+                    logger.warn("Puzzle pool refill stopped after {} puzzles: {}", fetched, e.getMessage());
+                    break;
+                }
+                if (!pool.offer(puzzle)) {
+                    break;
+                }
+                fetched++;
+                refilled.increment();
+            }
+            recordRefill(fetched, startNanos);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private void recordRefill(int fetched, long startNanos) {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        lastRefillRate = elapsedSeconds > 0 ? fetched / elapsedSeconds : 0;
+        lastRefillAt = System.currentTimeMillis();
+        logger.debug("Puzzle pool refilled with {} puzzles ({} puzzles/s), depth now {}",
+            fetched, String.format("%.2f", lastRefillRate), pool.size());
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("depth", pool.size());
+        stats.put("lowWatermark", lowWatermark);
+        stats.put("highWatermark", highWatermark);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("refilled", refilled.sum());
+        stats.put("refillFailures", refillFailures.sum());
+        stats.put("refillRatePerSecond", lastRefillRate);
+        stats.put("lastRefillAt", lastRefillAt);
+        return stats;
+    }
+}
@@ -0,0 +1,96 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ReactiveHeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.HeartPuzzleParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * Reactive Heart API client built on the shared pooled WebClient.
+ * Puzzle calls run on Reactor Netty event loops instead of holding a thread for the whole request.
+ */
+@Service
+@Qualifier("heartApiClient")
+@Profile("!offline")
+@ConditionalOnProperty(name = "heart.api.client", havingValue = "reactive")
+public class ReactiveHeartAPIServiceImpl implements ReactiveHeartAPIService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveHeartAPIServiceImpl.class);
+
+    private final WebClient webClient;
+    private final HeartPuzzleParser heartPuzzleParser;
+
+    @Value("${heart.api.url:https://marcconrad.com/uob/heart}")
+    private String heartApiUrl;
+
+    @Value("${heart.api.timeout:5000}")
+    private long timeout;
+
+    @Value("${heart.api.batch-concurrency:5}")
+    private int batchConcurrency;
+
+    public ReactiveHeartAPIServiceImpl(WebClient webClient, HeartPuzzleParser heartPuzzleParser) {
+        this.webClient = webClient;
+        this.heartPuzzleParser = heartPuzzleParser;
+    }
+
+    @Override
+    public HeartPuzzle fetchPuzzle() throws ExternalAPIException {
+        // block() rethrows the mapped ExternalAPIException as-is
+        return fetchPuzzleAsync().block();
+    }
+
+    @Override
+    public Mono<HeartPuzzle> fetchPuzzleAsync() {
+        String url = heartPuzzleParser.buildPuzzleUrl(heartApiUrl);
+        logger.debug("Calling Heart API URL (reactive): {}", url);
+
+        return webClient.get()
+            .uri(url)
+            .retrieve()
+            .bodyToFlux(DataBuffer.class)
+            // Join the network buffers without copying and parse them as a stream
+            .as(DataBufferUtils::join)
+            .timeout(Duration.ofMillis(timeout))
+            .switchIfEmpty(Mono.error(() -> new ExternalAPIException("Heart API", "Empty response from Heart API", null)))
+            .map(this::parse)
+            .onErrorMap(WebClientResponseException.class, e -> new ExternalAPIException("Heart API",
+                "HTTP " + e.getStatusCode().value() + " Error: " + e.getMessage(),
+                e.getStatusCode().value()))
+            .onErrorMap(e -> !(e instanceof ExternalAPIException), e -> new ExternalAPIException("Heart API",
+                "Error calling Heart API: " + e.getMessage(),
+                null))
+            .doOnError(e -> logger.error("Heart API call failed: {}", e.getMessage()));
+    }
+
+    private HeartPuzzle parse(DataBuffer buffer) {
+        try (InputStream body = buffer.asInputStream(true)) {
+            return heartPuzzleParser.parse(body);
+        } catch (IOException e) {
+            throw new ExternalAPIException("Heart API", "Failed to read Heart API response: " + e.getMessage(), null);
+        }
+    }
+
+    @Override
+    public Flux<HeartPuzzle> fetchPuzzles(int count) {
+        return Flux.range(0, count)
+            .flatMap(i -> fetchPuzzleAsync().onErrorResume(ExternalAPIException.class, e -> Mono.empty()),
+                batchConcurrency);
+    }
+}
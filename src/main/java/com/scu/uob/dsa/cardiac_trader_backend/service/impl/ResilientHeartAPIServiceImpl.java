@@ -0,0 +1,348 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.config.ExecutorConfig;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.ReactiveHeartAPIService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.CircuitBreaker;
+import com.scu.uob.dsa.cardiac_trader_backend.util.LatencyHistogram;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resilience layer in front of the configured Heart API client.
+ * - Bulkhead: caps concurrent puzzle calls so a slow API cannot absorb every request thread
+ * - Circuit breaker: fails fast while the API is unhealthy
+ * - Hedging: sends a second request when the first is slower than the observed p95
+ * Also serves the reactive API, so callers of the non-blocking client keep the breaker and bulkhead:
+ * with a reactive client the calls stay non-blocking (without hedging), with a blocking one each call
+ * runs on the bounded elastic scheduler.
+ * Disable with heart.api.resilience.enabled=false.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "heart.api.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilientHeartAPIServiceImpl implements ReactiveHeartAPIService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientHeartAPIServiceImpl.class);
+    private static final String API_NAME = "Heart API";
+
+    private final HeartAPIService delegate;
+
+    @Value("${heart.api.resilience.failure-rate-threshold:50}")
+    private double failureRateThreshold;
+
+    @Value("${heart.api.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${heart.api.resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${heart.api.resilience.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${heart.api.resilience.half-open-calls:2}")
+    private int halfOpenCalls;
+
+    @Value("${heart.api.resilience.max-concurrent-calls:10}")
+    private int maxConcurrentCalls;
+
+    @Value("${heart.api.resilience.bulkhead-wait-ms:500}")
+    private long bulkheadWaitMs;
+
+    @Value("${heart.api.resilience.hedge-enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${heart.api.resilience.hedge-min-delay-ms:200}")
+    private long hedgeMinDelayMs;
+
+    @Value("${heart.api.resilience.hedge-max-delay-ms:3000}")
+    private long hedgeMaxDelayMs;
+
+    @Value("${heart.api.resilience.hedge-min-samples:20}")
+    private int hedgeMinSamples;
+
+    private CircuitBreaker circuitBreaker;
+    private Semaphore bulkhead;
+    private ThreadPoolExecutor attemptExecutor;
+
+    private final LatencyHistogram successLatency = new LatencyHistogram();
+    private final LatencyHistogram failureLatency = new LatencyHistogram();
+    private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder circuitRejected = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public ResilientHeartAPIServiceImpl(@Qualifier("heartApiClient") HeartAPIService delegate) {
+        this.delegate = delegate;
+    }
+
+    @PostConstruct
+    void init() {
+        if (maxConcurrentCalls < 1 || slidingWindowSize < 1) {
+            throw new IllegalStateException(
+                "heart.api.resilience.max-concurrent-calls and sliding-window-size must be at least 1");
+        }
+        circuitBreaker = new CircuitBreaker(slidingWindowSize, minimumCalls, failureRateThreshold,
+            openDurationMs, halfOpenCalls);
+        bulkhead = new Semaphore(maxConcurrentCalls);
+
+        // Each admitted call runs at most two attempts; losers finish in the background,
+        // so leave headroom beyond 2x the bulkhead before rejecting.
+        attemptExecutor = new ThreadPoolExecutor(0, maxConcurrentCalls * 4, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), ExecutorConfig.namedDaemonThreads("heart-api-attempt-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Heart API resilience enabled: bulkhead={}, window={}, threshold={}%, hedging={}",
+            maxConcurrentCalls, slidingWindowSize, failureRateThreshold, hedgeEnabled);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        attemptExecutor.shutdownNow();
+    }
+
+    @Override
+    public HeartPuzzle fetchPuzzle() throws ExternalAPIException {
+        calls.increment();
+        if (!acquireBulkhead()) {
+            bulkheadRejected.increment();
+            throw new ExternalAPIException(API_NAME, "Too many concurrent Heart API calls", 503);
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                circuitRejected.increment();
+                throw new ExternalAPIException(API_NAME, "Circuit breaker open - Heart API unavailable", 503);
+            }
+            try {
+                HeartPuzzle puzzle = hedgedFetch();
+                circuitBreaker.onSuccess();
+                return puzzle;
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @Override
+    public Mono<HeartPuzzle> fetchPuzzleAsync() {
+        if (!(delegate instanceof ReactiveHeartAPIService reactiveDelegate)) {
+            return Mono.fromCallable(this::fetchPuzzle).subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.defer(() -> {
+            calls.increment();
+            // Never wait for a permit here: that would block the event loop
+            if (!bulkhead.tryAcquire()) {
+                bulkheadRejected.increment();
+                return Mono.error(new ExternalAPIException(API_NAME, "Too many concurrent Heart API calls", 503));
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.release();
+                circuitRejected.increment();
+                return Mono.error(new ExternalAPIException(API_NAME, "Circuit breaker open - Heart API unavailable", 503));
+            }
+            long start = System.nanoTime();
+            return reactiveDelegate.fetchPuzzleAsync()
+                .doOnSuccess(puzzle -> {
+                    successLatency.record(System.nanoTime() - start);
+                    circuitBreaker.onSuccess();
+                })
+                .doOnError(e -> {
+                    failureLatency.record(System.nanoTime() - start);
+                    errorsByType.computeIfAbsent(errorType(e), key -> new LongAdder()).increment();
+                    circuitBreaker.onFailure();
+                })
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        circuitBreaker.onCancelled();
+                    }
+                    bulkhead.release();
+                });
+        });
+    }
+
+    /**
+     * A reactive client fetches the batch concurrently up to the bulkhead size, skipping failed calls;
+     * a blocking one fetches one puzzle at a time and stops at the first failure
+     */
+    @Override
+    public Flux<HeartPuzzle> fetchPuzzles(int count) {
+        if (!(delegate instanceof ReactiveHeartAPIService)) {
+            return Flux.range(0, count)
+                .concatMap(i -> fetchPuzzleAsync())
+                .onErrorResume(e -> {
+                    logger.warn("Heart API batch stopped: {}", e.getMessage());
+                    return Flux.empty();
+                });
+        }
+        return Flux.range(0, count)
+            .flatMap(i -> fetchPuzzleAsync().onErrorResume(ExternalAPIException.class, e -> Mono.empty()),
+                maxConcurrentCalls);
+    }
+
+    /**
+     * Latency, error and circuit breaker statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.sum());
+        stats.put("circuitBreaker", circuitBreaker.snapshot());
+        stats.put("circuitRejected", circuitRejected.sum());
+        stats.put("bulkheadRejected", bulkheadRejected.sum());
+        stats.put("bulkheadAvailable", bulkhead.availablePermits());
+        stats.put("hedgesSent", hedgesSent.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("hedgeDelayMs", hedgeDelayMs());
+        stats.put("successLatency", successLatency.snapshot());
+        stats.put("failureLatency", failureLatency.snapshot());
+
+        Map<String, Long> errors = new LinkedHashMap<>();
+        errorsByType.forEach((type, count) -> errors.put(type, count.sum()));
+        stats.put("errorsByType", errors);
+        return stats;
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalAPIException("Interrupted waiting for Heart API bulkhead", e);
+        }
+    }
+
+    private HeartPuzzle hedgedFetch() {
+        CompletableFuture<HeartPuzzle> primary = submitAttempt();
+        if (!hedgeEnabled) {
+            return await(primary);
+        }
+        try {
+            return primary.get(hedgeDelayMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Primary is slower than usual: race it against a second request
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalAPIException("Interrupted while fetching heart puzzle", e);
+        }
+
+        CompletableFuture<HeartPuzzle> hedge;
+        try {
+            hedge = submitAttempt();
+        } catch (ExternalAPIException e) {
+            // No spare attempt threads; keep waiting on the primary alone
+            return await(primary);
+        }
+        hedgesSent.increment();
+        logger.debug("Heart API call exceeded {} ms, sent hedged request", hedgeDelayMs());
+
+        CompletableFuture<HeartPuzzle> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((puzzle, error) -> {
+            if (error == null) {
+                winner.complete(puzzle);
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((puzzle, error) -> {
+            if (error == null) {
+                if (winner.complete(puzzle)) {
+                    hedgeWins.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        return await(winner);
+    }
+
+    private CompletableFuture<HeartPuzzle> submitAttempt() {
+        try {
+            return CompletableFuture.supplyAsync(this::timedAttempt, attemptExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new ExternalAPIException(API_NAME, "No capacity for Heart API call", 503);
+        }
+    }
+
+    private HeartPuzzle timedAttempt() {
+        long start = System.nanoTime();
+        try {
+            HeartPuzzle puzzle = delegate.fetchPuzzle();
+            successLatency.record(System.nanoTime() - start);
+            return puzzle;
+        } catch (RuntimeException e) {
+            failureLatency.record(System.nanoTime() - start);
+            errorsByType.computeIfAbsent(errorType(e), key -> new LongAdder()).increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Hedge after the observed p95, clamped to [min, max]; until enough samples exist use max
+     */
+    private long hedgeDelayMs() {
+        if (successLatency.count() < hedgeMinSamples) {
+            return hedgeMaxDelayMs;
+        }
+        long p95 = successLatency.percentileMillis(0.95);
+        return Math.max(hedgeMinDelayMs, Math.min(hedgeMaxDelayMs, p95));
+    }
+
+    private HeartPuzzle await(CompletableFuture<HeartPuzzle> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalAPIException("Interrupted while fetching heart puzzle", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ExternalAPIException apiException) {
+            return apiException;
+        }
+        return new ExternalAPIException("Unexpected error fetching heart puzzle: "
+            + (cause != null ? cause.getMessage() : e.getMessage()), cause);
+    }
+
+    private static String errorType(Throwable e) {
+        if (e instanceof ExternalAPIException apiException && apiException.getStatusCode() != null) {
+            return "HTTP_" + apiException.getStatusCode();
+        }
+        return e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,312 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionEventDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionPositionDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SessionStateDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.SessionState;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.SessionEventType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionEvent;
+import com.scu.uob.dsa.cardiac_trader_backend.model.SessionSnapshot;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.SessionEventRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.SessionSnapshotRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session events are plain inserts keyed by one increasing sequence, written in the transaction of the
+ * change they record (the trade ledger appends a batch's trades in its flush transaction).
+ * Events appended since a session's last snapshot are counted in memory; once a session reaches
+ * session.events.snapshot-every, the snapshot task folds its new events into the snapshot row.
+ * Sequences are taken before commit, so a committed event may still be followed by a lower sequence from a
+ * transaction that has not committed yet. Sequences are tracked from allocation until their transaction
+ * completes, and only events below the lowest one still in flight are folded. A replay that finds a long
+ * tail also schedules a snapshot, so counts lost on restart or eviction only delay one.
+ */
+@Service
+public class SessionEventServiceImpl implements SessionEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionEventServiceImpl.class);
+
+    private final SessionEventRepository sessionEventRepository;
+    private final SessionSnapshotRepository sessionSnapshotRepository;
+    private final GameSessionRepository gameSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${session.events.snapshot-every:100}")
+    private int snapshotEvery;
+
+    private final AtomicLong lastSequence = new AtomicLong();
+    // Sequences allocated to transactions that have not completed yet; allocation and reads hold its monitor
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    // Events appended per session since its last snapshot (approximate: only decides when to snapshot)
+    private final Cache<UUID, AtomicInteger> sinceSnapshot = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterAccess(Duration.ofHours(1))
+        .build();
+    private final Set<UUID> due = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong replayedEvents = new AtomicLong();
+
+    public SessionEventServiceImpl(
+            SessionEventRepository sessionEventRepository,
+            SessionSnapshotRepository sessionSnapshotRepository,
+            GameSessionRepository gameSessionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.sessionEventRepository = sessionEventRepository;
+        this.sessionSnapshotRepository = sessionSnapshotRepository;
+        this.gameSessionRepository = gameSessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void init() {
+        lastSequence.set(sessionEventRepository.findMaxSequence().orElse(0L));
+        logger.info("Session event journal at sequence {}", lastSequence.get());
+    }
+
+    @Override
+    @Transactional
+    public void append(List<SessionEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> sequences = new ArrayList<>(events.size());
+        synchronized (inFlight) {
+            for (SessionEvent event : events) {
+                long sequence = lastSequence.incrementAndGet();
+                event.setSequence(sequence);
+                inFlight.add(sequence);
+                sequences.add(sequence);
+            }
+        }
+        AfterCommit.runAfterCompletion(() -> {
+            synchronized (inFlight) {
+                sequences.forEach(inFlight::remove);
+            }
+        });
+        for (SessionEvent event : events) {
+            if (event.getOccurredAt() == null) {
+                event.setOccurredAt(LocalDateTime.now());
+            }
+        }
+        sessionEventRepository.saveAll(events);
+        AfterCommit.run(() -> counted(events));
+    }
+
+    @Override
+    @Transactional
+    public void roundStarted(UUID sessionId, int roundNumber, long cashCents) {
+        SessionEvent event = event(sessionId, SessionEventType.ROUND_STARTED, roundNumber);
+        event.setCashCents(cashCents);
+        append(List.of(event));
+    }
+
+    @Override
+    @Transactional
+    public void pricesRevealed(UUID sessionId, int roundNumber, long cashCents) {
+        SessionEvent event = event(sessionId, SessionEventType.PRICE_REVEALED, roundNumber);
+        event.setCashCents(cashCents);
+        append(List.of(event));
+    }
+
+    @Override
+    @Transactional
+    public void toolUnlocked(UUID sessionId, ToolType toolType, int roundNumber) {
+        SessionEvent event = event(sessionId, SessionEventType.TOOL_UNLOCKED, roundNumber);
+        event.setToolType(toolType);
+        append(List.of(event));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SessionStateDTO replay(UUID sessionId) throws ResourceNotFoundException {
+        if (!gameSessionRepository.existsById(sessionId)) {
+            throw new ResourceNotFoundException("GameSession", "id", sessionId);
+        }
+        SessionState state = sessionSnapshotRepository.findById(sessionId)
+            .map(snapshot -> SessionState.decode(snapshot.getState()))
+            .orElseGet(SessionState::new);
+        long snapshotSequence = state.getLastSequence();
+        List<SessionEvent> tail = sessionEventRepository
+            .findBySessionIdAndSequenceGreaterThanOrderBySequenceAsc(sessionId, snapshotSequence);
+        for (SessionEvent event : tail) {
+            state.apply(event);
+        }
+        replays.incrementAndGet();
+        replayedEvents.addAndGet(tail.size());
+        if (tail.size() >= snapshotEvery) {
+            due.add(sessionId);
+        }
+
+        List<SessionPositionDTO> positions = new ArrayList<>(state.getPositions().size());
+        state.getPositions().forEach((stockId, position) -> positions.add(new SessionPositionDTO(
+            stockId, position.shares(), Money.toBigDecimal(position.averagePriceCents()))));
+        return new SessionStateDTO(
+            sessionId,
+            state.getLastSequence(),
+            state.getEventCount(),
+            snapshotSequence,
+            tail.size(),
+            state.getRoundNumber(),
+            state.getRevealedRound(),
+            state.getCashCents() != null ? Money.toBigDecimal(state.getCashCents()) : null,
+            positions,
+            Map.copyOf(state.getToolUnlocks()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SessionEventDTO> getEvents(UUID sessionId, long afterSequence, int limit) {
+        List<SessionEventDTO> events = new ArrayList<>();
+        for (SessionEvent event : sessionEventRepository.findBySessionIdAndSequenceGreaterThanOrderBySequenceAsc(
+                sessionId, afterSequence, PageRequest.of(0, limit))) {
+            events.add(mapToDTO(event));
+        }
+        return events;
+    }
+
+    /**
+     * Fold the new events of sessions that are due into their snapshots, one transaction per session
+     */
+    @Scheduled(fixedDelayString = "${session.events.snapshot-interval-ms:5000}")
+    public void snapshotDueSessions() {
+        for (UUID sessionId : due) {
+            due.remove(sessionId);
+            // Taken before the transaction starts, so every event at or below it is visible to it
+            long committed = committedSequence();
+            try {
+                transactionTemplate.executeWithoutResult(status -> snapshot(sessionId, committed));
+            } catch (RuntimeException e) {
+                logger.warn("Could not snapshot session {}: {}", sessionId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lastSequence", lastSequence.get());
+        stats.put("committedSequence", committedSequence());
+        stats.put("appended", appended.get());
+        stats.put("snapshots", snapshots.get());
+        stats.put("dueSessions", due.size());
+        stats.put("replays", replays.get());
+        stats.put("replayedEvents", replayedEvents.get());
+        return stats;
+    }
+
+    /**
+     * Highest sequence such that no transaction is still writing an event at or below it
+     */
+    private long committedSequence() {
+        synchronized (inFlight) {
+            return inFlight.isEmpty() ? lastSequence.get() : inFlight.first() - 1;
+        }
+    }
+
+    private void snapshot(UUID sessionId, long committed) {
+        SessionSnapshot snapshot = sessionSnapshotRepository.findById(sessionId).orElse(null);
+        SessionState state = snapshot != null ? SessionState.decode(snapshot.getState()) : new SessionState();
+        List<SessionEvent> tail = sessionEventRepository
+            .findBySessionIdAndSequenceGreaterThanOrderBySequenceAsc(sessionId, state.getLastSequence());
+        int folded = 0;
+        for (SessionEvent event : tail) {
+            if (event.getSequence() > committed) {
+                break;
+            }
+            state.apply(event);
+            folded++;
+        }
+        int remaining = tail.size() - folded;
+        sinceSnapshot.get(sessionId, id -> new AtomicInteger()).set(remaining);
+        if (folded == 0) {
+            if (remaining > 0) {
+                // Behind an uncommitted sequence; try again next time
+                due.add(sessionId);
+            }
+            return;
+        }
+
+        if (snapshot == null) {
+            snapshot = new SessionSnapshot();
+            snapshot.setSessionId(sessionId);
+        }
+        snapshot.setLastSequence(state.getLastSequence());
+        snapshot.setEventCount(state.getEventCount());
+        snapshot.setState(state.encode());
+        snapshot.setCreatedAt(LocalDateTime.now());
+        sessionSnapshotRepository.save(snapshot);
+        snapshots.incrementAndGet();
+        if (remaining >= snapshotEvery) {
+            due.add(sessionId);
+        }
+    }
+
+    private void counted(List<SessionEvent> events) {
+        appended.addAndGet(events.size());
+        for (SessionEvent event : events) {
+            UUID sessionId = event.getSessionId();
+            if (sinceSnapshot.get(sessionId, id -> new AtomicInteger()).incrementAndGet() >= snapshotEvery) {
+                due.add(sessionId);
+            }
+        }
+    }
+
+    private static SessionEvent event(UUID sessionId, SessionEventType eventType, int roundNumber) {
+        SessionEvent event = new SessionEvent();
+        event.setSessionId(sessionId);
+        event.setEventType(eventType);
+        event.setRoundNumber(roundNumber);
+        return event;
+    }
+
+    private SessionEventDTO mapToDTO(SessionEvent event) {
+        return new SessionEventDTO(
+            event.getSequence(),
+            event.getEventType(),
+            event.getRoundNumber(),
+            event.getCashCents() != null ? Money.toBigDecimal(event.getCashCents()) : null,
+            event.getTransactionId(),
+            event.getStockId(),
+            event.getTransactionType(),
+            event.getShares(),
+            event.getPriceCents() != null ? Money.toBigDecimal(event.getPriceCents()) : null,
+            event.getSharesAfter(),
+            event.getAveragePriceCents() != null ? Money.toBigDecimal(event.getAveragePriceCents()) : null,
+            event.getToolType(),
+            event.getOccurredAt());
+    }
+}
@@ -0,0 +1,188 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline Heart API client (profile "offline").
+ * Renders PNG puzzles with a known number of hearts in memory, so load tests and CI
+ * can run the whole game flow without calling marcconrad.com.
+ * Puzzle n is fully determined by (heart.synthetic.seed, n).
+ */
+@Service
+@Qualifier("heartApiClient")
+@Profile("offline")
+public class SyntheticHeartAPIServiceImpl implements HeartAPIService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticHeartAPIServiceImpl.class);
+
+    private static final int GRID_COLUMNS = 4;
+    private static final int GRID_ROWS = 3;
+    private static final Path2D HEART_SHAPE = buildHeartShape();
+    private static final Color BACKGROUND = new Color(250, 246, 240);
+    private static final Color[] HEART_COLORS = {
+        new Color(214, 39, 40), new Color(232, 82, 120), new Color(190, 30, 90), new Color(240, 110, 60)
+    };
+
+    @Value("${heart.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${heart.synthetic.width:320}")
+    private int width;
+
+    @Value("${heart.synthetic.height:240}")
+    private int height;
+
+    @Value("${heart.synthetic.min-hearts:1}")
+    private int minHearts;
+
+    @Value("${heart.synthetic.max-hearts:9}")
+    private int maxHearts;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (minHearts < 0 || maxHearts < minHearts || maxHearts > GRID_COLUMNS * GRID_ROWS) {
+            throw new IllegalStateException("heart.synthetic.min-hearts/max-hearts must satisfy 0 <= min <= max <= "
+                + GRID_COLUMNS * GRID_ROWS);
+        }
+        logger.info("Synthetic heart puzzles enabled (seed={}, {}x{}, {}-{} hearts)",
+            seed, width, height, minHearts, maxHearts);
+    }
+
+    @Override
+    public HeartPuzzle fetchPuzzle() throws ExternalAPIException {
+        return generate(sequence.getAndIncrement());
+    }
+
+    /**
+     * Render puzzle number n for the configured seed; safe to call from many threads
+     */
+    public HeartPuzzle generate(long n) {
+        // Independent stream per puzzle, so output doesn't depend on which thread renders it
+        SplittableRandom random = new SplittableRandom(mix(seed, n));
+        int heartCount = minHearts + random.nextInt(maxHearts - minHearts + 1);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            drawHearts(g, random, heartCount);
+        } finally {
+            g.dispose();
+        }
+
+        return new HeartPuzzle(encodePng(image), heartCount, "synthetic-" + seed + "-" + n);
+    }
+
+    private void drawHearts(Graphics2D g, SplittableRandom random, int heartCount) {
+        // Pick distinct grid cells (partial Fisher-Yates) so hearts never overlap and stay countable
+        int cells = GRID_COLUMNS * GRID_ROWS;
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < heartCount; i++) {
+            int j = i + random.nextInt(cells - i);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        double cellWidth = (double) width / GRID_COLUMNS;
+        double cellHeight = (double) height / GRID_ROWS;
+        double maxSize = Math.min(cellWidth, cellHeight) * 0.7;
+        g.setStroke(new BasicStroke(1.5f));
+
+        for (int i = 0; i < heartCount; i++) {
+            int cell = order[i];
+            double size = maxSize * (0.6 + 0.4 * random.nextDouble());
+            double x = (cell % GRID_COLUMNS) * cellWidth + random.nextDouble() * (cellWidth - size);
+            double y = (cell / GRID_COLUMNS) * cellHeight + random.nextDouble() * (cellHeight - size);
+            double angle = (random.nextDouble() - 0.5) * 0.6;
+
+            AffineTransform transform = new AffineTransform();
+            transform.translate(x, y);
+            transform.rotate(angle, size / 2, size / 2);
+            transform.scale(size, size);
+            Shape heart = transform.createTransformedShape(HEART_SHAPE);
+
+            g.setColor(HEART_COLORS[random.nextInt(HEART_COLORS.length)]);
+            g.fill(heart);
+            g.setColor(Color.DARK_GRAY);
+            g.draw(heart);
+        }
+    }
+
+    private static byte[] encodePng(BufferedImage image) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        // Deflate dominates generation time; a low level roughly doubles throughput for flat images
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0.8f);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try (ImageOutputStream imageOut = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new ExternalAPIException("Failed to encode synthetic heart puzzle", e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Heart outline in a unit square (two cubic lobes meeting at the bottom point)
+     */
+    private static Path2D buildHeartShape() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0.5, 0.3);
+        path.curveTo(0.5, 0.0, 0.0, 0.0, 0.0, 0.35);
+        path.curveTo(0.0, 0.6, 0.35, 0.75, 0.5, 1.0);
+        path.curveTo(0.65, 0.75, 1.0, 0.6, 1.0, 0.35);
+        path.curveTo(1.0, 0.0, 0.5, 0.0, 0.5, 0.3);
+        path.closePath();
+        return path;
+    }
+
+    /**
+     * SplitMix64 finaliser over (seed, n) so neighbouring puzzle numbers get unrelated streams
+     */
+    private static long mix(long seed, long n) {
+        long z = seed + (n + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -3,12 +3,15 @@ package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.ToolType;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
 import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
-import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.model.MarketSnapshot;
 import com.scu.uob.dsa.cardiac_trader_backend.model.UnlockedTool;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.MarketSnapshotRepository;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.UnlockedToolRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.ToolService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,15 +22,21 @@ public class ToolServiceImpl implements ToolService {
 
     private final UnlockedToolRepository unlockedToolRepository;
     private final GameSessionRepository gameSessionRepository;
-    private final StockRepository stockRepository;
+    private final MarketSnapshotRepository marketSnapshotRepository;
+    private final MarketStreamService marketStreamService;
+    private final SessionEventService sessionEventService;
 
     public ToolServiceImpl(
             UnlockedToolRepository unlockedToolRepository,
             GameSessionRepository gameSessionRepository,
-            StockRepository stockRepository) {
+            MarketSnapshotRepository marketSnapshotRepository,
+            MarketStreamService marketStreamService,
+            SessionEventService sessionEventService) {
         this.unlockedToolRepository = unlockedToolRepository;
         this.gameSessionRepository = gameSessionRepository;
-        this.stockRepository = stockRepository;
+        this.marketSnapshotRepository = marketSnapshotRepository;
+        this.marketStreamService = marketStreamService;
+        this.sessionEventService = sessionEventService;
     }
 
     @Override
@@ -38,6 +47,7 @@ public class ToolServiceImpl implements ToolService {
             .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
 
         // Check if tool already unlocked
+        int usesRemaining = 1;
         if (unlockedToolRepository.existsByGameSessionIdAndToolType(sessionId, toolType)) {
             // Update uses remaining
             UnlockedTool existing = unlockedToolRepository
@@ -46,6 +56,7 @@ public class ToolServiceImpl implements ToolService {
             if (existing != null) {
                 existing.setUsesRemaining(existing.getUsesRemaining() + 1);
                 unlockedToolRepository.save(existing);
+                usesRemaining = existing.getUsesRemaining();
             }
         } else {
             // Create new unlocked tool
@@ -56,6 +67,10 @@ public class ToolServiceImpl implements ToolService {
             tool.setUsesRemaining(1);
             unlockedToolRepository.save(tool);
         }
+        sessionEventService.toolUnlocked(sessionId, toolType, roundNumber);
+
+        int uses = usesRemaining;
+        AfterCommit.run(() -> marketStreamService.publishToolUnlock(sessionId, toolType, roundNumber, uses));
     }
 
     @Override
@@ -66,15 +81,13 @@ public class ToolServiceImpl implements ToolService {
             throw new ResourceNotFoundException("Tool", "type", ToolType.HINT);
         }
 
-        Stock stock = stockRepository.findById(stockId)  // NOSONAR - orElseThrow guarantees non-null
+        // Hint about the stock's puzzle in this session's latest round
+        MarketSnapshot snapshot = marketSnapshotRepository
+            .findFirstByGameSessionIdAndStockIdOrderByRoundNumberDesc(sessionId, stockId)
             .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", stockId));
 
-        if (stock.getActualHeartCount() == null) {
-            throw new RuntimeException("Heart count not available for this stock");
-        }
-
         // Provide a hint (range around actual count)
-        int actualCount = stock.getActualHeartCount();
+        int actualCount = snapshot.getActualHeartCount();
         int lowerBound = Math.max(1, actualCount - 2);
         int upperBound = actualCount + 2;
 
@@ -0,0 +1,760 @@
+package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
+
+import com.scu.uob.dsa.cardiac_trader_backend.cache.SessionLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.StockCatalog;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderBookDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.OrderResultDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.TournamentTradeDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TournamentMarket;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TradeJournal;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.OrderStatus;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.OrderType;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.SessionInTournamentException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TooManyTournamentsException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.TradeJournalFailedException;
+import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Holding;
+import com.scu.uob.dsa.cardiac_trader_backend.model.LedgerCheckpoint;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.model.TournamentParticipant;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Transaction;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.HoldingRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.LedgerCheckpointRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.TournamentParticipantRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.TransactionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.TournamentService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.AfterCommit;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs tournament markets on this node.
+ * Matching happens in memory on each tournament's single writer thread (TournamentMarket); the
+ * resulting trades are queued and settled to the database in batches, one transaction per batch,
+ * so the order path never waits on a database write.
+ * Every trade is appended to the tournament journal on the writer thread as it matches, and an order's
+ * response waits for the fsync that covers its fills; settlement advances the journal checkpoint in its
+ * own transaction, so on startup every journaled trade not yet settled is settled again, exactly once.
+ * Tournaments live in memory: closing one or restarting the node drops its resting orders, but
+ * every trade already journaled stays in the sessions' cash, holdings and transaction history.
+ * A session's cash is committed to one tournament at a time: joining suspends the session in the trade
+ * ledger (no buys, sells, batches or conditional fills of its own) and records it in tournament_participants,
+ * and it is resumed once the tournament has closed and all of its trades are settled. Sessions recorded
+ * there on startup lost their tournament to the restart and are resumed once its replayed trades settle.
+ */
+@Service
+public class TournamentServiceImpl implements TournamentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TournamentServiceImpl.class);
+
+    private final StockCatalog stockCatalog;
+    private final GameSessionRepository gameSessionRepository;
+    private final HoldingRepository holdingRepository;
+    private final TransactionRepository transactionRepository;
+    private final SessionLedger sessionLedger;
+    private final TradeLedger tradeLedger;
+    private final TournamentParticipantRepository tournamentParticipantRepository;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tournament.max-active:8}")
+    private int maxActive;
+
+    @Value("${tournament.stocks:5}")
+    private int stockCount;
+
+    @Value("${tournament.starting-shares:10}")
+    private int startingShares;
+
+    @Value("${tournament.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${tournament.tape-size:1024}")
+    private int tapeSize;
+
+    @Value("${tournament.settlement-batch-size:500}")
+    private int settlementBatchSize;
+
+    @Value("${tournament.journal-dir:data/tournament-journal}")
+    private String journalDir;
+
+    @Value("${tournament.journal-segment-bytes:67108864}")
+    private long segmentBytes;
+
+    private TradeJournal journal;
+    // Journal order and queue order must match, so settlement advances the checkpoint in sequence order
+    private final Object journalLock = new Object();
+
+    private final Map<UUID, Tournament> tournaments = new ConcurrentHashMap<>();
+    // Closed tournaments whose participants are resumed once their last trades are settled
+    private final Set<Tournament> closing = ConcurrentHashMap.newKeySet();
+    private final LinkedBlockingDeque<PendingTrade> unsettled = new LinkedBlockingDeque<>();
+    // Participants of tournaments lost to a restart, resumed once the replayed trades are settled
+    private final Set<UUID> recovered = ConcurrentHashMap.newKeySet();
+    private final AtomicLong settledTrades = new AtomicLong();
+    private final AtomicLong settlementFailures = new AtomicLong();
+
+    public TournamentServiceImpl(
+            StockCatalog stockCatalog,
+            GameSessionRepository gameSessionRepository,
+            HoldingRepository holdingRepository,
+            TransactionRepository transactionRepository,
+            SessionLedger sessionLedger,
+            TradeLedger tradeLedger,
+            TournamentParticipantRepository tournamentParticipantRepository,
+            LedgerCheckpointRepository ledgerCheckpointRepository,
+            PlatformTransactionManager transactionManager) {
+        this.stockCatalog = stockCatalog;
+        this.gameSessionRepository = gameSessionRepository;
+        this.holdingRepository = holdingRepository;
+        this.transactionRepository = transactionRepository;
+        this.sessionLedger = sessionLedger;
+        this.tradeLedger = tradeLedger;
+        this.tournamentParticipantRepository = tournamentParticipantRepository;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        journal = TradeJournal.open(Paths.get(journalDir).toAbsolutePath().normalize(), segmentBytes);
+        long checkpoint = ledgerCheckpointRepository.findById(journal.journalId())
+            .map(LedgerCheckpoint::getLastSequence)
+            .orElse(0L);
+        journal.replay(checkpoint, (sequence, payload) -> unsettled.add(PendingTrade.decode(sequence, payload, stockCatalog)));
+        for (TournamentParticipant participant : tournamentParticipantRepository.findAll()) {
+            // Still suspended, so nothing trades on cash and shares the replayed trades are about to change
+            tradeLedger.suspend(participant.getSessionId());
+            recovered.add(participant.getSessionId());
+        }
+        if (!unsettled.isEmpty() || !recovered.isEmpty()) {
+            logger.info("Recovered {} unsettled tournament trades after sequence {} and {} participants",
+                unsettled.size(), checkpoint, recovered.size());
+        }
+    }
+
+    @Override
+    public TournamentDTO createTournament() {
+        if (tournaments.size() >= maxActive) {
+            throw new TooManyTournamentsException(maxActive);
+        }
+        List<Stock> stocks = stockCatalog.sample(stockCount);
+        long[] openingPrices = new long[stocks.size()];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < openingPrices.length; i++) {
+            // Same price model as a round: heart count times the sector multiplier
+            openingPrices[i] = stocks.get(i).calculateTruePriceCents(random.nextInt(10) + 1);
+        }
+
+        UUID id = UUID.randomUUID();
+        Tournament tournament = new Tournament(stocks.toArray(new Stock[0]), openingPrices);
+        tournament.market = new TournamentMarket(id, openingPrices, queueCapacity, tapeSize,
+            trade -> journal(new PendingTrade(id, tournament.stocks[trade.getSymbol()], trade)));
+        tournaments.put(id, tournament);
+        logger.info("Tournament {} opened with {} stocks", id, stocks.size());
+        return toDTO(tournament);
+    }
+
+    @Override
+    public TournamentDTO getTournament(UUID tournamentId) throws ResourceNotFoundException {
+        return toDTO(tournament(tournamentId));
+    }
+
+    @Override
+    public TournamentDTO joinTournament(UUID tournamentId, UUID sessionId) throws ResourceNotFoundException {
+        Tournament tournament = tournament(tournamentId);
+        if (!tournament.participants.add(sessionId)) {
+            return toDTO(tournament);
+        }
+        // Tournament fills change cash and holdings in the database directly, so take the session out of the ledger
+        if (!tradeLedger.suspend(sessionId)) {
+            tournament.participants.remove(sessionId);
+            throw new SessionInTournamentException(sessionId);
+        }
+        try {
+            long[] shares = new long[tournament.stocks.length];
+            long cashCents = transactionTemplate.execute(status -> {
+                long remainingCents = buyStartingShares(tournament, sessionId, shares);
+                tournamentParticipantRepository.save(
+                    new TournamentParticipant(sessionId, tournament.market.getId(), LocalDateTime.now()));
+                return remainingCents;
+            });
+            await(tournament.market.join(sessionId, cashCents, shares));
+        } catch (RuntimeException e) {
+            tournament.participants.remove(sessionId);
+            try {
+                tournamentParticipantRepository.deleteById(sessionId);
+            } catch (RuntimeException deleteFailure) {
+                // Left suspended until the next start finds the row and resumes it
+                logger.warn("Could not remove session {} from tournament participants: {}",
+                    sessionId, deleteFailure.getMessage());
+                throw e;
+            }
+            tradeLedger.resume(sessionId);
+            throw e;
+        }
+        return toDTO(tournament);
+    }
+
+    @Override
+    public OrderResultDTO placeOrder(UUID tournamentId, UUID sessionId, OrderRequestDTO request)
+            throws ResourceNotFoundException {
+        Tournament tournament = tournament(tournamentId);
+        if (journal.isFailed()) {
+            throw journalFailed(null);
+        }
+        int symbol = tournament.symbol(request.getStockId());
+        boolean market = request.getType() == OrderType.MARKET;
+        long priceCents = 0;
+        if (!market) {
+            if (request.getPrice() == null) {
+                throw new IllegalArgumentException("Price is required for LIMIT orders");
+            }
+            priceCents = Money.ofBigDecimal(request.getPrice());
+        }
+        TournamentMarket.OrderResult result = await(tournament.market.place(
+            sessionId, symbol, request.getSide() == TransactionType.BUY, market, priceCents, request.getShares()));
+        if (!result.getFills().isEmpty()) {
+            // The fills were journaled before the order completed; report them only once they are durable
+            try {
+                journal.sync(journal.lastSequence());
+            } catch (IOException e) {
+                throw journalFailed(e);
+            }
+        }
+
+        List<TournamentTradeDTO> fills = new ArrayList<>(result.getFills().size());
+        long filledValueCents = 0;
+        for (TournamentMarket.Trade trade : result.getFills()) {
+            fills.add(toDTO(tournament, trade));
+            filledValueCents = Money.plus(filledValueCents, Money.times(trade.getPriceCents(), trade.getQuantity()));
+        }
+        Stock stock = tournament.stocks[symbol];
+        return new OrderResultDTO(result.getOrderId(), stock.getId(), stock.getSymbol(), request.getSide(),
+            request.getType(), status(result), result.getRequestedQuantity(), result.getFilledQuantity(),
+            result.getRestingQuantity(),
+            result.getFilledQuantity() > 0
+                ? Money.toBigDecimal(Money.divideHalfUp(filledValueCents, result.getFilledQuantity()))
+                : null,
+            fills);
+    }
+
+    @Override
+    public OrderResultDTO cancelOrder(UUID tournamentId, UUID sessionId, UUID stockId, long orderId)
+            throws ResourceNotFoundException {
+        Tournament tournament = tournament(tournamentId);
+        int symbol = tournament.symbol(stockId);
+        long cancelled = await(tournament.market.cancel(sessionId, orderId, symbol));
+        Stock stock = tournament.stocks[symbol];
+        return new OrderResultDTO(orderId, stock.getId(), stock.getSymbol(), null, OrderType.LIMIT,
+            OrderStatus.CANCELLED, cancelled, 0, 0, null, List.of());
+    }
+
+    @Override
+    public OrderBookDTO getOrderBook(UUID tournamentId, UUID stockId, int depth) throws ResourceNotFoundException {
+        Tournament tournament = tournament(tournamentId);
+        int symbol = tournament.symbol(stockId);
+        long[][][] sides = await(tournament.market.depth(symbol, depth));
+        long[] lastPrices = await(tournament.market.lastPrices());
+        Stock stock = tournament.stocks[symbol];
+        return new OrderBookDTO(stock.getId(), stock.getSymbol(), Money.toBigDecimal(lastPrices[symbol]),
+            toLevels(sides[0]), toLevels(sides[1]));
+    }
+
+    @Override
+    public List<TournamentTradeDTO> getTrades(UUID tournamentId, int limit) throws ResourceNotFoundException {
+        Tournament tournament = tournament(tournamentId);
+        List<TournamentMarket.Trade> trades = await(tournament.market.recentTrades(limit));
+        List<TournamentTradeDTO> result = new ArrayList<>(trades.size());
+        for (TournamentMarket.Trade trade : trades) {
+            result.add(toDTO(tournament, trade));
+        }
+        return result;
+    }
+
+    @Override
+    public void closeTournament(UUID tournamentId) throws ResourceNotFoundException {
+        Tournament tournament = tournaments.remove(tournamentId);
+        if (tournament == null) {
+            throw new ResourceNotFoundException("Tournament", "id", tournamentId);
+        }
+        tournament.market.close();
+        closing.add(tournament);
+        logger.info("Tournament {} closed", tournamentId);
+    }
+
+    /**
+     * Write queued trades to the database, settlement-batch-size trades per transaction.
+     * A failed batch is put back at the head of the queue and retried on the next run.
+     * Then resume the participants of closed tournaments whose trades are now all settled.
+     */
+    @Scheduled(fixedDelayString = "${tournament.settlement-interval-ms:200}")
+    public void settleTrades() {
+        // A terminated market queued its last trade before this check, so the drain below settles it
+        List<Tournament> finished = new ArrayList<>();
+        for (Tournament tournament : closing) {
+            if (tournament.market.isTerminated()) {
+                finished.add(tournament);
+            }
+        }
+        List<PendingTrade> batch = new ArrayList<>(settlementBatchSize);
+        while (unsettled.drainTo(batch, settlementBatchSize) > 0) {
+            try {
+                for (PendingTrade pending : batch) {
+                    tradeLedger.release(pending.trade.getBuyerSessionId());
+                    tradeLedger.release(pending.trade.getSellerSessionId());
+                }
+                transactionTemplate.executeWithoutResult(status -> settle(batch));
+                settledTrades.addAndGet(batch.size());
+                deleteSettledSegments(batch);
+            } catch (RuntimeException e) {
+                settlementFailures.incrementAndGet();
+                logger.error("Failed to settle {} tournament trades, will retry", batch.size(), e);
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    unsettled.addFirst(batch.get(i));
+                }
+                return;
+            }
+            batch.clear();
+        }
+        for (Tournament tournament : finished) {
+            if (resume(tournament.participants)) {
+                closing.remove(tournament);
+            }
+        }
+        if (!recovered.isEmpty()) {
+            List<UUID> sessionIds = List.copyOf(recovered);
+            if (resume(sessionIds)) {
+                sessionIds.forEach(recovered::remove);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        tournaments.values().forEach(tournament -> tournament.market.close());
+        settleTrades();
+        journal.close();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openTournaments", tournaments.size());
+        stats.put("maxActive", maxActive);
+        stats.put("unsettledTrades", unsettled.size());
+        stats.put("settledTrades", settledTrades.get());
+        stats.put("settlementFailures", settlementFailures.get());
+        stats.put("recoveredParticipants", recovered.size());
+        stats.put("journal", journal.getStats());
+        Map<String, Object> markets = new LinkedHashMap<>();
+        tournaments.forEach((id, tournament) -> markets.put(id.toString(), tournament.market.getStats()));
+        stats.put("tournaments", markets);
+        return stats;
+    }
+
+    /**
+     * Runs on a tournament's writer thread for every trade: journal it and queue it for settlement.
+     * A trade the journal cannot take is still settled; the order's response then reports the failure.
+     */
+    private void journal(PendingTrade pending) {
+        byte[] payload = pending.encode();
+        synchronized (journalLock) {
+            try {
+                pending.sequence = journal.append(payload);
+            } catch (IOException e) {
+                logger.error("Could not journal tournament trade {}", pending.trade.getId(), e);
+            }
+            unsettled.add(pending);
+        }
+    }
+
+    private void deleteSettledSegments(List<PendingTrade> batch) {
+        long lastSequence = 0;
+        for (PendingTrade pending : batch) {
+            lastSequence = Math.max(lastSequence, pending.sequence);
+        }
+        try {
+            journal.deleteThrough(lastSequence);
+        } catch (IOException e) {
+            logger.warn("Could not delete settled tournament journal segments: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the sessions' participant rows, then let them trade through the ledger again
+     * @return false if the rows could not be deleted (retried on the next run)
+     */
+    private boolean resume(Collection<UUID> sessionIds) {
+        try {
+            tournamentParticipantRepository.deleteAllById(sessionIds);
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove {} tournament participants, will retry: {}", sessionIds.size(), e.getMessage());
+            return false;
+        }
+        sessionIds.forEach(tradeLedger::resume);
+        return true;
+    }
+
+    private static TradeJournalFailedException journalFailed(IOException cause) {
+        return new TradeJournalFailedException(
+            "Tournament journal failed: fills still settle unless the server stops first, and tournament trading"
+                + " is stopped until it restarts", cause);
+    }
+
+    /**
+     * Buy the session starting-shares of every tournament stock at its opening price, so shares it can
+     * sell in the tournament are paid for out of its own cash
+     * @param shares Filled with the session's resulting shares per symbol
+     * @return The session's cash in cents after the purchase
+     * @throws InsufficientFundsException if the session cannot pay for the starting shares
+     */
+    private long buyStartingShares(Tournament tournament, UUID sessionId, long[] shares) {
+        GameSession gameSession = gameSessionRepository.findById(sessionId)
+            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
+        long cashCents = Money.ofBigDecimal(gameSession.getCurrentCapital());
+        long costCents = 0;
+        for (long openingPrice : tournament.openingPrices) {
+            costCents = Money.plus(costCents, Money.times(openingPrice, startingShares));
+        }
+        if (costCents > cashCents) {
+            throw new InsufficientFundsException(Money.toDouble(cashCents), Money.toDouble(costCents));
+        }
+
+        Map<UUID, Holding> holdings = holdingRepository.findByGameSessionIdKeyedByStockId(sessionId);
+        List<Holding> changed = new ArrayList<>(tournament.stocks.length);
+        List<Transaction> transactions = new ArrayList<>(tournament.stocks.length);
+        for (int i = 0; i < tournament.stocks.length; i++) {
+            Stock stock = tournament.stocks[i];
+            Holding holding = holdings.get(stock.getId());
+            if (holding == null) {
+                holding = new Holding(null, gameSession, stock, 0, Money.toBigDecimal(tournament.openingPrices[i]));
+            }
+            if (startingShares > 0) {
+                addShares(holding, startingShares, tournament.openingPrices[i]);
+                changed.add(holding);
+                transactions.add(transaction(gameSession, stock, TransactionType.BUY, startingShares,
+                    tournament.openingPrices[i], Money.times(tournament.openingPrices[i], startingShares)));
+            }
+            shares[i] = holding.getShares();
+        }
+        long remainingCents = Money.minus(cashCents, costCents);
+        gameSession.setCurrentCapital(Money.toBigDecimal(remainingCents));
+        gameSessionRepository.save(gameSession);
+        holdingRepository.saveAll(changed);
+        transactionRepository.saveAll(transactions);
+        AfterCommit.run(() -> changed.forEach(holding -> sessionLedger.applyPosition(
+            sessionId, holding.getStock().getId(), holding.getShares(), holding.getAveragePrice())));
+        return remainingCents;
+    }
+
+    private void settle(List<PendingTrade> batch) {
+        Set<UUID> sessionIds = new HashSet<>();
+        for (PendingTrade pending : batch) {
+            sessionIds.add(pending.trade.getBuyerSessionId());
+            sessionIds.add(pending.trade.getSellerSessionId());
+        }
+        Map<UUID, GameSession> sessions = new HashMap<>(sessionIds.size() * 2);
+        for (GameSession gameSession : gameSessionRepository.findAllById(sessionIds)) {
+            sessions.put(gameSession.getId(), gameSession);
+        }
+        Map<UUID, Long> cashCents = new HashMap<>(sessions.size() * 2);
+        sessions.forEach((id, gameSession) -> cashCents.put(id, Money.ofBigDecimal(gameSession.getCurrentCapital())));
+        Map<UUID, Map<UUID, Holding>> holdings = new HashMap<>(sessions.size() * 2);
+        // Holding's equals/hashCode compare field values, so track the changed ones by identity
+        Set<Holding> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Transaction> transactions = new ArrayList<>(batch.size() * 2);
+
+        long lastSequence = 0;
+        for (PendingTrade pending : batch) {
+            lastSequence = Math.max(lastSequence, pending.sequence);
+            TournamentMarket.Trade trade = pending.trade;
+            Stock stock = pending.stock;
+            if (stock == null) {
+                logger.warn("Tournament trade {} references a stock no longer listed, skipped", trade.getId());
+                continue;
+            }
+            long valueCents = Money.times(trade.getPriceCents(), trade.getQuantity());
+            int quantity = Math.toIntExact(trade.getQuantity());
+
+            GameSession buyer = sessions.get(trade.getBuyerSessionId());
+            GameSession seller = sessions.get(trade.getSellerSessionId());
+            if (buyer == null || seller == null) {
+                logger.warn("Tournament trade {} references a deleted session, skipped", trade.getId());
+                continue;
+            }
+            cashCents.merge(buyer.getId(), -valueCents, Money::plus);
+            cashCents.merge(seller.getId(), valueCents, Money::plus);
+
+            Holding bought = holdings.computeIfAbsent(buyer.getId(), holdingRepository::findByGameSessionIdKeyedByStockId)
+                .computeIfAbsent(stock.getId(), stockId -> new Holding(null, buyer, stock, 0, null));
+            addShares(bought, quantity, trade.getPriceCents());
+            touched.add(bought);
+
+            Holding sold = holdings.computeIfAbsent(seller.getId(), holdingRepository::findByGameSessionIdKeyedByStockId)
+                .get(stock.getId());
+            if (sold != null) {
+                // The market only lets a session sell shares it holds, so this never goes negative
+                sold.setShares(Math.max(0, sold.getShares() - quantity));
+                touched.add(sold);
+            } else {
+                logger.warn("Tournament trade {}: seller {} holds no {}", trade.getId(), seller.getId(), stock.getSymbol());
+            }
+
+            transactions.add(transaction(buyer, stock, TransactionType.BUY, quantity, trade.getPriceCents(), valueCents));
+            transactions.add(transaction(seller, stock, TransactionType.SELL, quantity, trade.getPriceCents(), valueCents));
+        }
+
+        cashCents.forEach((id, cents) -> sessions.get(id).setCurrentCapital(Money.toBigDecimal(cents)));
+        gameSessionRepository.saveAll(sessions.values());
+        List<Holding> kept = new ArrayList<>(touched.size());
+        List<Holding> emptied = new ArrayList<>();
+        for (Holding holding : touched) {
+            if (holding.getShares() > 0) {
+                kept.add(holding);
+            } else if (holding.getId() != null) {
+                emptied.add(holding);
+            }
+        }
+        holdingRepository.saveAll(kept);
+        holdingRepository.deleteAll(emptied);
+        transactionRepository.saveAll(transactions);
+        if (lastSequence > 0) {
+            LedgerCheckpoint checkpoint = new LedgerCheckpoint();
+            checkpoint.setJournalId(journal.journalId());
+            checkpoint.setLastSequence(lastSequence);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            ledgerCheckpointRepository.save(checkpoint);
+        }
+
+        AfterCommit.run(() -> touched.forEach(holding -> sessionLedger.applyPosition(holding.getGameSession().getId(),
+            holding.getStock().getId(), holding.getShares(), holding.getAveragePrice())));
+    }
+
+    private static void addShares(Holding holding, int quantity, long priceCents) {
+        long heldValueCents = holding.getShares() > 0
+            ? Money.times(Money.ofBigDecimal(holding.getAveragePrice()), holding.getShares())
+            : 0;
+        int totalShares = Math.addExact(holding.getShares(), quantity);
+        long averageCents = Money.divideHalfUp(Money.plus(heldValueCents, Money.times(priceCents, quantity)), totalShares);
+        holding.setShares(totalShares);
+        holding.setAveragePrice(Money.toBigDecimal(averageCents));
+    }
+
+    private static Transaction transaction(GameSession gameSession, Stock stock, TransactionType type,
+                                           int shares, long priceCents, long valueCents) {
+        Transaction transaction = new Transaction();
+        transaction.setGameSession(gameSession);
+        transaction.setStock(stock);
+        transaction.setTransactionType(type);
+        transaction.setShares(shares);
+        transaction.setPricePerShare(Money.toBigDecimal(priceCents));
+        transaction.setTotalValue(Money.toBigDecimal(valueCents));
+        return transaction;
+    }
+
+    private Tournament tournament(UUID tournamentId) {
+        Tournament tournament = tournaments.get(tournamentId);
+        if (tournament == null) {
+            throw new ResourceNotFoundException("Tournament", "id", tournamentId);
+        }
+        return tournament;
+    }
+
+    private static OrderStatus status(TournamentMarket.OrderResult result) {
+        if (result.getFilledQuantity() == result.getRequestedQuantity()) {
+            return OrderStatus.FILLED;
+        }
+        if (result.getFilledQuantity() > 0) {
+            return OrderStatus.PARTIALLY_FILLED;
+        }
+        return result.getRestingQuantity() > 0 ? OrderStatus.RESTING : OrderStatus.CANCELLED;
+    }
+
+    private TournamentDTO toDTO(Tournament tournament) {
+        long[] lastPrices = await(tournament.market.lastPrices());
+        List<TournamentDTO.Entry> entries = new ArrayList<>(tournament.stocks.length);
+        for (int i = 0; i < tournament.stocks.length; i++) {
+            Stock stock = tournament.stocks[i];
+            entries.add(new TournamentDTO.Entry(stock.getId(), stock.getSymbol(), stock.getCompanyName(),
+                stock.getSector(), Money.toBigDecimal(lastPrices[i])));
+        }
+        return new TournamentDTO(tournament.market.getId(), tournament.participants.size(), entries);
+    }
+
+    private static TournamentTradeDTO toDTO(Tournament tournament, TournamentMarket.Trade trade) {
+        Stock stock = tournament.stocks[trade.getSymbol()];
+        return new TournamentTradeDTO(trade.getId(), stock.getId(), stock.getSymbol(),
+            Money.toBigDecimal(trade.getPriceCents()), trade.getQuantity(),
+            trade.isBuyerInitiated() ? TransactionType.BUY : TransactionType.SELL, trade.getTimestamp());
+    }
+
+    private static List<OrderBookDTO.Level> toLevels(long[][] rows) {
+        List<OrderBookDTO.Level> levels = new ArrayList<>(rows.length);
+        for (long[] row : rows) {
+            levels.add(new OrderBookDTO.Level(Money.toBigDecimal(row[0]), row[1], row[2]));
+        }
+        return levels;
+    }
+
+    /**
+     * Wait for a market command, rethrowing its own exception (e.g. InsufficientFundsException) unwrapped
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Tournament {
+        private final Stock[] stocks;
+        private final long[] openingPrices;
+        private final Map<UUID, Integer> symbolByStockId;
+        private final Set<UUID> participants = ConcurrentHashMap.newKeySet();
+        private TournamentMarket market;
+
+        private Tournament(Stock[] stocks, long[] openingPrices) {
+            this.stocks = stocks;
+            this.openingPrices = openingPrices;
+            Map<UUID, Integer> symbols = new HashMap<>(stocks.length * 2);
+            for (int i = 0; i < stocks.length; i++) {
+                symbols.put(stocks[i].getId(), i);
+            }
+            this.symbolByStockId = Collections.unmodifiableMap(symbols);
+        }
+
+        private int symbol(UUID stockId) {
+            Integer symbol = symbolByStockId.get(stockId);
+            if (symbol == null) {
+                throw new ResourceNotFoundException("Stock", "id", stockId);
+            }
+            return symbol;
+        }
+    }
+
+    /**
+     * A trade waiting for settlement, journaled as
+     * [u8 version][i64 x2 tournament id][i64 x2 stock id][i64 x2 buyer][i64 x2 seller][i64 trade id]
+     * [i64 price cents][i64 quantity][u8 buyer initiated][i64 timestamp millis]
+     */
+    private static final class PendingTrade {
+        private static final byte FORMAT_VERSION = 1;
+
+        private final UUID tournamentId;
+        private final UUID stockId;
+        // Null if the stock is no longer in the catalog
+        private final Stock stock;
+        private final TournamentMarket.Trade trade;
+        // Journal sequence, or 0 if the journal could not take it
+        private long sequence;
+
+        private PendingTrade(UUID tournamentId, Stock stock, TournamentMarket.Trade trade) {
+            this(tournamentId, stock.getId(), stock, trade);
+        }
+
+        private PendingTrade(UUID tournamentId, UUID stockId, Stock stock, TournamentMarket.Trade trade) {
+            this.tournamentId = tournamentId;
+            this.stockId = stockId;
+            this.stock = stock;
+            this.trade = trade;
+        }
+
+        private byte[] encode() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(106);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(FORMAT_VERSION);
+                writeUuid(out, tournamentId);
+                writeUuid(out, stockId);
+                writeUuid(out, trade.getBuyerSessionId());
+                writeUuid(out, trade.getSellerSessionId());
+                out.writeLong(trade.getId());
+                out.writeLong(trade.getPriceCents());
+                out.writeLong(trade.getQuantity());
+                out.writeBoolean(trade.isBuyerInitiated());
+                out.writeLong(trade.getTimestamp());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static PendingTrade decode(long sequence, byte[] payload, StockCatalog stockCatalog) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown tournament journal entry format " + version);
+            }
+            UUID tournamentId = readUuid(in);
+            UUID stockId = readUuid(in);
+            UUID buyerSessionId = readUuid(in);
+            UUID sellerSessionId = readUuid(in);
+            long tradeId = in.readLong();
+            long priceCents = in.readLong();
+            long quantity = in.readLong();
+            boolean buyerInitiated = in.readBoolean();
+            long timestamp = in.readLong();
+            int index = stockCatalog.indexOf(stockId);
+            // The tournament (and so its symbol numbering) did not survive the restart
+            TournamentMarket.Trade trade = new TournamentMarket.Trade(tradeId, -1, priceCents, quantity,
+                buyerSessionId, sellerSessionId, buyerInitiated, timestamp);
+            PendingTrade pending = new PendingTrade(tournamentId, stockId, index >= 0 ? stockCatalog.get(index) : null, trade);
+            pending.sequence = sequence;
+            return pending;
+        }
+
+        private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        }
+
+        private static UUID readUuid(DataInputStream in) throws IOException {
+            return new UUID(in.readLong(), in.readLong());
+        }
+    }
+}
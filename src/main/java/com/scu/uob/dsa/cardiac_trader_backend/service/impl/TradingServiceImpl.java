@@ -1,265 +1,319 @@
 package com.scu.uob.dsa.cardiac_trader_backend.service.impl;
 
+import com.scu.uob.dsa.cardiac_trader_backend.cache.PortfolioValuation;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.RoundMarketCache;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.SessionLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.StockCatalog;
+import com.scu.uob.dsa.cardiac_trader_backend.cache.TradeLedger;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeRequestDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.BatchTradeResponseDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.HoldingDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.PortfolioDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeRequestDTO;
 import com.scu.uob.dsa.cardiac_trader_backend.dto.TradeResponseDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.MarketTickEngine;
+import com.scu.uob.dsa.cardiac_trader_backend.enums.BatchMode;
 import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientSharesException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.LimitPriceNotReachedException;
 import com.scu.uob.dsa.cardiac_trader_backend.exception.ResourceNotFoundException;
-import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
-import com.scu.uob.dsa.cardiac_trader_backend.model.Holding;
 import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
-import com.scu.uob.dsa.cardiac_trader_backend.model.Transaction;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.HoldingRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.MarketSnapshotRepository;
 import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
-import com.scu.uob.dsa.cardiac_trader_backend.repository.TransactionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.MarketStreamService;
 import com.scu.uob.dsa.cardiac_trader_backend.service.TradingService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+/**
+ * Trades go through the TradeLedger: checked against the session's in-memory cash and holdings and
+ * acknowledged once journaled, while the ledger writes them to the database in the background.
+ */
 @Service
 public class TradingServiceImpl implements TradingService {
 
-    private final GameSessionRepository gameSessionRepository;
+    private final TradeLedger tradeLedger;
+    private final StockCatalog stockCatalog;
     private final StockRepository stockRepository;
-    private final HoldingRepository holdingRepository;
-    private final TransactionRepository transactionRepository;
+    private final RoundMarketCache roundMarketCache;
+    private final MarketSnapshotRepository marketSnapshotRepository;
+    private final SessionLedger sessionLedger;
+    private final MarketTickEngine marketTickEngine;
+    private final MarketStreamService marketStreamService;
+    private final PortfolioValuation portfolioValuation;
+
+    @Value("${trading.batch.max-size:50}")
+    private int maxBatchSize;
 
     public TradingServiceImpl(
-            GameSessionRepository gameSessionRepository,
+            TradeLedger tradeLedger,
+            StockCatalog stockCatalog,
             StockRepository stockRepository,
-            HoldingRepository holdingRepository,
-            TransactionRepository transactionRepository) {
-        this.gameSessionRepository = gameSessionRepository;
+            RoundMarketCache roundMarketCache,
+            MarketSnapshotRepository marketSnapshotRepository,
+            SessionLedger sessionLedger,
+            MarketTickEngine marketTickEngine,
+            MarketStreamService marketStreamService,
+            PortfolioValuation portfolioValuation) {
+        this.tradeLedger = tradeLedger;
+        this.stockCatalog = stockCatalog;
         this.stockRepository = stockRepository;
-        this.holdingRepository = holdingRepository;
-        this.transactionRepository = transactionRepository;
+        this.roundMarketCache = roundMarketCache;
+        this.marketSnapshotRepository = marketSnapshotRepository;
+        this.sessionLedger = sessionLedger;
+        this.marketTickEngine = marketTickEngine;
+        this.marketStreamService = marketStreamService;
+        this.portfolioValuation = portfolioValuation;
     }
 
     @Override
-    @Transactional
-    @SuppressWarnings("null")
     public TradeResponseDTO buyStock(UUID sessionId, TradeRequestDTO request)
             throws ResourceNotFoundException, InsufficientFundsException {
-        
-        GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
-
-        Stock stock = stockRepository.findById(request.getStockId())  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", request.getStockId()));
-
-        if (stock.getMarketPrice() == null) {
-            throw new RuntimeException("Stock price not available");
-        }
-
-        BigDecimal totalCost = stock.getMarketPrice()
-            .multiply(BigDecimal.valueOf(request.getShares()));
-
-        // Check if user has enough cash
-        BigDecimal availableCash = gameSession.getCurrentCapital() != null ? 
-            gameSession.getCurrentCapital() : BigDecimal.ZERO;
-        
-        if (totalCost.compareTo(availableCash) > 0) {
-            throw new InsufficientFundsException(
-                availableCash.doubleValue(), 
-                totalCost.doubleValue());
-        }
-
-        // Update game session cash
-        gameSession.setCurrentCapital(availableCash.subtract(totalCost));
-        gameSessionRepository.save(gameSession);
-
-        // Update or create holding
-        Holding holding = holdingRepository
-            .findByGameSessionIdAndStockId(sessionId, request.getStockId())
-            .orElse(null);
-
-        if (holding == null) {
-            holding = new Holding();
-            holding.setGameSession(gameSession);
-            holding.setStock(stock);
-            holding.setShares(request.getShares());
-            holding.setAveragePrice(stock.getMarketPrice());
-        } else {
-            // Calculate weighted average price
-            BigDecimal oldTotalValue = holding.getAveragePrice()
-                .multiply(BigDecimal.valueOf(holding.getShares()));
-            BigDecimal newTotalValue = totalCost;
-            int totalShares = holding.getShares() + request.getShares();
-            
-            BigDecimal newAveragePrice = oldTotalValue
-                .add(newTotalValue)
-                .divide(BigDecimal.valueOf(totalShares), 2, RoundingMode.HALF_UP);
-            
-            holding.setShares(totalShares);
-            holding.setAveragePrice(newAveragePrice);
-        }
-        holdingRepository.save(holding);
-
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setGameSession(gameSession);
-        transaction.setStock(stock);
-        transaction.setTransactionType(TransactionType.BUY);
-        transaction.setShares(request.getShares());
-        transaction.setPricePerShare(stock.getMarketPrice());
-        transaction.setTotalValue(totalCost);
-        transaction = transactionRepository.save(transaction);
-
-        // Build response
-        TradeResponseDTO response = new TradeResponseDTO();
-        response.setTransactionId(transaction.getId());
-        response.setStockId(stock.getId());
-        response.setStockSymbol(stock.getSymbol());
-        response.setTransactionType(TransactionType.BUY);
-        response.setShares(request.getShares());
-        response.setPricePerShare(stock.getMarketPrice());
-        response.setTotalValue(totalCost);
-        response.setRemainingCash(gameSession.getCurrentCapital());
-        response.setTimestamp(transaction.getTimestamp());
-        response.setMessage("Successfully purchased " + request.getShares() + " shares of " + stock.getSymbol());
-
-        return response;
+        return trade(sessionId, TransactionType.BUY, request, null, null);
     }
 
     @Override
-    @Transactional
-    @SuppressWarnings("null")
     public TradeResponseDTO sellStock(UUID sessionId, TradeRequestDTO request)
             throws ResourceNotFoundException, InsufficientSharesException {
-        
-        GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
+        return trade(sessionId, TransactionType.SELL, request, null, null);
+    }
 
-        Stock stock = stockRepository.findById(request.getStockId())  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", request.getStockId()));
+    @Override
+    public TradeResponseDTO fillConditionalOrder(UUID sessionId, UUID orderId, TransactionType side,
+                                                 TradeRequestDTO request, Long limitPriceCents) {
+        return trade(sessionId, side, request, orderId, limitPriceCents);
+    }
 
-        if (stock.getMarketPrice() == null) {
-            throw new RuntimeException("Stock price not available");
+    /**
+     * One trade through the ledger: checked and applied in memory, acknowledged once journaled
+     */
+    private TradeResponseDTO trade(UUID sessionId, TransactionType side, TradeRequestDTO request, UUID orderId,
+                                   Long limitPriceCents) {
+        Stock stock = resolveStock(request.getStockId());
+        long priceCents = priceCents(sessionId, request.getStockId());
+        // The ledger trades at exactly this price, so checking it here is enough
+        if (limitPriceCents != null
+                && (side == TransactionType.BUY ? priceCents > limitPriceCents : priceCents < limitPriceCents)) {
+            throw new LimitPriceNotReachedException(String.format("Price %s is %s the order's limit %s",
+                Money.toBigDecimal(priceCents), side == TransactionType.BUY ? "above" : "below",
+                Money.toBigDecimal(limitPriceCents)), priceCents, limitPriceCents);
         }
+        TradeLedger.Outcome outcome = tradeLedger.execute(sessionId,
+            List.of(new TradeLedger.Trade(stock, side, request.getShares(), priceCents, orderId)), true);
+        TradeLedger.TradeResult result = outcome.results().get(0);
+        if (!result.executed()) {
+            throw result.failure();
+        }
+        publishPosition(sessionId, stock, result.fill(), outcome.cashCents());
+        return mapToDTO(stock, result, outcome);
+    }
 
-        // Find holding
-        Holding holding = holdingRepository
-            .findByGameSessionIdAndStockId(sessionId, request.getStockId())
-            .orElseThrow(() -> new InsufficientSharesException(0, request.getShares()));
+    @Override
+    public BatchTradeResponseDTO executeBatch(UUID sessionId, BatchTradeRequestDTO request)
+            throws ResourceNotFoundException {
+        List<BatchTradeRequestDTO.Trade> trades = request.getTrades();
+        if (trades.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Too many trades in batch (limit: " + maxBatchSize + ")");
+        }
+        BatchMode mode = request.getMode() != null ? request.getMode() : BatchMode.ATOMIC;
+        boolean atomic = mode == BatchMode.ATOMIC;
+
+        // Resolve stocks and prices first; one price per stock for the whole batch, even if the engine ticks meanwhile
+        Map<UUID, Long> prices = new HashMap<>();
+        List<TradeLedger.Trade> ledgerTrades = new ArrayList<>(trades.size());
+        int[] indexes = new int[trades.size()];
+        String[] errors = new String[trades.size()];
+        int failedCount = 0;
+        for (int i = 0; i < trades.size(); i++) {
+            BatchTradeRequestDTO.Trade trade = trades.get(i);
+            try {
+                Stock stock = resolveStock(trade.getStockId());
+                long priceCents = prices.computeIfAbsent(trade.getStockId(), id -> priceCents(sessionId, id));
+                indexes[ledgerTrades.size()] = i;
+                ledgerTrades.add(new TradeLedger.Trade(stock, trade.getSide(), trade.getShares(), priceCents, null));
+            } catch (ResourceNotFoundException e) {
+                errors[i] = e.getMessage();
+                failedCount++;
+            }
+        }
 
-        // Check if user owns enough shares
-        if (holding.getShares() < request.getShares()) {
-            throw new InsufficientSharesException(
-                holding.getShares(), 
-                request.getShares());
+        BatchTradeResponseDTO response = new BatchTradeResponseDTO();
+        response.setMode(mode);
+        List<BatchTradeResponseDTO.Result> results = new ArrayList<>(trades.size());
+        if (atomic && failedCount > 0) {
+            // Nothing was traded, so refusing the batch needs no rollback
+            for (int i = 0; i < trades.size(); i++) {
+                results.add(new BatchTradeResponseDTO.Result(i, false, null, errors[i]));
+            }
+            response.setCommitted(false);
+            response.setFailedCount(failedCount);
+            response.setRemainingCash(Money.toBigDecimal(tradeLedger.view(sessionId).cashCents()));
+            response.setResults(results);
+            return response;
         }
 
-        BigDecimal totalRevenue = stock.getMarketPrice()
-            .multiply(BigDecimal.valueOf(request.getShares()));
+        // Cash and shares are checked cumulatively in the ledger, which journals the whole batch as one entry
+        TradeLedger.Outcome outcome = tradeLedger.execute(sessionId, ledgerTrades, atomic);
+        BatchTradeResponseDTO.Result[] byIndex = new BatchTradeResponseDTO.Result[trades.size()];
+        Map<UUID, TradeLedger.Fill> lastFills = new LinkedHashMap<>();
+        int executedCount = 0;
+        for (int t = 0; t < ledgerTrades.size(); t++) {
+            int index = indexes[t];
+            TradeLedger.TradeResult result = outcome.results().get(t);
+            if (result.executed()) {
+                executedCount++;
+                lastFills.put(result.fill().stockId(), result.fill());
+                byIndex[index] = new BatchTradeResponseDTO.Result(index, true,
+                    mapToDTO(ledgerTrades.get(t).stock(), result, outcome), null);
+            } else {
+                if (result.failure() != null) {
+                    failedCount++;
+                }
+                byIndex[index] = new BatchTradeResponseDTO.Result(index, false, null,
+                    result.failure() != null ? result.failure().getMessage() : null);
+            }
+        }
+        for (int i = 0; i < trades.size(); i++) {
+            results.add(byIndex[i] != null ? byIndex[i] : new BatchTradeResponseDTO.Result(i, false, null, errors[i]));
+        }
+        for (TradeLedger.Fill fill : lastFills.values()) {
+            publishPosition(sessionId, resolveStock(fill.stockId()), fill, outcome.cashCents());
+        }
 
-        // Update game session cash
-        BigDecimal currentCash = gameSession.getCurrentCapital() != null ? 
-            gameSession.getCurrentCapital() : BigDecimal.ZERO;
-        gameSession.setCurrentCapital(currentCash.add(totalRevenue));
-        gameSessionRepository.save(gameSession);
+        response.setCommitted(!atomic || executedCount == ledgerTrades.size());
+        response.setExecutedCount(executedCount);
+        response.setFailedCount(failedCount);
+        response.setRemainingCash(Money.toBigDecimal(outcome.cashCents()));
+        response.setResults(results);
+        return response;
+    }
 
-        // Update holding
-        int remainingShares = holding.getShares() - request.getShares();
-        if (remainingShares == 0) {
-            holdingRepository.delete(holding);
-        } else {
-            holding.setShares(remainingShares);
-            holdingRepository.save(holding);
+    /**
+     * Stocks come from the catalog; only stocks added to the database after startup cost a query
+     */
+    private Stock resolveStock(UUID stockId) {
+        int index = stockCatalog.indexOf(stockId);
+        if (index >= 0) {
+            return stockCatalog.get(index);
         }
+        return stockRepository.findById(stockId)  // NOSONAR - orElseThrow guarantees non-null
+            .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", stockId));
+    }
 
-        // Create transaction record
-        Transaction transaction = new Transaction();
-        transaction.setGameSession(gameSession);
-        transaction.setStock(stock);
-        transaction.setTransactionType(TransactionType.SELL);
-        transaction.setShares(request.getShares());
-        transaction.setPricePerShare(stock.getMarketPrice());
-        transaction.setTotalValue(totalRevenue);
-        transaction = transactionRepository.save(transaction);
+    /**
+     * Live price of a stock for the session, in cents: the tick engine's price, based on the cached round
+     * market or, for stocks of earlier rounds, the session's latest snapshot of the stock
+     */
+    private long priceCents(UUID sessionId, UUID stockId) {
+        long baseCents = roundMarketCache.get(sessionId)
+            .flatMap(market -> market.getQuotes().stream()
+                .filter(quote -> quote.getStockId().equals(stockId))
+                .findFirst())
+            .map(quote -> Money.ofBigDecimal(quote.getMarketPrice()))
+            .orElseGet(() -> marketSnapshotRepository
+                .findFirstByGameSessionIdAndStockIdOrderByRoundNumberDesc(sessionId, stockId)
+                .map(snapshot -> Money.ofBigDecimal(snapshot.getMarketPrice()))
+                .orElseThrow(() -> new ResourceNotFoundException("Stock", "id", stockId)));
+        return marketTickEngine.currentPriceCents(sessionId, stockId, baseCents);
+    }
 
-        // Build response
+    private TradeResponseDTO mapToDTO(Stock stock, TradeLedger.TradeResult result, TradeLedger.Outcome outcome) {
+        TradeLedger.Fill fill = result.fill();
+        boolean buy = fill.side() == TransactionType.BUY;
         TradeResponseDTO response = new TradeResponseDTO();
-        response.setTransactionId(transaction.getId());
+        response.setTransactionId(fill.transactionId());
         response.setStockId(stock.getId());
         response.setStockSymbol(stock.getSymbol());
-        response.setTransactionType(TransactionType.SELL);
-        response.setShares(request.getShares());
-        response.setPricePerShare(stock.getMarketPrice());
-        response.setTotalValue(totalRevenue);
-        response.setRemainingCash(gameSession.getCurrentCapital());
-        response.setTimestamp(transaction.getTimestamp());
-        response.setMessage("Successfully sold " + request.getShares() + " shares of " + stock.getSymbol());
-
+        response.setTransactionType(fill.side());
+        response.setShares(fill.shares());
+        response.setPricePerShare(Money.toBigDecimal(fill.priceCents()));
+        response.setTotalValue(Money.toBigDecimal(Money.times(fill.priceCents(), fill.shares())));
+        response.setRemainingCash(Money.toBigDecimal(result.cashAfterCents()));
+        response.setTimestamp(outcome.timestamp());
+        response.setMessage((buy ? "Successfully purchased " : "Successfully sold ")
+            + fill.shares() + " shares of " + stock.getSymbol());
         return response;
     }
 
+    /**
+     * Mirror the durable position into the in-memory session positions and the session's market stream
+     */
+    private void publishPosition(UUID sessionId, Stock stock, TradeLedger.Fill fill, long cashCents) {
+        BigDecimal averagePrice = Money.toBigDecimal(fill.averagePriceAfterCents());
+        sessionLedger.applyPosition(sessionId, stock.getId(), fill.sharesAfter(), averagePrice);
+        marketStreamService.publishPosition(sessionId, stock.getId(), fill.sharesAfter(), averagePrice,
+            Money.toBigDecimal(cashCents));
+    }
+
     @Override
-    @SuppressWarnings("null")
     public PortfolioDTO getPortfolio(UUID sessionId) throws ResourceNotFoundException {
-        GameSession gameSession = gameSessionRepository.findById(sessionId)  // NOSONAR - orElseThrow guarantees non-null
-            .orElseThrow(() -> new ResourceNotFoundException("GameSession", "id", sessionId));
-
-        List<Holding> holdings = holdingRepository.findByGameSessionId(sessionId);
-
-        // Calculate cash
-        BigDecimal cash = gameSession.getCurrentCapital() != null ? 
-            gameSession.getCurrentCapital() : BigDecimal.ZERO;
-
-        // Calculate stock values
-        BigDecimal totalStockValue = BigDecimal.ZERO;
-        List<HoldingDTO> holdingDTOs = holdings.stream()
-            .map(holding -> {
-                BigDecimal currentPrice = holding.getStock().getMarketPrice() != null ?
-                    holding.getStock().getMarketPrice() : 
-                    (holding.getStock().getActualHeartCount() != null ?
-                        holding.getStock().calculateTruePrice() : BigDecimal.ZERO);
-                
-                BigDecimal totalValue = currentPrice.multiply(BigDecimal.valueOf(holding.getShares()));
-                BigDecimal costBasis = holding.getAveragePrice().multiply(BigDecimal.valueOf(holding.getShares()));
-                BigDecimal profitLoss = totalValue.subtract(costBasis);
-                
-                BigDecimal profitLossPercentage = costBasis.compareTo(BigDecimal.ZERO) > 0 ?
-                    profitLoss.divide(costBasis, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)) :
-                    BigDecimal.ZERO;
-
-                HoldingDTO dto = new HoldingDTO();
-                dto.setStockId(holding.getStock().getId());
-                dto.setSymbol(holding.getStock().getSymbol());
-                dto.setCompanyName(holding.getStock().getCompanyName());
-                dto.setShares(holding.getShares());
-                dto.setAveragePrice(holding.getAveragePrice());
-                dto.setCurrentPrice(currentPrice);
-                dto.setTotalValue(totalValue);
-                dto.setProfitLoss(profitLoss);
-                dto.setProfitLossPercentage(profitLossPercentage);
-                return dto;
-            })
-            .collect(Collectors.toList());
-
-        // Sum total stock value
-        totalStockValue = holdingDTOs.stream()
-            .map(HoldingDTO::getTotalValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalPortfolioValue = cash.add(totalStockValue);
+        // Running valuation while the session trades, otherwise computed from the database
+        PortfolioValuation.Portfolio portfolio = portfolioValuation.portfolio(sessionId)
+            .orElseGet(() -> valuePortfolio(sessionId));
+
+        List<HoldingDTO> holdingDTOs = new ArrayList<>(portfolio.holdings().size());
+        for (PortfolioValuation.Holding holding : portfolio.holdings()) {
+            Stock stock = holding.stock();
+            HoldingDTO dto = new HoldingDTO();
+            dto.setStockId(stock.getId());
+            dto.setSymbol(stock.getSymbol());
+            dto.setCompanyName(stock.getCompanyName());
+            dto.setShares(holding.shares());
+            dto.setAveragePrice(Money.toBigDecimal(holding.averagePriceCents()));
+            dto.setCurrentPrice(Money.toBigDecimal(holding.priceCents()));
+            dto.setTotalValue(Money.toBigDecimal(holding.valueCents()));
+            dto.setProfitLoss(Money.toBigDecimal(holding.profitLossCents()));
+            // Percentage with two decimals, same scale as the money fields
+            dto.setProfitLossPercentage(Money.toBigDecimal(holding.profitLossHundredths()));
+            holdingDTOs.add(dto);
+        }
 
-        PortfolioDTO portfolio = new PortfolioDTO();
-        portfolio.setCash(cash);
-        portfolio.setTotalStockValue(totalStockValue);
-        portfolio.setTotalPortfolioValue(totalPortfolioValue);
-        portfolio.setHoldings(holdingDTOs);
+        PortfolioDTO dto = new PortfolioDTO();
+        dto.setCash(Money.toBigDecimal(portfolio.cashCents()));
+        dto.setTotalStockValue(Money.toBigDecimal(portfolio.stockValueCents()));
+        dto.setTotalPortfolioValue(Money.toBigDecimal(portfolio.totalValueCents()));
+        dto.setHoldings(holdingDTOs);
+        return dto;
+    }
 
-        return portfolio;
+    /**
+     * Value a session that is not loaded in the trade ledger: positions from the database, priced at the
+     * live prices of its latest round
+     */
+    private PortfolioValuation.Portfolio valuePortfolio(UUID sessionId) {
+        TradeLedger.View view = tradeLedger.view(sessionId);
+
+        // Current prices (in cents) of the session's latest round, by stock
+        Map<UUID, Long> prices = new HashMap<>();
+        marketSnapshotRepository.findLatestRoundNumber(sessionId)
+            .map(round -> marketSnapshotRepository.findByGameSessionIdAndRoundNumber(sessionId, round))
+            .ifPresent(snapshots -> snapshots.forEach(
+                snapshot -> prices.put(snapshot.getStock().getId(), marketTickEngine.currentPriceCents(
+                    sessionId, snapshot.getStock().getId(), Money.ofBigDecimal(snapshot.getMarketPrice())))));
+
+        long totalStockValueCents = 0;
+        List<PortfolioValuation.Holding> holdings = new ArrayList<>(view.positions().size());
+        for (TradeLedger.Position position : view.positions()) {
+            long currentPriceCents = prices.getOrDefault(position.stock().getId(), 0L);
+            long totalValueCents = Money.times(currentPriceCents, position.shares());
+            long costBasisCents = Money.times(position.averagePriceCents(), position.shares());
+            long profitLossCents = Money.minus(totalValueCents, costBasisCents);
+            totalStockValueCents = Money.plus(totalStockValueCents, totalValueCents);
+            holdings.add(new PortfolioValuation.Holding(position.stock(), position.shares(),
+                position.averagePriceCents(), currentPriceCents, totalValueCents, profitLossCents,
+                Money.percentHundredths(profitLossCents, costBasisCents)));
+        }
+        return new PortfolioValuation.Portfolio(view.cashCents(), totalStockValueCents,
+            Money.plus(view.cashCents(), totalStockValueCents), holdings);
     }
 }
-
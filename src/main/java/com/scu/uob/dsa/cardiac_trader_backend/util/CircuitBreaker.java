@@ -0,0 +1,166 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit Breaker
+ * Count-based circuit breaker: opens when the failure rate over the last N calls
+ * crosses the threshold, rejects calls while open, then lets a few trial calls
+ * through (half-open) to decide whether to close again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,       // Calls pass through, outcomes are recorded
+        OPEN,         // Calls are rejected immediately
+        HALF_OPEN     // A limited number of trial calls are allowed
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenTrialCalls;
+
+    // Ring buffer of the last windowSize outcomes (true = failure)
+    private final boolean[] outcomes;
+    private int nextIndex;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long stateSince = System.currentTimeMillis();
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    private final long[] timeInStateMillis = new long[State.values().length];
+    private final long[] transitionsTo = new long[State.values().length];
+    private long rejectedCalls;
+
+    /**
+     * @param windowSize Number of recent calls the failure rate is computed over
+     * @param minimumCalls Calls required in the window before the breaker may open
+     * @param failureRateThreshold Failure percentage (0-100) at which the breaker opens
+     * @param openDurationMillis How long to stay open before allowing trial calls
+     * @param halfOpenTrialCalls Successful trial calls needed to close again
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openDurationMillis, int halfOpenTrialCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenTrialCalls = Math.max(1, halfOpenTrialCalls);
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Ask whether a call may proceed; every granted call must report onSuccess() or onFailure()
+     */
+    public synchronized boolean tryAcquirePermission() {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            if (now - stateSince < openDurationMillis) {
+                rejectedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN, now);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenTrialCalls) {
+                rejectedCalls++;
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (++halfOpenSuccesses >= halfOpenTrialCalls) {
+                transitionTo(State.CLOSED, System.currentTimeMillis());
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN, System.currentTimeMillis());
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRateThreshold) {
+                transitionTo(State.OPEN, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * A granted call was abandoned before it had an outcome: free its trial slot without recording anything
+     */
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * State, failure rate, rejected calls, transition counts and time spent per state
+     */
+    public synchronized Map<String, Object> snapshot() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", state.name());
+        result.put("failureRate", recorded > 0 ? failures * 100.0 / recorded : 0.0);
+        result.put("callsInWindow", recorded);
+        result.put("rejectedCalls", rejectedCalls);
+
+        Map<String, Long> transitions = new LinkedHashMap<>();
+        Map<String, Long> timeInState = new LinkedHashMap<>();
+        for (State s : State.values()) {
+            transitions.put(s.name(), transitionsTo[s.ordinal()]);
+            long time = timeInStateMillis[s.ordinal()] + (s == state ? now - stateSince : 0);
+            timeInState.put(s.name(), time);
+        }
+        result.put("transitionsTo", transitions);
+        result.put("timeInStateMs", timeInState);
+        return result;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (outcomes[nextIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[nextIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextIndex = (nextIndex + 1) % windowSize;
+    }
+
+    private void transitionTo(State next, long now) {
+        timeInStateMillis[state.ordinal()] += now - stateSince;
+        transitionsTo[next.ordinal()]++;
+        state = next;
+        stateSince = now;
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.CLOSED) {
+            recorded = 0;
+            failures = 0;
+            nextIndex = 0;
+        }
+    }
+}
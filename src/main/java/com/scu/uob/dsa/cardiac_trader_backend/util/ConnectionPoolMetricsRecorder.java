@@ -0,0 +1,51 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connection Pool Metrics Recorder
+ * Keeps a handle on each Reactor Netty connection pool so its live gauges
+ * (active, idle, pending) can be reported without a metrics library.
+ */
+public class ConnectionPoolMetricsRecorder implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(key(poolName, remoteAddress), metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(key(poolName, remoteAddress));
+    }
+
+    /**
+     * Current gauges of every registered pool, keyed by pool name and remote address
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        pools.forEach((key, metrics) -> {
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("acquired", metrics.acquiredSize());
+            pool.put("allocated", metrics.allocatedSize());
+            pool.put("idle", metrics.idleSize());
+            pool.put("pendingAcquire", metrics.pendingAcquireSize());
+            pool.put("maxAllocated", metrics.maxAllocatedSize());
+            pool.put("maxPendingAcquire", metrics.maxPendingAcquireSize());
+            result.put(key, pool);
+        });
+        return result;
+    }
+
+    private String key(String poolName, SocketAddress remoteAddress) {
+        return poolName + "@" + remoteAddress;
+    }
+}
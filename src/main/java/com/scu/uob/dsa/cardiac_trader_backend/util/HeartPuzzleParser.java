@@ -0,0 +1,233 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService.HeartPuzzle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Heart API Response Parser
+ * Turns a Heart Game API JSON response into a HeartPuzzle.
+ * Shared by the blocking and reactive Heart API clients.
+ *
+ * The body is read as a token stream: only the image and solution fields are
+ * consumed, and the base64 image is decoded from the parser's character buffer
+ * straight into a byte array, so the payload is never materialised as a String,
+ * Map or data URI. An image sent as a data URI ("data:image/png;base64,...") is
+ * decoded from after its comma.
+ */
+@Component
+public class HeartPuzzleParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeartPuzzleParser.class);
+
+    // Possible field names in order of preference
+    // According to Heart API docs, when base64=yes, the image is in "question" key
+    private static final List<String> IMAGE_KEYS = List.of(
+        "question", "image", "imageBase64", "image_base64", "base64", "data", "imageData", "heart_image", "heartImage");
+    private static final List<String> SOLUTION_KEYS = List.of(
+        "solution", "answer", "correctAnswer", "correct_answer", "result", "heart_count", "heartCount", "count");
+
+    private static final Base64Variant BASE64 = Base64Variants.MIME_NO_LINEFEEDS;
+    private static final String DATA_URI_PREFIX = "data:";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Builds the puzzle endpoint URL from the configured base URL
+     * Parameters: out=json&base64=yes (returns JSON with base64 encoded image)
+     * According to documentation: https://marcconrad.com/uob/heart/doc.php
+     */
+    public String buildPuzzleUrl(String heartApiUrl) {
+        String url = heartApiUrl + "/api.php?out=json&base64=yes";
+
+        // Ensure we use HTTPS if URL doesn't already specify it
+        if (url.startsWith("http://")) {
+            url = url.replace("http://", "https://");
+            logger.info("Converted HTTP to HTTPS: {}", url);
+        }
+        return url;
+    }
+
+    /**
+     * Parses a Heart API response body
+     * @param body Response body stream (not closed by this method)
+     * @return HeartPuzzle containing the decoded image bytes and correct answer
+     * @throws ExternalAPIException if the body is empty, not a JSON object or malformed
+     */
+    public HeartPuzzle parse(InputStream body) throws ExternalAPIException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                throw new ExternalAPIException("Heart API", "Empty response from Heart API", null);
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new ExternalAPIException("Heart API", "Expected JSON object but received: " + first, null);
+            }
+
+            byte[] image = null;
+            int imageRank = Integer.MAX_VALUE;
+            Integer solution = null;
+            int solutionRank = Integer.MAX_VALUE;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                int rank = IMAGE_KEYS.indexOf(field);
+                if (rank >= 0 && rank < imageRank && value == JsonToken.VALUE_STRING) {
+                    image = readImage(parser);
+                    imageRank = rank;
+                    continue;
+                }
+
+                rank = SOLUTION_KEYS.indexOf(field);
+                if (rank >= 0 && rank < solutionRank) {
+                    Integer parsed = readSolution(parser, value);
+                    if (parsed != null) {
+                        solution = parsed;
+                        solutionRank = rank;
+                    }
+                    continue;
+                }
+
+                // Skip anything else without materialising it
+                parser.skipChildren();
+            }
+
+            if (image == null) {
+                logger.warn("Could not find image data in any of the expected keys: {}", String.join(", ", IMAGE_KEYS));
+                image = new byte[0];
+            }
+            if (solution == null) {
+                logger.warn("Could not find solution in any of the expected keys: {}. Using default value 0",
+                    String.join(", ", SOLUTION_KEYS));
+                solution = 0;
+            }
+
+            // Generate a unique puzzle ID from timestamp
+            String puzzleId = String.valueOf(System.currentTimeMillis());
+            logger.debug("Parsed heart puzzle {}: {} image bytes, solution {}", puzzleId, image.length, solution);
+            return new HeartPuzzle(image, solution, puzzleId);
+        } catch (StreamReadException e) {
+            logger.error("JSON parsing error: {}", e.getOriginalMessage());
+            throw new ExternalAPIException("Heart API",
+                "Failed to parse JSON response: " + e.getOriginalMessage(),
+                null);
+        } catch (IllegalArgumentException e) {
+            // Thrown by the base64 decoder for characters outside the alphabet
+            logger.error("Invalid base64 image in Heart API response: {}", e.getMessage());
+            throw new ExternalAPIException("Heart API",
+                "Invalid base64 image in response: " + e.getMessage(),
+                null);
+        } catch (IOException e) {
+            throw new ExternalAPIException("Heart API",
+                "Failed to read Heart API response: " + e.getMessage(),
+                null);
+        }
+    }
+
+    /**
+     * Decodes the current base64 string token, skipping a data URI prefix if there is one
+     * (JSON escapes such as "\/" are already resolved in the parser's buffer; whitespace is skipped)
+     */
+    private byte[] readImage(JsonParser parser) throws IOException {
+        char[] text = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        if (startsWith(text, start, end, DATA_URI_PREFIX)) {
+            int comma = start;
+            while (comma < end && text[comma] != ',') {
+                comma++;
+            }
+            if (comma == end) {
+                throw new IllegalArgumentException("Data URI image has no comma before its data");
+            }
+            start = comma + 1;
+        }
+        return decodeBase64(text, start, end);
+    }
+
+    private static boolean startsWith(char[] text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes base64 characters, ignoring whitespace and stopping at padding
+     * @throws IllegalArgumentException for characters outside the alphabet or a dangling sixth of a byte
+     */
+    private static byte[] decodeBase64(char[] text, int start, int end) {
+        byte[] image = new byte[(end - start + 3) / 4 * 3];
+        int length = 0;
+        int bits = 0;
+        int buffered = 0;
+        for (int i = start; i < end; i++) {
+            char c = text[i];
+            if (c <= ' ') {
+                continue;
+            }
+            if (c == BASE64.getPaddingChar()) {
+                break;
+            }
+            int value = BASE64.decodeBase64Char(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Illegal character '" + c + "' at index " + (i - start));
+            }
+            bits = bits << 6 | value;
+            if (++buffered == 4) {
+                image[length++] = (byte) (bits >> 16);
+                image[length++] = (byte) (bits >> 8);
+                image[length++] = (byte) bits;
+                bits = 0;
+                buffered = 0;
+            }
+        }
+        if (buffered == 1) {
+            throw new IllegalArgumentException("Truncated base64 image");
+        }
+        if (buffered == 2) {
+            image[length++] = (byte) (bits >> 4);
+        } else if (buffered == 3) {
+            image[length++] = (byte) (bits >> 10);
+            image[length++] = (byte) (bits >> 2);
+        }
+        return length == image.length ? image : Arrays.copyOf(image, length);
+    }
+
+    private Integer readSolution(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getNumberValue().intValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                logger.debug("Could not parse solution value '{}' as integer for key {}", text, parser.currentName());
+                return null;
+            }
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
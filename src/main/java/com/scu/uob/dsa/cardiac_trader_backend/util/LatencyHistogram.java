@@ -0,0 +1,110 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency Histogram
+ * Lock-free histogram with buckets growing by a factor of sqrt(2) (1 ms .. ~65 s),
+ * good enough to read p50/p95/p99 within ~40% without keeping individual samples.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_BOUNDS_MS = buildBounds();
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private static long[] buildBounds() {
+        long[] bounds = new long[32];
+        int size = 0;
+        for (int i = 0; size < bounds.length; i++) {
+            long bound = Math.round(Math.pow(2, i / 2.0));
+            if (size == 0 || bound > bounds[size - 1]) {
+                bounds[size++] = bound;
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Record one sample
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucketOf(micros));
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Estimate a percentile as the upper bound of the bucket it falls in
+     * @param percentile Percentile between 0 and 1 (e.g. 0.95)
+     * @return Latency in milliseconds, or 0 if nothing has been recorded
+     */
+    public long percentileMillis(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return i < BUCKET_BOUNDS_MS.length ? BUCKET_BOUNDS_MS[i] : maxMicros.get() / 1_000;
+            }
+        }
+        return maxMicros.get() / 1_000;
+    }
+
+    /**
+     * Summary (count, mean, percentiles, max) plus the non-empty buckets
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long total = count.sum();
+        result.put("count", total);
+        result.put("meanMs", total > 0 ? sumMicros.sum() / 1_000.0 / total : 0.0);
+        result.put("p50Ms", percentileMillis(0.50));
+        result.put("p95Ms", percentileMillis(0.95));
+        result.put("p99Ms", percentileMillis(0.99));
+        result.put("maxMs", maxMicros.get() / 1_000.0);
+
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length(); i++) {
+            long bucketCount = counts.get(i);
+            if (bucketCount > 0) {
+                buckets.put(i < BUCKET_BOUNDS_MS.length ? "<=" + BUCKET_BOUNDS_MS[i] + "ms" : ">" + BUCKET_BOUNDS_MS[i - 1] + "ms",
+                    bucketCount);
+            }
+        }
+        result.put("buckets", buckets);
+        return result;
+    }
+
+    private static int bucketOf(long micros) {
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            if (micros <= BUCKET_BOUNDS_MS[i] * 1_000) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MS.length;
+    }
+}
@@ -0,0 +1,124 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import com.scu.uob.dsa.cardiac_trader_backend.dto.DeltaFrameDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.PositionFrameDTO;
+import com.scu.uob.dsa.cardiac_trader_backend.dto.SnapshotFrameDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Fixed binary layout of market stream frames (big-endian), for clients on slow links.
+ * Every frame starts with [u8 type][u32 seq][u16 round]; seq and round wrap at their width.
+ * - SNAPSHOT: [u8 count] then per stock
+ *   [u8 index][16 B id][u8 len][symbol][u8 len][company name][u8 sector ordinal][u16 len][image URL][i32 cents]
+ * - DELTA:    [u8 count] then per changed stock [u8 index][i32 cents]
+ * - POSITION: [u8 index][i32 shares][i32 average price cents][i64 cash cents]
+ * Strings are UTF-8, truncated to the width of their length field. A five-stock delta is 33 bytes.
+ */
+public final class MarketFrameCodec {
+
+    public static final byte TYPE_SNAPSHOT = 1;
+    public static final byte TYPE_DELTA = 2;
+    public static final byte TYPE_POSITION = 3;
+
+    // Stock counts and indexes are single unsigned bytes
+    public static final int MAX_STOCKS = 255;
+
+    private static final int HEADER_BYTES = 1 + 4 + 2;
+
+    private MarketFrameCodec() {
+    }
+
+    /**
+     * Encode a snapshot, delta or position frame
+     * @return Base64 of the binary frame, ready for an SSE data line
+     * @throws IllegalArgumentException for any other object
+     */
+    public static String encodeBase64(Object frame) {
+        return Base64.getEncoder().encodeToString(encode(frame));
+    }
+
+    public static byte[] encode(Object frame) {
+        if (frame instanceof DeltaFrameDTO delta) {
+            return encodeDelta(delta);
+        }
+        if (frame instanceof PositionFrameDTO position) {
+            return encodePosition(position);
+        }
+        if (frame instanceof SnapshotFrameDTO snapshot) {
+            return encodeSnapshot(snapshot);
+        }
+        throw new IllegalArgumentException("No binary layout for " + frame.getClass().getSimpleName());
+    }
+
+    private static byte[] encodeDelta(DeltaFrameDTO delta) {
+        long[][] prices = delta.getPrices();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 1 + prices.length * 5);
+        header(buffer, TYPE_DELTA, delta.getSeq(), delta.getRound());
+        buffer.put((byte) prices.length);
+        for (long[] price : prices) {
+            buffer.put((byte) price[0]).putInt((int) price[1]);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodePosition(PositionFrameDTO position) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 1 + 4 + 4 + 8);
+        header(buffer, TYPE_POSITION, position.getSeq(), 0);
+        buffer.put((byte) position.getIndex())
+            .putInt(position.getShares())
+            .putInt((int) position.getAveragePriceCents())
+            .putLong(position.getCashCents());
+        return buffer.array();
+    }
+
+    private static byte[] encodeSnapshot(SnapshotFrameDTO snapshot) {
+        int count = snapshot.getStocks().size();
+        byte[][] symbols = new byte[count][];
+        byte[][] names = new byte[count][];
+        byte[][] images = new byte[count][];
+        int size = HEADER_BYTES + 1;
+        for (int i = 0; i < count; i++) {
+            SnapshotFrameDTO.Entry entry = snapshot.getStocks().get(i);
+            symbols[i] = utf8(entry.getSymbol(), 0xFF);
+            names[i] = utf8(entry.getCompanyName(), 0xFF);
+            images[i] = utf8(entry.getHeartImageUrl(), 0xFFFF);
+            size += 1 + 16 + 1 + symbols[i].length + 1 + names[i].length + 1 + 2 + images[i].length + 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        header(buffer, TYPE_SNAPSHOT, snapshot.getSeq(), snapshot.getRound());
+        buffer.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            SnapshotFrameDTO.Entry entry = snapshot.getStocks().get(i);
+            buffer.put((byte) entry.getIndex())
+                .putLong(entry.getId().getMostSignificantBits())
+                .putLong(entry.getId().getLeastSignificantBits());
+            buffer.put((byte) symbols[i].length).put(symbols[i]);
+            buffer.put((byte) names[i].length).put(names[i]);
+            buffer.put((byte) (entry.getSector() != null ? entry.getSector().ordinal() : 0xFF));
+            buffer.putShort((short) images[i].length).put(images[i]);
+            buffer.putInt((int) entry.getPriceCents());
+        }
+        return buffer.array();
+    }
+
+    private static void header(ByteBuffer buffer, byte type, long seq, int round) {
+        buffer.put(type).putInt((int) seq).putShort((short) round);
+    }
+
+    private static byte[] utf8(String value, int maxBytes) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        byte[] truncated = new byte[maxBytes];
+        System.arraycopy(bytes, 0, truncated, 0, maxBytes);
+        return truncated;
+    }
+}
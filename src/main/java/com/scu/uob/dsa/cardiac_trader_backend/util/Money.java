@@ -0,0 +1,100 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on a primitive long of cents.
+ * The trade and valuation paths keep amounts as cents so they allocate nothing; BigDecimal is only
+ * produced at the entity/DTO boundary. Every operation is exact and throws ArithmeticException on
+ * overflow instead of wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long CENTS_PER_UNIT = 100;
+    // Multipliers such as sector weights are expressed in basis points (1.5x = 15000)
+    public static final long BASIS_POINTS = 10_000;
+
+    private Money() {
+    }
+
+    /**
+     * Cents of an amount, rounding any sub-cent digits HALF_UP
+     * @param amount Amount, or null for zero
+     * @throws ArithmeticException if the amount does not fit in a long of cents
+     */
+    public static long ofBigDecimal(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Cents of a floating-point amount (e.g. a simulated price), rounded to the nearest cent
+     * @throws ArithmeticException if the amount is not finite or does not fit in a long of cents
+     */
+    public static long ofDouble(double amount) {
+        double cents = Math.rint(amount * CENTS_PER_UNIT);
+        if (!Double.isFinite(cents) || cents >= 0x1p63 || cents < -0x1p63) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return (long) cents;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    public static long plus(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long minus(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Price times a quantity of shares
+     */
+    public static long times(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    /**
+     * Amount times a multiplier in basis points, rounded HALF_UP to the cent
+     */
+    public static long timesBasisPoints(long cents, long basisPoints) {
+        return divideHalfUp(Math.multiplyExact(cents, basisPoints), BASIS_POINTS);
+    }
+
+    /**
+     * Division rounded HALF_UP (ties away from zero), matching BigDecimal's RoundingMode.HALF_UP
+     * @throws ArithmeticException if the divisor is zero
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        // 2|r| >= |d| means the discarded fraction is at least one half
+        if (remainder != 0 && remainder >= Math.absExact(divisor) - remainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * part / whole as a percentage with two decimals (e.g. 1234 = 12.34%), rounded HALF_UP
+     * @return 0 if whole is not positive
+     */
+    public static long percentHundredths(long part, long whole) {
+        if (whole <= 0) {
+            return 0;
+        }
+        return divideHalfUp(Math.multiplyExact(part, BASIS_POINTS), whole);
+    }
+}
@@ -0,0 +1,95 @@
+package com.scu.uob.dsa.cardiac_trader_backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService.HeartPuzzle;
+import com.scu.uob.dsa.cardiac_trader_backend.util.HeartPuzzleParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original String/Map based Heart API parsing with the streaming HeartPuzzleParser.
+ * Run main() and read the gc.alloc.rate.norm column for bytes allocated per puzzle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeartPuzzleParserBenchmark {
+
+    // Roughly the size of a real puzzle PNG
+    private static final int IMAGE_BYTES = 200 * 1024;
+
+    private byte[] responseBody;
+    private HeartPuzzleParser parser;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(42).nextBytes(image);
+        // PHP's json_encode escapes forward slashes, so mirror that in the fixture
+        String base64 = Base64.getMimeEncoder().encodeToString(image)
+            .replace("/", "\\/")
+            .replace("\r\n", "\\n");
+        responseBody = ("{\"question\":\"" + base64 + "\",\"solution\":7,\"carrots\":1}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        parser = new HeartPuzzleParser();
+        objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * The pre-streaming path: body as String, trims, generic Map, whitespace regex and data URI concat
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String legacyStringAndMap() throws Exception {
+        String body = new String(responseBody, StandardCharsets.UTF_8);
+        if (body.trim().isEmpty() || !body.trim().startsWith("{") && !body.trim().startsWith("[")) {
+            throw new IllegalStateException("not JSON");
+        }
+        Map<String, Object> data = objectMapper.readValue(body, Map.class);
+        String base64 = data.get("question").toString().trim().replaceAll("\\s+", "");
+        Integer.parseInt(data.get("solution").toString());
+        return "data:image/png;base64," + base64;
+    }
+
+    @Benchmark
+    public HeartPuzzle streaming() {
+        return parser.parse(new ByteArrayInputStream(responseBody));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(HeartPuzzleParserBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
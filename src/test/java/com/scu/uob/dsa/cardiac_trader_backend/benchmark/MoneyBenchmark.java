@@ -0,0 +1,148 @@
+package com.scu.uob.dsa.cardiac_trader_backend.benchmark;
+
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the BigDecimal trade and valuation arithmetic with long-cents Money.
+ * buy*: cost, funds check, cash update and weighted average price of one purchase.
+ * portfolio*: value, cost basis, profit/loss and percentage over every holding.
+ * Run main() and read the gc.alloc.rate.norm column for bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"5", "50"})
+    private int holdings;
+
+    private BigDecimal cash;
+    private BigDecimal price;
+    private BigDecimal averagePrice;
+    private long cashCents;
+    private long priceCents;
+    private long averagePriceCents;
+    private int heldShares;
+    private int boughtShares;
+
+    private BigDecimal[] holdingPrices;
+    private BigDecimal[] holdingAverages;
+    private long[] holdingPriceCents;
+    private long[] holdingAverageCents;
+    private int[] holdingShares;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cashCents = 1_000_000;
+        priceCents = 72_537;
+        averagePriceCents = 69_910;
+        heldShares = 7;
+        boughtShares = 3;
+        cash = Money.toBigDecimal(cashCents);
+        price = Money.toBigDecimal(priceCents);
+        averagePrice = Money.toBigDecimal(averagePriceCents);
+
+        holdingPrices = new BigDecimal[holdings];
+        holdingAverages = new BigDecimal[holdings];
+        holdingPriceCents = new long[holdings];
+        holdingAverageCents = new long[holdings];
+        holdingShares = new int[holdings];
+        for (int i = 0; i < holdings; i++) {
+            holdingPriceCents[i] = 10_000 + random.nextInt(150_000);
+            holdingAverageCents[i] = 10_000 + random.nextInt(150_000);
+            holdingShares[i] = 1 + random.nextInt(50);
+            holdingPrices[i] = Money.toBigDecimal(holdingPriceCents[i]);
+            holdingAverages[i] = Money.toBigDecimal(holdingAverageCents[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal buyBigDecimal() {
+        BigDecimal totalCost = price.multiply(BigDecimal.valueOf(boughtShares));
+        if (totalCost.compareTo(cash) > 0) {
+            throw new IllegalStateException("insufficient funds");
+        }
+        BigDecimal remainingCash = cash.subtract(totalCost);
+        BigDecimal oldTotalValue = averagePrice.multiply(BigDecimal.valueOf(heldShares));
+        BigDecimal newAveragePrice = oldTotalValue.add(totalCost)
+            .divide(BigDecimal.valueOf(heldShares + boughtShares), 2, RoundingMode.HALF_UP);
+        return remainingCash.add(newAveragePrice);
+    }
+
+    @Benchmark
+    public long buyCents() {
+        long totalCost = Money.times(priceCents, boughtShares);
+        if (totalCost > cashCents) {
+            throw new IllegalStateException("insufficient funds");
+        }
+        long remainingCash = Money.minus(cashCents, totalCost);
+        long oldTotalValue = Money.times(averagePriceCents, heldShares);
+        long newAveragePrice = Money.divideHalfUp(Money.plus(oldTotalValue, totalCost), heldShares + boughtShares);
+        return remainingCash + newAveragePrice;
+    }
+
+    @Benchmark
+    public BigDecimal portfolioBigDecimal() {
+        BigDecimal totalStockValue = BigDecimal.ZERO;
+        BigDecimal totalPercentage = BigDecimal.ZERO;
+        for (int i = 0; i < holdings; i++) {
+            BigDecimal shares = BigDecimal.valueOf(holdingShares[i]);
+            BigDecimal totalValue = holdingPrices[i].multiply(shares);
+            BigDecimal costBasis = holdingAverages[i].multiply(shares);
+            BigDecimal profitLoss = totalValue.subtract(costBasis);
+            BigDecimal percentage = costBasis.compareTo(BigDecimal.ZERO) > 0
+                ? profitLoss.divide(costBasis, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                : BigDecimal.ZERO;
+            totalStockValue = totalStockValue.add(totalValue);
+            totalPercentage = totalPercentage.add(percentage);
+        }
+        return totalStockValue.add(totalPercentage);
+    }
+
+    @Benchmark
+    public long portfolioCents() {
+        long totalStockValue = 0;
+        long totalPercentage = 0;
+        for (int i = 0; i < holdings; i++) {
+            long totalValue = Money.times(holdingPriceCents[i], holdingShares[i]);
+            long costBasis = Money.times(holdingAverageCents[i], holdingShares[i]);
+            long profitLoss = Money.minus(totalValue, costBasis);
+            totalStockValue = Money.plus(totalStockValue, totalValue);
+            totalPercentage += Money.percentHundredths(profitLoss, costBasis);
+        }
+        return totalStockValue + totalPercentage;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(MoneyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
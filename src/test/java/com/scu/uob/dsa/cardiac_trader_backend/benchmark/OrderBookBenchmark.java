@@ -0,0 +1,149 @@
+package com.scu.uob.dsa.cardiac_trader_backend.benchmark;
+
+import com.scu.uob.dsa.cardiac_trader_backend.engine.OrderBook;
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TournamentMarket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order matching throughput in orders per second (target: at least 100k per node).
+ * The flow is a random mix around a mid price: 90% limit and 10% market orders, sides 50/50,
+ * with one in five book operations cancelling an earlier order, so the book stays at a steady depth.
+ * book: OrderBook alone on the benchmark thread (the matching core).
+ * market: orders submitted to a TournamentMarket's writer thread in batches, including the
+ * reservation checks, account updates, trade tape and queue hand-off of the real order path.
+ * Run main() and read the ops/s column; gc.alloc.rate.norm shows bytes allocated per order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final int FLOW = 1 << 16;
+    private static final int ACCOUNTS = 64;
+    private static final int BATCH = 1_000;
+    private static final long MID_CENTS = 10_000;
+
+    private final boolean[] buy = new boolean[FLOW];
+    private final boolean[] market = new boolean[FLOW];
+    private final long[] price = new long[FLOW];
+    private final long[] quantity = new long[FLOW];
+    private final int[] owner = new int[FLOW];
+    private final boolean[] cancel = new boolean[FLOW];
+
+    private OrderBook book;
+    private OrderBook.Listener listener;
+    private long nextOrderId;
+    private int cursor;
+    private long filled;
+
+    private TournamentMarket tournamentMarket;
+    private UUID[] sessions;
+    private final int[] placedBy = new int[FLOW];
+    private long placed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < FLOW; i++) {
+            buy[i] = random.nextBoolean();
+            market[i] = random.nextInt(10) == 0;
+            // Buyers bid a little below mid and sellers ask a little above, so most limits rest for a while
+            long offset = random.nextInt(60) - 20;
+            price[i] = buy[i] ? MID_CENTS - offset : MID_CENTS + offset;
+            quantity[i] = 1 + random.nextInt(100);
+            owner[i] = random.nextInt(ACCOUNTS);
+            cancel[i] = random.nextInt(5) == 0;
+        }
+
+        book = new OrderBook();
+        listener = new OrderBook.Listener() {
+            @Override
+            public void onFill(OrderBook.Order taker, OrderBook.Order maker, long priceCents, long fillQuantity) {
+                filled += fillQuantity;
+            }
+
+            @Override
+            public void onCancel(OrderBook.Order order) {
+            }
+        };
+
+        sessions = new UUID[ACCOUNTS];
+        tournamentMarket = new TournamentMarket(UUID.randomUUID(), new long[]{MID_CENTS}, BATCH * 4, 1024, trade -> { });
+        for (int i = 0; i < ACCOUNTS; i++) {
+            sessions[i] = UUID.randomUUID();
+            tournamentMarket.join(sessions[i], 1_000_000_000_000_000L, new long[]{1_000_000_000_000L}).join();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tournamentMarket.close();
+    }
+
+    @Benchmark
+    public long book() {
+        int i = cursor++ & (FLOW - 1);
+        if (cancel[i] && nextOrderId > 0) {
+            long orderId = nextOrderId - 1 - (i & 1023);
+            return book.cancel(orderId, owner[(int) (orderId & (FLOW - 1))]) != null ? 1 : 0;
+        }
+        long orderId = nextOrderId++;
+        // Keep the order's owner recoverable from its ID so cancels above can name it
+        OrderBook.Order order = new OrderBook.Order(orderId, owner[(int) (orderId & (FLOW - 1))], 0,
+            buy[i], market[i], price[i], quantity[i]);
+        return book.submit(order, listener) + filled;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object market() {
+        CompletableFuture<?> last = null;
+        for (int n = 0; n < BATCH; n++) {
+            int i = cursor++ & (FLOW - 1);
+            if (cancel[i] && placed > 0) {
+                // The market numbers orders 1, 2, 3... in arrival order, so the ID of an earlier order is known here
+                long orderId = placed - (i & 1023);
+                if (orderId > 0) {
+                    last = tournamentMarket.cancel(sessions[placedBy[(int) (orderId & (FLOW - 1))]], orderId, 0);
+                    continue;
+                }
+            }
+            placedBy[(int) (++placed & (FLOW - 1))] = owner[i];
+            last = tournamentMarket.place(sessions[owner[i]], 0, buy[i], market[i], price[i], quantity[i]);
+        }
+        return last.join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(OrderBookBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
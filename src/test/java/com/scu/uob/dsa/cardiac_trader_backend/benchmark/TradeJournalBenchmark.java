@@ -0,0 +1,113 @@
+package com.scu.uob.dsa.cardiac_trader_backend.benchmark;
+
+import com.scu.uob.dsa.cardiac_trader_backend.engine.TradeJournal;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable trades per second through the trade journal: append a trade-sized record, then wait for
+ * the fsync that covers it, as TradeLedger.execute does.
+ * single: one trader, so every trade pays a full fsync.
+ * concurrent: 16 traders, whose trades share fsyncs (group commit); the appends and syncs counters
+ * show how many appends each fsync covered. Results depend on the disk: run on the disk that holds
+ * trading.ledger.dir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeJournalBenchmark {
+
+    // About the size of a single-trade ledger entry
+    private static final int PAYLOAD_BYTES = 100;
+
+    private Path dir;
+    private TradeJournal journal;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("trade-journal-benchmark");
+        journal = TradeJournal.open(dir, 64L * 1024 * 1024);
+        payload = new byte[PAYLOAD_BYTES];
+        ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    /**
+     * Appends and the fsyncs they ran, reported next to the throughput of each iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long appends;
+        public long syncs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            appends = 0;
+            syncs = 0;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long single(Counters counters) throws IOException {
+        return appendAndSync(counters);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long concurrent(Counters counters) throws IOException {
+        return appendAndSync(counters);
+    }
+
+    private long appendAndSync(Counters counters) throws IOException {
+        long sequence = journal.append(payload);
+        counters.appends++;
+        if (journal.sync(sequence)) {
+            counters.syncs++;
+        }
+        return sequence;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(TradeJournalBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,214 @@
+package com.scu.uob.dsa.cardiac_trader_backend.cache;
+
+import com.scu.uob.dsa.cardiac_trader_backend.enums.TransactionType;
+import com.scu.uob.dsa.cardiac_trader_backend.model.GameSession;
+import com.scu.uob.dsa.cardiac_trader_backend.model.Stock;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.ConditionalOrderRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.GameSessionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.HoldingRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.LedgerCheckpointRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.StockRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.repository.TransactionRepository;
+import com.scu.uob.dsa.cardiac_trader_backend.service.SessionEventService;
+import com.scu.uob.dsa.cardiac_trader_backend.util.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Many threads trading the same sessions at once: session mailboxes must serialise every trade,
+ * so no two trades ever spend the same cash or sell the same shares.
+ */
+class TradeLedgerConcurrencyTest {
+
+    private static final int SESSIONS = 4;
+    private static final long STARTING_CASH_CENTS = 100_000;
+
+    @TempDir
+    Path journalDir;
+
+    private final UUID[] sessionIds = new UUID[SESSIONS];
+    private final Stock[] stocks = new Stock[3];
+    private ExecutorService mailboxExecutor;
+    private ExecutorService traders;
+    private TradeLedger ledger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        GameSessionRepository gameSessionRepository = mock(GameSessionRepository.class);
+        for (int i = 0; i < SESSIONS; i++) {
+            GameSession gameSession = new GameSession();
+            gameSession.setId(UUID.randomUUID());
+            gameSession.setCurrentCapital(Money.toBigDecimal(STARTING_CASH_CENTS));
+            when(gameSessionRepository.findById(gameSession.getId())).thenReturn(Optional.of(gameSession));
+            sessionIds[i] = gameSession.getId();
+        }
+        for (int i = 0; i < stocks.length; i++) {
+            stocks[i] = new Stock();
+            stocks[i].setId(UUID.randomUUID());
+            stocks[i].setSymbol("STK" + i);
+        }
+
+        mailboxExecutor = Executors.newFixedThreadPool(4);
+        traders = Executors.newFixedThreadPool(32);
+        ledger = new TradeLedger(
+            gameSessionRepository,
+            mock(HoldingRepository.class),
+            mock(TransactionRepository.class),
+            mock(ConditionalOrderRepository.class),
+            mock(LedgerCheckpointRepository.class),
+            mock(StockRepository.class),
+            mock(SessionEventService.class),
+            mock(PlatformTransactionManager.class),
+            mailboxExecutor,
+            8);
+        ReflectionTestUtils.setField(ledger, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(ledger, "segmentBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(ledger, "flushBatchSize", 1000);
+        ReflectionTestUtils.setField(ledger, "idleMinutes", 30L);
+        ledger.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        traders.shutdownNow();
+        ledger.close();
+        mailboxExecutor.shutdownNow();
+    }
+
+    @Test
+    void concurrentBuysNeverSpendTheSameCash() throws Exception {
+        // 320 simultaneous 10.00 buys against 1000.00: exactly 100 can succeed
+        UUID sessionId = sessionIds[0];
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> cashSeen = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            futures.add(traders.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    TradeLedger.Outcome outcome = ledger.execute(sessionId,
+                        List.of(new TradeLedger.Trade(stocks[0], TransactionType.BUY, 1, 1_000, null)), true);
+                    cashSeen.add(outcome.cashCents());
+                    if (outcome.results().get(0).executed()) {
+                        executed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(100, executed.get());
+        assertTrue(cashSeen.stream().allMatch(cash -> cash >= 0), "cash went negative");
+        TradeLedger.View view = ledger.view(sessionId);
+        assertEquals(0, view.cashCents());
+        assertEquals(100, view.positions().get(0).shares());
+    }
+
+    @Test
+    void mixedTradingKeepsCashAndSharesConsistent() throws Exception {
+        // Random buys, sells and batches on shared sessions; every fill is replayed afterwards to
+        // check that the ledger's final cash and shares are exactly what the fills add up to
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<SessionFill> fills = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            long seed = t;
+            futures.add(traders.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    int session = random.nextInt(SESSIONS);
+                    List<TradeLedger.Trade> trades = new ArrayList<>();
+                    int count = random.nextInt(10) == 0 ? 1 + random.nextInt(5) : 1;
+                    for (int n = 0; n < count; n++) {
+                        trades.add(new TradeLedger.Trade(stocks[random.nextInt(stocks.length)],
+                            random.nextBoolean() ? TransactionType.BUY : TransactionType.SELL,
+                            1 + random.nextInt(20), 100 + random.nextInt(2_000), null));
+                    }
+                    TradeLedger.Outcome outcome = ledger.execute(sessionIds[session], trades, random.nextBoolean());
+                    assertTrue(outcome.cashCents() >= 0, "cash went negative");
+                    for (TradeLedger.TradeResult result : outcome.results()) {
+                        assertTrue(result.cashAfterCents() >= 0, "cash went negative");
+                        if (result.executed()) {
+                            assertTrue(result.fill().sharesAfter() >= 0, "shares went negative");
+                            fills.add(new SessionFill(session, result.fill()));
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+
+        long[] cash = new long[SESSIONS];
+        int[][] shares = new int[SESSIONS][stocks.length];
+        Arrays.fill(cash, STARTING_CASH_CENTS);
+        for (SessionFill fill : fills) {
+            long value = Money.times(fill.fill.priceCents(), fill.fill.shares());
+            int stock = stockIndex(fill.fill.stockId());
+            if (fill.fill.side() == TransactionType.BUY) {
+                cash[fill.session] -= value;
+                shares[fill.session][stock] += fill.fill.shares();
+            } else {
+                cash[fill.session] += value;
+                shares[fill.session][stock] -= fill.fill.shares();
+            }
+        }
+        for (int session = 0; session < SESSIONS; session++) {
+            TradeLedger.View view = ledger.view(sessionIds[session]);
+            assertEquals(cash[session], view.cashCents());
+            int[] held = new int[stocks.length];
+            for (TradeLedger.Position position : view.positions()) {
+                held[stockIndex(position.stock().getId())] = position.shares();
+            }
+            for (int stock = 0; stock < stocks.length; stock++) {
+                assertEquals(shares[session][stock], held[stock]);
+            }
+        }
+    }
+
+    private int stockIndex(UUID stockId) {
+        for (int i = 0; i < stocks.length; i++) {
+            if (stocks[i].getId().equals(stockId)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown stock " + stockId);
+    }
+
+    private record SessionFill(int session, TradeLedger.Fill fill) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A lock-free price read must never return a price from a slot that was freed and handed to another session
+ */
+class MarketTickEngineTest {
+
+    private final MarketTickEngine engine = new MarketTickEngine();
+
+    @BeforeEach
+    void setUp() {
+        // One slot, so every registration reuses the slot the other session just freed
+        ReflectionTestUtils.setField(engine, "maxSessions", 1);
+        ReflectionTestUtils.setField(engine, "stocksPerSession", 2);
+        ReflectionTestUtils.setField(engine, "configuredWorkers", 1);
+        engine.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void readsRacingSlotReuseNeverSeeAnotherSessionsPrice() throws InterruptedException {
+        UUID reader = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        // Both sessions trade the same stock, as in a daily challenge
+        UUID[] stockIds = {UUID.randomUUID()};
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong otherPrices = new AtomicLong();
+
+        Thread thread = new Thread(() -> {
+            while (running.get()) {
+                double price = engine.priceOf(reader, stockIds[0]);
+                if (price == 2.0) {
+                    otherPrices.incrementAndGet();
+                }
+            }
+        });
+        thread.start();
+        for (int i = 0; i < 200_000; i++) {
+            engine.register(reader, 1, stockIds, new double[]{1.0}, new double[]{1.0});
+            engine.unregister(reader);
+            engine.register(other, 1, stockIds, new double[]{2.0}, new double[]{2.0});
+            engine.unregister(other);
+        }
+        running.set(false);
+        thread.join();
+
+        assertEquals(0, otherPrices.get());
+    }
+
+    @Test
+    void freedSlotReadsAsNotTicked() {
+        UUID sessionId = UUID.randomUUID();
+        UUID stockId = UUID.randomUUID();
+        engine.register(sessionId, 1, new UUID[]{stockId}, new double[]{5.0}, new double[]{5.0});
+        assertEquals(500, engine.peekPriceCents(sessionId, stockId, 0));
+
+        engine.unregister(sessionId);
+
+        assertEquals(0, engine.peekPriceCents(sessionId, stockId, 0));
+        assertTrue(Double.isNaN(engine.priceOf(sessionId, stockId)));
+    }
+}
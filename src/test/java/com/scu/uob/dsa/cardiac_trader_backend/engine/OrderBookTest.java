@@ -0,0 +1,76 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Market buys must never be sized from, or spend past, what the buyer can actually pay for
+ */
+class OrderBookTest {
+
+    private static final int BUYER = 0;
+    private static final int SELLER = 1;
+
+    private final List<long[]> fills = new ArrayList<>();
+    private final List<Long> cancelled = new ArrayList<>();
+    private final OrderBook.Listener listener = new OrderBook.Listener() {
+        @Override
+        public void onFill(OrderBook.Order taker, OrderBook.Order maker, long priceCents, long quantity) {
+            fills.add(new long[]{priceCents, quantity});
+        }
+
+        @Override
+        public void onCancel(OrderBook.Order order) {
+            cancelled.add(order.getId());
+        }
+    };
+
+    @Test
+    void affordableQuantitySkipsTheBuyersOwnAsks() {
+        // Own ask 10 @ $1, someone else's ask 10 @ $100, $10 to spend: nothing is affordable
+        OrderBook book = new OrderBook();
+        book.submit(new OrderBook.Order(1, BUYER, 0, false, false, 100, 10), listener);
+        book.submit(new OrderBook.Order(2, SELLER, 0, false, false, 10_000, 10), listener);
+
+        assertEquals(0, book.affordableQuantity(BUYER, 1_000, 10));
+        assertEquals(10, book.affordableQuantity(SELLER, 1_000, 10));
+    }
+
+    @Test
+    void buyStopsMatchingWhenItsBudgetRunsOut() {
+        // Sized against the cheap own ask, the buy would otherwise fill all 10 at $100
+        OrderBook book = new OrderBook();
+        book.submit(new OrderBook.Order(1, BUYER, 0, false, false, 100, 10), listener);
+        book.submit(new OrderBook.Order(2, SELLER, 0, false, false, 10_000, 10), listener);
+
+        OrderBook.Order buy = new OrderBook.Order(3, BUYER, 0, true, true, 0, 10);
+        buy.setBudgetCents(1_000);
+        assertEquals(0, book.submit(buy, listener));
+
+        assertEquals(List.of(1L), cancelled);
+        assertEquals(0, fills.size());
+        assertEquals(10, buy.getRemaining());
+        assertEquals(10_000, book.bestAsk());
+    }
+
+    @Test
+    void budgetedBuyFillsWhatItCanPayFor() {
+        OrderBook book = new OrderBook();
+        book.submit(new OrderBook.Order(1, SELLER, 0, false, false, 100, 3), listener);
+        book.submit(new OrderBook.Order(2, SELLER, 0, false, false, 250, 10), listener);
+
+        OrderBook.Order buy = new OrderBook.Order(3, BUYER, 0, true, true, 0, 10);
+        buy.setBudgetCents(1_000);
+        book.submit(buy, listener);
+
+        // 3 @ 1.00 then 2 @ 2.50 spends 8.00; a third share at 2.50 would overrun the 10.00 budget
+        assertEquals(2, fills.size());
+        assertEquals(3, fills.get(0)[1]);
+        assertEquals(2, fills.get(1)[1]);
+        assertEquals(5, buy.getRemaining());
+    }
+}
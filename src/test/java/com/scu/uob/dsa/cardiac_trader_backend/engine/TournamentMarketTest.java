@@ -0,0 +1,64 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A market buy must not be sized from the buyer's own asks, which self-trade prevention pulls
+ */
+class TournamentMarketTest {
+
+    private final ConcurrentLinkedQueue<TournamentMarket.Trade> settled = new ConcurrentLinkedQueue<>();
+    private final TournamentMarket market = new TournamentMarket(UUID.randomUUID(), new long[]{5_000}, 100, 16,
+        settled::add);
+
+    @AfterEach
+    void tearDown() {
+        market.close();
+    }
+
+    @Test
+    void marketBuyIgnoresOwnCheapAsks() {
+        UUID buyer = UUID.randomUUID();
+        UUID seller = UUID.randomUUID();
+        market.join(buyer, 1_000, new long[]{10}).join();
+        market.join(seller, 0, new long[]{10}).join();
+        market.place(buyer, 0, false, false, 100, 10).join();
+        market.place(seller, 0, false, false, 10_000, 10).join();
+
+        // $10 buys nothing at $100, however cheap the buyer's own ask is
+        CompletionException failure = assertThrows(CompletionException.class,
+            () -> market.place(buyer, 0, true, true, 0, 10).join());
+        assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+        assertTrue(settled.isEmpty());
+    }
+
+    @Test
+    void marketBuySpendsAtMostItsCash() {
+        UUID buyer = UUID.randomUUID();
+        UUID seller = UUID.randomUUID();
+        market.join(buyer, 25_000, new long[]{10}).join();
+        market.join(seller, 0, new long[]{10}).join();
+        market.place(buyer, 0, false, false, 100, 10).join();
+        market.place(seller, 0, false, false, 10_000, 10).join();
+
+        TournamentMarket.OrderResult result = market.place(buyer, 0, true, true, 0, 10).join();
+
+        assertEquals(2, result.getFilledQuantity());
+        List<TournamentMarket.Trade> fills = result.getFills();
+        long spent = fills.stream().mapToLong(trade -> trade.getPriceCents() * trade.getQuantity()).sum();
+        assertTrue(spent <= 25_000, "spent more cash than the buyer had");
+        assertTrue(fills.stream().allMatch(trade -> trade.getSellerSessionId().equals(seller)));
+    }
+}
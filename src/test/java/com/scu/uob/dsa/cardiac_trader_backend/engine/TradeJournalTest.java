@@ -0,0 +1,123 @@
+package com.scu.uob.dsa.cardiac_trader_backend.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reopening the journal must keep every complete record, cut off a torn or corrupt tail, and replay
+ * exactly the records after a checkpoint
+ */
+class TradeJournalTest {
+
+    private static final long SEGMENT_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenCutsOffATruncatedLastRecord() throws IOException {
+        appendAndClose("a", "b", "c");
+        Path segment = lastSegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (TradeJournal journal = TradeJournal.open(dir, SEGMENT_BYTES)) {
+            assertEquals(2, journal.lastSequence());
+            assertEquals(List.of("1:a", "2:b"), replay(journal, 0));
+            // The cut-off sequence is reused, and the new record survives the next reopen
+            assertEquals(3, journal.append(bytes("d")));
+            journal.sync(3);
+        }
+        try (TradeJournal journal = TradeJournal.open(dir, SEGMENT_BYTES)) {
+            assertEquals(List.of("1:a", "2:b", "3:d"), replay(journal, 0));
+        }
+    }
+
+    @Test
+    void reopenCutsOffACorruptedLastRecord() throws IOException {
+        appendAndClose("a", "b", "c");
+        Path segment = lastSegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Flip the last payload byte, so the record fails its checksum
+            long position = channel.size() - 1;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, position);
+            last.put(0, (byte) (last.get(0) ^ 0xFF));
+            last.rewind();
+            channel.write(last, position);
+        }
+
+        try (TradeJournal journal = TradeJournal.open(dir, SEGMENT_BYTES)) {
+            assertEquals(2, journal.lastSequence());
+            assertEquals(2, journal.durableSequence());
+            assertEquals(List.of("1:a", "2:b"), replay(journal, 0));
+        }
+    }
+
+    @Test
+    void replayStartsAfterTheCheckpoint() throws IOException {
+        UUID journalId;
+        // Small segments, so the records span several files
+        try (TradeJournal journal = TradeJournal.open(dir, 64)) {
+            journalId = journal.journalId();
+            for (int i = 1; i <= 6; i++) {
+                journal.sync(journal.append(bytes("r" + i)));
+            }
+            assertEquals(List.of("5:r5", "6:r6"), replay(journal, 4));
+            // Checkpoint at 4: segments wholly at or below it may go
+            journal.deleteThrough(4);
+        }
+
+        try (TradeJournal journal = TradeJournal.open(dir, 64)) {
+            assertEquals(journalId, journal.journalId());
+            assertEquals(6, journal.lastSequence());
+            assertEquals(List.of("5:r5", "6:r6"), replay(journal, 4));
+            assertEquals(List.of(), replay(journal, 6));
+        }
+    }
+
+    private void appendAndClose(String... payloads) throws IOException {
+        try (TradeJournal journal = TradeJournal.open(dir, SEGMENT_BYTES)) {
+            long sequence = 0;
+            for (String payload : payloads) {
+                sequence = journal.append(bytes(payload));
+            }
+            journal.sync(sequence);
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                .sorted()
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        }
+    }
+
+    private static List<String> replay(TradeJournal journal, long afterSequence) throws IOException {
+        List<String> records = new ArrayList<>();
+        journal.replay(afterSequence,
+            (sequence, payload) -> records.add(sequence + ":" + new String(payload, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private static byte[] bytes(String payload) {
+        return payload.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,74 @@
+package com.scu.uob.dsa.cardiac_trader_backend.util;
+
+import com.scu.uob.dsa.cardiac_trader_backend.exception.ExternalAPIException;
+import com.scu.uob.dsa.cardiac_trader_backend.service.HeartAPIService.HeartPuzzle;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The image must decode to the same bytes whether it is sent as bare base64 (as PHP's json_encode
+ * writes it, with escaped slashes and line breaks) or as a data URI
+ */
+class HeartPuzzleParserTest {
+
+    private final HeartPuzzleParser parser = new HeartPuzzleParser();
+
+    @Test
+    void decodesBareBase64WithEscapedSlashesAndLineBreaks() {
+        byte[] image = image(4099);
+        String base64 = Base64.getMimeEncoder().encodeToString(image)
+            .replace("/", "\\/")
+            .replace("\r\n", "\\n");
+
+        HeartPuzzle puzzle = parse("{\"question\":\"" + base64 + "\",\"solution\":7}");
+
+        assertArrayEquals(image, puzzle.getImageData());
+        assertEquals(7, puzzle.getCorrectAnswer());
+    }
+
+    @Test
+    void decodesADataUriFromAfterItsComma() {
+        byte[] image = image(1000);
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(image).replace("/", "\\/");
+
+        HeartPuzzle puzzle = parse("{\"question\":\"" + dataUri + "\",\"solution\":\"3\"}");
+
+        assertArrayEquals(image, puzzle.getImageData());
+        assertEquals(3, puzzle.getCorrectAnswer());
+    }
+
+    @Test
+    void decodesUnpaddedBase64() {
+        // 1 and 2 trailing bytes leave 2 and 3 characters after the last full quantum
+        for (int size = 1; size <= 5; size++) {
+            byte[] image = image(size);
+            String base64 = Base64.getEncoder().withoutPadding().encodeToString(image);
+
+            assertArrayEquals(image, parse("{\"image\":\"" + base64 + "\"}").getImageData());
+        }
+    }
+
+    @Test
+    void rejectsCharactersOutsideTheAlphabet() {
+        assertThrows(ExternalAPIException.class, () -> parse("{\"question\":\"iVBO*w0K\",\"solution\":1}"));
+        assertThrows(ExternalAPIException.class, () -> parse("{\"question\":\"data:image/png;base64\",\"solution\":1}"));
+    }
+
+    private HeartPuzzle parse(String body) {
+        return parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] image(int size) {
+        byte[] image = new byte[size];
+        new Random(size).nextBytes(image);
+        return image;
+    }
+}